@@ -0,0 +1,101 @@
+package com.retailer.rewards.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+/**
+ * Benchmarks the serialization and deserialization of a
+ * {@link RewardSummaryResponse} of 1k transactions in JSON, CBOR and Smile,
+ * with object mappers configured the way the application configures them. The
+ * size of the payload of each encoding is written on setup to
+ * {@code target/jmh-payload-sizes/<encoding>-<transactionCount>.txt}, next to
+ * the JMH result file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseEncodingBenchmark {
+
+	@Param({ "json", "cbor", "smile" })
+	private String encoding;
+
+	@Param({ "1000" })
+	private int transactionCount;
+
+	private ObjectMapper objectMapper;
+
+	private RewardSummaryResponse response;
+
+	private static final Path PAYLOAD_SIZES_DIRECTORY = Path.of("target", "jmh-payload-sizes");
+
+	private byte[] payload;
+
+	@Setup
+	public void setUp() throws IOException {
+		JsonFactory factory = switch (encoding) {
+		case "cbor" -> new CBORFactory();
+		case "smile" -> new SmileFactory();
+		default -> new JsonFactory();
+		};
+		objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+		Customer customer = new Customer(1L, "Benchmark", null);
+		List<TransactionDetails> transactions = SyntheticTransactions
+				.toDetails(SyntheticTransactions.generate(customer, transactionCount));
+		List<MonthRewardSummary> rewardPointsPerMonth = new ArrayList<>();
+		int totalPoints = 0;
+		YearMonth firstMonth = YearMonth.from(SyntheticTransactions.START_DATE);
+		int[] points = RewardRuleSet.DEFAULT.calculateRewardPointsPerMonth(transactions, firstMonth, 12);
+		for (int i = 0; i < points.length; i++) {
+			YearMonth month = firstMonth.plusMonths(i);
+			rewardPointsPerMonth.add(new MonthRewardSummary(month.getYear(), month.getMonth(), points[i]));
+			totalPoints += points[i];
+		}
+		response = new RewardSummaryResponse(1L, "Benchmark", transactions, rewardPointsPerMonth, totalPoints);
+		payload = objectMapper.writeValueAsBytes(response);
+		Files.createDirectories(PAYLOAD_SIZES_DIRECTORY);
+		Files.writeString(PAYLOAD_SIZES_DIRECTORY.resolve(encoding + "-" + transactionCount + ".txt"),
+				payload.length + System.lineSeparator());
+	}
+
+	@Benchmark
+	public byte[] serialize() throws IOException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+	@Benchmark
+	public RewardSummaryResponse deserialize() throws IOException {
+		return objectMapper.readValue(payload, RewardSummaryResponse.class);
+	}
+
+}
@@ -0,0 +1,97 @@
+package com.retailer.rewards.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.rules.RewardRuleProperties.Promotion;
+import com.retailer.rewards.rules.RewardRuleProperties.Tier;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+/**
+ * Benchmarks the reward points calculation of a single purchase amount, with
+ * the static calculator and with compiled reward rules.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RewardCalculatorBenchmark {
+
+	private static final int AMOUNTS = 1024;
+
+	private double[] amounts;
+
+	private long[] amountsCents;
+
+	private LocalDate[] dates;
+
+	private RewardRuleSet campaignRules;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		amounts = new double[AMOUNTS];
+		for (int i = 0; i < AMOUNTS; i++) {
+			amounts[i] = random.nextInt(30_000) / 100.0;
+		}
+		amountsCents = new long[AMOUNTS];
+		for (int i = 0; i < AMOUNTS; i++) {
+			amountsCents[i] = Money.toCents(amounts[i]);
+		}
+		dates = new LocalDate[AMOUNTS];
+		for (int i = 0; i < AMOUNTS; i++) {
+			dates[i] = SyntheticTransactions.START_DATE.plusDays(random.nextInt(365));
+		}
+		// Four tiers and one promotion per month, half of the dates fall into one
+		List<Tier> tiers = List.of(new Tier(25, 0.5), new Tier(50, 1), new Tier(100, 2), new Tier(200, 3));
+		List<Promotion> promotions = new ArrayList<>();
+		for (int month = 0; month < 12; month++) {
+			LocalDate start = SyntheticTransactions.START_DATE.plusMonths(month);
+			promotions.add(new Promotion("promotion-" + month, start, start.plusDays(14), 2, List.of()));
+		}
+		campaignRules = RewardRuleSet.compile(tiers, promotions);
+	}
+
+	@Benchmark
+	public int calculateRewardPoints() {
+		return RewardCalculator.calculateRewardPoints(amounts[index++ & (AMOUNTS - 1)]);
+	}
+
+	@Benchmark
+	public int calculateRewardPointsFromCents() {
+		return RewardCalculator.calculateRewardPointsFromCents(amountsCents[index++ & (AMOUNTS - 1)]);
+	}
+
+	@Benchmark
+	public int defaultRules() {
+		return RewardRuleSet.DEFAULT.calculateRewardPointsFromCents(amountsCents[index & (AMOUNTS - 1)],
+				dates[index++ & (AMOUNTS - 1)]);
+	}
+
+	@Benchmark
+	public int campaignRules() {
+		return campaignRules.calculateRewardPointsFromCents(amountsCents[index & (AMOUNTS - 1)],
+				dates[index++ & (AMOUNTS - 1)]);
+	}
+
+}
@@ -0,0 +1,146 @@
+package com.retailer.rewards.benchmark;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
+import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+import com.retailer.rewards.service.CustomerCache;
+import com.retailer.rewards.service.CustomerIdIndex;
+import com.retailer.rewards.service.RewardService;
+import com.retailer.rewards.service.RewardSummaryCache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Benchmarks the aggregation of transactions into monthly reward points, on
+ * its own and as part of {@link RewardService#getRewardsSummary}. The
+ * repositories are stubbed with the ledger entries and the partial month
+ * aggregates of the synthetic transactions, so that the summaries add up the
+ * points the database would return, while no database access is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardSummaryBenchmark {
+
+	private static final LocalDate START_DATE = LocalDate.of(2024, 1, 15);
+
+	private static final LocalDate END_DATE = LocalDate.of(2024, 12, 20);
+
+	@Param({ "1000", "100000", "1000000" })
+	private int transactionCount;
+
+	private List<TransactionDetails> transactions;
+
+	private RewardService rewardService;
+
+	@Setup
+	public void setUp() {
+		Customer customer = new Customer(1L, "Benchmark", null);
+		transactions = SyntheticTransactions.toDetails(SyntheticTransactions.generate(customer, transactionCount));
+
+		CustomerRepository customerRepository = mock(CustomerRepository.class);
+		TransactionRepository transactionRepository = mock(TransactionRepository.class);
+		MonthlyRewardLedgerRepository ledgerRepository = mock(MonthlyRewardLedgerRepository.class);
+		when(customerRepository.findById(anyLong())).thenReturn(Optional.of(customer));
+		when(transactionRepository.findDetailsByCustomerIdAndDateBetween(anyLong(), any(), any()))
+				.thenReturn(transactions);
+		when(ledgerRepository.findByCustomerIdAndYearBetween(anyLong(), anyInt(), anyInt()))
+				.thenReturn(sumPointsPerMonth(SyntheticTransactions.START_DATE,
+						SyntheticTransactions.START_DATE.plusDays(SyntheticTransactions.DAYS - 1)).stream()
+						.map(points -> new MonthlyRewardLedger(points.getCustomerId(), points.getYear(),
+								points.getMonth(), Math.toIntExact(points.getPoints())))
+						.toList());
+		// The months partially covered by the range are aggregated by the database
+		LocalDate firstMonthEnd = YearMonth.from(START_DATE).atEndOfMonth();
+		LocalDate lastMonthStart = END_DATE.withDayOfMonth(1);
+		when(transactionRepository.sumRewardPointsPerMonth(anyLong(), eq(START_DATE), eq(firstMonthEnd)))
+				.thenReturn(sumPointsPerMonth(START_DATE, firstMonthEnd));
+		when(transactionRepository.sumRewardPointsPerMonth(anyLong(), eq(lastMonthStart), eq(END_DATE)))
+				.thenReturn(sumPointsPerMonth(lastMonthStart, END_DATE));
+
+		rewardService = new RewardService();
+		ReflectionTestUtils.setField(rewardService, "customerRepository", customerRepository);
+		ReflectionTestUtils.setField(rewardService, "transactionRepository", transactionRepository);
+		ReflectionTestUtils.setField(rewardService, "ledgerRepository", ledgerRepository);
+		ReflectionTestUtils.setField(rewardService, "rewardRules", RewardRuleSet.DEFAULT);
+		ReflectionTestUtils.setField(rewardService, "meterRegistry", new SimpleMeterRegistry());
+		CustomerIdIndex customerIdIndex = new CustomerIdIndex();
+		customerIdIndex.add(customer.getId());
+		ReflectionTestUtils.setField(customerIdIndex, "refreshInterval", Duration.ofDays(1));
+		ReflectionTestUtils.setField(customerIdIndex, "refreshedNanos", System.nanoTime());
+		ReflectionTestUtils.setField(rewardService, "customerIdIndex", customerIdIndex);
+		ReflectionTestUtils.setField(rewardService, "customerCache", new CustomerCache(1000));
+		// The cache is disabled so that every invocation computes the summary
+		ReflectionTestUtils.setField(rewardService, "rewardSummaryCache", new RewardSummaryCache(0, Duration.ZERO));
+	}
+
+	/**
+	 * Sums the points of the synthetic transactions per month of a date range, as
+	 * the database does for the ledger and the partially covered months.
+	 */
+	private List<MonthlyRewardPoints> sumPointsPerMonth(LocalDate startDate, LocalDate endDate) {
+		Map<YearMonth, Long> pointsPerMonth = new TreeMap<>();
+		for (TransactionDetails transaction : transactions) {
+			if (!transaction.getDate().isBefore(startDate) && !transaction.getDate().isAfter(endDate)) {
+				pointsPerMonth.merge(YearMonth.from(transaction.getDate()),
+						(long) RewardRuleSet.DEFAULT.calculateRewardPointsFromCents(transaction.getAmountCents(),
+								transaction.getDate()),
+						Long::sum);
+			}
+		}
+		List<MonthlyRewardPoints> points = new ArrayList<>(pointsPerMonth.size());
+		pointsPerMonth.forEach((month, sum) -> points
+				.add(new MonthlyRewardPoints(1L, month.getYear(), month.getMonthValue(), sum)));
+		return points;
+	}
+
+	@Benchmark
+	public int[] calculateRewardPointsPerMonth() {
+		return RewardRuleSet.DEFAULT.calculateRewardPointsPerMonth(transactions, YearMonth.from(START_DATE), 12);
+	}
+
+	@Benchmark
+	public RewardSummaryResponse getRewardsSummary() {
+		return rewardService.getRewardsSummary(1L, START_DATE, END_DATE);
+	}
+
+}
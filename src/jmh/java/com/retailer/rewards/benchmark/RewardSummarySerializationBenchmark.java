@@ -0,0 +1,71 @@
+package com.retailer.rewards.benchmark;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+/**
+ * Benchmarks the JSON serialization of a {@link RewardSummaryResponse}, with
+ * the object mapper configured the way Spring Boot configures it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RewardSummarySerializationBenchmark {
+
+	@Param({ "1000", "100000" })
+	private int transactionCount;
+
+	private ObjectMapper objectMapper;
+
+	private RewardSummaryResponse response;
+
+	@Setup
+	public void setUp() {
+		objectMapper = Jackson2ObjectMapperBuilder.json().build();
+		Customer customer = new Customer(1L, "Benchmark", null);
+		List<TransactionDetails> transactions = SyntheticTransactions
+				.toDetails(SyntheticTransactions.generate(customer, transactionCount));
+		List<MonthRewardSummary> rewardPointsPerMonth = new ArrayList<>();
+		int totalPoints = 0;
+		YearMonth firstMonth = YearMonth.from(SyntheticTransactions.START_DATE);
+		int[] points = RewardRuleSet.DEFAULT.calculateRewardPointsPerMonth(transactions, firstMonth, 12);
+		for (int i = 0; i < points.length; i++) {
+			YearMonth month = firstMonth.plusMonths(i);
+			rewardPointsPerMonth.add(new MonthRewardSummary(month.getYear(), month.getMonth(), points[i]));
+			totalPoints += points[i];
+		}
+		response = new RewardSummaryResponse(1L, "Benchmark", transactions, rewardPointsPerMonth, totalPoints);
+	}
+
+	@Benchmark
+	public byte[] serializeRewardSummary() throws JsonProcessingException {
+		return objectMapper.writeValueAsBytes(response);
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.retailer.rewards.benchmark;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionDetails;
+
+/**
+ * Generates reproducible synthetic transactions for the benchmarks.
+ */
+final class SyntheticTransactions {
+
+	static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+	static final int DAYS = 366;
+
+	private SyntheticTransactions() {
+	}
+
+	/**
+	 * Generates transactions spread over the days of 2024, with amounts between
+	 * $0 and $300 rounded to cents.
+	 *
+	 * @param customer the customer of the transactions.
+	 * @param count    the number of transactions to generate.
+	 * @return the generated transactions.
+	 */
+	static List<Transaction> generate(Customer customer, int count) {
+		Random random = new Random(42);
+		List<Transaction> transactions = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			double amount = random.nextInt(30_000) / 100.0;
+			LocalDate date = START_DATE.plusDays(random.nextInt(DAYS));
+			transactions.add(new Transaction((long) i, amount, date, customer));
+		}
+		return transactions;
+	}
+
+	/**
+	 * Reads the details of transactions, as the projection queries of the
+	 * transaction repository return them.
+	 *
+	 * @param transactions the transactions.
+	 * @return the details of the transactions.
+	 */
+	static List<TransactionDetails> toDetails(List<Transaction> transactions) {
+		List<TransactionDetails> details = new ArrayList<>(transactions.size());
+		for (Transaction transaction : transactions) {
+			details.add(new TransactionDetails(transaction.getId(), transaction.getCustomer().getId(),
+					transaction.getAmountCents(), transaction.getDate()));
+		}
+		return details;
+	}
+
+}
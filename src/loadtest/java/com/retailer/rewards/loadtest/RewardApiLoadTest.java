@@ -0,0 +1,239 @@
+package com.retailer.rewards.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Load test of the reward API, run by the {@code load-test} Maven profile
+ * against the application it starts.
+ *
+ * The customers and their transactions of 2024 are seeded first, then every
+ * level of concurrent clients runs for a fixed duration after a warm-up. Each
+ * client is a virtual thread sending one request after the other: 40% reward
+ * summaries with transactions, 40% reward summaries without transactions and
+ * 20% new transactions. The throughput, the latency percentiles and the number
+ * of failed requests are printed per level.
+ *
+ * Configured with the system properties {@code loadtest.base-url},
+ * {@code loadtest.mode} (only printed), {@code loadtest.clients} (comma
+ * separated levels) and {@code loadtest.duration} (seconds per level).
+ */
+public class RewardApiLoadTest {
+
+	private static final int CUSTOMER_COUNT = 1000;
+
+	private static final int TRANSACTIONS_PER_CUSTOMER = 60;
+
+	private static final int SEED_BATCH_SIZE = 5000;
+
+	private static final Duration WARMUP = Duration.ofSeconds(5);
+
+	private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+
+	private static final LocalDate FIRST_DATE = LocalDate.of(2024, 1, 1);
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	/**
+	 * Seeds the application and runs the load test at every level of concurrent
+	 * clients.
+	 *
+	 * @param args not used.
+	 * @throws Exception if the application can not be seeded.
+	 */
+	public static void main(String[] args) throws Exception {
+		URI baseUri = URI.create(System.getProperty("loadtest.base-url", "http://localhost:8080/api/rewards/"));
+		String mode = System.getProperty("loadtest.mode", "default");
+		Duration duration = Duration.ofSeconds(Long.getLong("loadtest.duration", 20));
+		int[] levels = Arrays.stream(System.getProperty("loadtest.clients", "1000,5000,10000").split(","))
+				.map(String::strip).mapToInt(Integer::parseInt).toArray();
+
+		HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor())
+				.connectTimeout(REQUEST_TIMEOUT).build();
+		long[] customerIds = seed(client, baseUri);
+
+		System.out.printf("%nReward API load test, %s threads, %d s per level%n",
+				"virtual-threads".equals(mode) ? "virtual" : "platform", duration.toSeconds());
+		System.out.printf("%8s %12s %8s %8s %8s%n", "clients", "requests/s", "p50 ms", "p99 ms", "errors");
+		for (int clients : levels) {
+			LevelResult result = run(client, baseUri, customerIds, clients, duration);
+			System.out.printf("%8d %12.1f %8d %8d %8d%n", clients, result.requestsPerSecond(), result.p50Millis(),
+					result.p99Millis(), result.errors());
+		}
+	}
+
+	/**
+	 * Creates the customers and ingests their transactions in bulk.
+	 *
+	 * @return the IDs of the customers.
+	 */
+	private static long[] seed(HttpClient client, URI baseUri) throws IOException, InterruptedException {
+		long[] customerIds = new long[CUSTOMER_COUNT];
+		for (int i = 0; i < CUSTOMER_COUNT; i++) {
+			HttpResponse<String> response = send(client,
+					HttpRequest.newBuilder(baseUri.resolve("create-customer?name=LoadTest" + i))
+							.POST(BodyPublishers.noBody()).build());
+			customerIds[i] = OBJECT_MAPPER.readTree(response.body()).get("id").asLong();
+		}
+
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<Map<String, Object>> batch = new ArrayList<>(SEED_BATCH_SIZE);
+		for (long customerId : customerIds) {
+			for (int i = 0; i < TRANSACTIONS_PER_CUSTOMER; i++) {
+				batch.add(Map.of("customerId", customerId, "amount", randomAmount(random), "date",
+						randomDate(random).toString()));
+				if (batch.size() == SEED_BATCH_SIZE) {
+					ingest(client, baseUri, batch);
+					batch.clear();
+				}
+			}
+		}
+		if (!batch.isEmpty()) {
+			ingest(client, baseUri, batch);
+		}
+		return customerIds;
+	}
+
+	private static void ingest(HttpClient client, URI baseUri, List<Map<String, Object>> batch)
+			throws IOException, InterruptedException {
+		send(client, HttpRequest.newBuilder(baseUri.resolve("transactions/bulk"))
+				.header("Content-Type", "application/json")
+				.POST(BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(batch))).build());
+	}
+
+	private static HttpResponse<String> send(HttpClient client, HttpRequest request)
+			throws IOException, InterruptedException {
+		HttpResponse<String> response = client.send(request, BodyHandlers.ofString());
+		if (response.statusCode() != 200) {
+			throw new IOException(request.uri() + " failed with status " + response.statusCode() + ": "
+					+ response.body());
+		}
+		return response;
+	}
+
+	/**
+	 * Runs the given number of concurrent clients for the warm-up and the
+	 * duration, the requests completed during the duration are measured. Clients
+	 * stop sending at the end of the duration, the requests still running are
+	 * awaited but not measured.
+	 */
+	private static LevelResult run(HttpClient client, URI baseUri, long[] customerIds, int clients,
+			Duration duration) {
+		LatencyHistogram latencies = new LatencyHistogram();
+		LongAdder errors = new LongAdder();
+		long measureFrom = System.nanoTime() + WARMUP.toNanos();
+		long measureUntil = measureFrom + duration.toNanos();
+
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			for (int i = 0; i < clients; i++) {
+				executor.submit(() -> {
+					ThreadLocalRandom random = ThreadLocalRandom.current();
+					long sent;
+					while ((sent = System.nanoTime()) < measureUntil) {
+						HttpRequest request = randomRequest(baseUri, customerIds, random);
+						boolean failed;
+						try {
+							failed = client.send(request, BodyHandlers.discarding()).statusCode() != 200;
+						} catch (IOException ex) {
+							failed = true;
+						} catch (InterruptedException ex) {
+							Thread.currentThread().interrupt();
+							return;
+						}
+						long completed = System.nanoTime();
+						if (completed >= measureFrom && completed < measureUntil) {
+							if (failed) {
+								errors.increment();
+							} else {
+								latencies.record(completed - sent);
+							}
+						}
+					}
+				});
+			}
+		}
+		return new LevelResult(latencies.count() / (duration.toNanos() / 1e9), latencies.percentileMillis(0.50),
+				latencies.percentileMillis(0.99), errors.sum());
+	}
+
+	private static HttpRequest randomRequest(URI baseUri, long[] customerIds, ThreadLocalRandom random) {
+		long customerId = customerIds[random.nextInt(customerIds.length)];
+		int kind = random.nextInt(10);
+		if (kind < 2) {
+			return HttpRequest.newBuilder(baseUri.resolve("create-transaction?customerId=" + customerId + "&amount="
+					+ randomAmount(random) + "&date=" + randomDate(random))).POST(BodyPublishers.noBody())
+					.timeout(REQUEST_TIMEOUT).build();
+		}
+		LocalDate startDate = FIRST_DATE.plusMonths(random.nextInt(10));
+		return HttpRequest.newBuilder(baseUri.resolve("reward-summary/" + customerId + "?startDate=" + startDate
+				+ "&endDate=" + startDate.plusMonths(3).minusDays(1) + "&includeTransactions=" + (kind < 6)))
+				.GET().timeout(REQUEST_TIMEOUT).build();
+	}
+
+	private static double randomAmount(ThreadLocalRandom random) {
+		return random.nextInt(1, 20_000) / 100.0;
+	}
+
+	private static LocalDate randomDate(ThreadLocalRandom random) {
+		return FIRST_DATE.plusDays(random.nextInt(FIRST_DATE.lengthOfYear()));
+	}
+
+	/**
+	 * Lock free histogram of the request latencies, with a bucket per millisecond
+	 * up to the request timeout.
+	 */
+	private static final class LatencyHistogram {
+
+		private final AtomicLongArray buckets = new AtomicLongArray((int) REQUEST_TIMEOUT.toMillis() + 1);
+
+		void record(long nanos) {
+			buckets.incrementAndGet((int) Math.min(nanos / 1_000_000, buckets.length() - 1));
+		}
+
+		long count() {
+			long count = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				count += buckets.get(i);
+			}
+			return count;
+		}
+
+		long percentileMillis(double percentile) {
+			long rank = (long) Math.ceil(count() * percentile);
+			long seen = 0;
+			for (int i = 0; i < buckets.length(); i++) {
+				seen += buckets.get(i);
+				if (seen >= rank && seen > 0) {
+					return i;
+				}
+			}
+			return 0;
+		}
+
+	}
+
+	/**
+	 * The measurements of a level of concurrent clients.
+	 */
+	private record LevelResult(double requestsPerSecond, long p50Millis, long p99Millis, long errors) {
+	}
+
+}
@@ -0,0 +1,34 @@
+package com.retailer.rewards;
+
+/**
+ * Conversions between dollar amounts and the whole cents amounts are stored
+ * and calculated with, so that reward points never depend on floating point
+ * rounding.
+ */
+public final class Money {
+
+	private Money() {
+	}
+
+	/**
+	 * Converts a dollar amount to whole cents, rounding half up. Amounts given
+	 * with at most two decimals convert exactly.
+	 *
+	 * @param amount The amount in dollars.
+	 * @return The amount in cents.
+	 */
+	public static long toCents(double amount) {
+		return Math.round(amount * 100);
+	}
+
+	/**
+	 * Converts an amount in cents to dollars.
+	 *
+	 * @param amountCents The amount in cents.
+	 * @return The amount in dollars.
+	 */
+	public static double toAmount(long amountCents) {
+		return amountCents / 100.0;
+	}
+
+}
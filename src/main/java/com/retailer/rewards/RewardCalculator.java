@@ -16,15 +16,39 @@ public class RewardCalculator {
      * @return The calculated reward points.
      */
 	public static int calculateRewardPoints(double amount) {
-		int points = 0;
-		if (amount > 100) {
-			points += (int) ((amount - 100) * 2);
-			amount = 100;
+		return calculateRewardPointsFromCents(Money.toCents(amount));
+	}
+
+	/**
+	 * Calculates the reward points based on the purchase amount in cents, with
+	 * the same criteria as {@link #calculateRewardPoints(double)}. Only integer
+	 * arithmetic is used, so the points are exact: 2 points per dollar are 1
+	 * point per 50 cents, each tier truncated to whole points.
+	 * 
+	 * @param amountCents The total purchase amount in cents.
+	 * @return The calculated reward points.
+	 * @throws ArithmeticException if the points overflow an int.
+	 */
+	public static int calculateRewardPointsFromCents(long amountCents) {
+		if (amountCents > 10_000) {
+			return Math.toIntExact((amountCents - 10_000) / 50 + 50);
 		}
-		if (amount > 50) {
-			points += (int) ((amount - 50) * 1);
+		if (amountCents > 5_000) {
+			return Math.toIntExact((amountCents - 5_000) / 100);
 		}
-		return points;
+		return 0;
+	}
+
+	/**
+	 * Calculates the number of months since January of year 0, used to index
+	 * months across years.
+	 * 
+	 * @param year  The year.
+	 * @param month The month of the year (1-12).
+	 * @return The epoch month.
+	 */
+	public static int epochMonth(int year, int month) {
+		return year * 12 + month - 1;
 	}
 
 }
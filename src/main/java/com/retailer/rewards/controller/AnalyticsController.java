@@ -0,0 +1,60 @@
+package com.retailer.rewards.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.retailer.rewards.model.MonthlyPointsTotal;
+import com.retailer.rewards.model.TopEarner;
+import com.retailer.rewards.service.TransactionAnalyticsService;
+
+/**
+ * Controller class to handle analytics requests over the transactions of all
+ * customers.
+ */
+@RestController
+@RequestMapping("/api/rewards/analytics")
+public class AnalyticsController {
+
+	@Autowired
+	private TransactionAnalyticsService analyticsService;
+
+	/**
+	 * Retrieves the reward points earned and the transactions made per month
+	 * across all customers, or a cohort of customers within a range of IDs.
+	 * 
+	 * @param startMonth     The first month (yyyy-MM).
+	 * @param endMonth       The last month (yyyy-MM).
+	 * @param fromCustomerId The first customer ID of the cohort (optional).
+	 * @param toCustomerId   The last customer ID of the cohort (optional).
+	 * @return the totals of every month of the range.
+	 */
+	@GetMapping("/points-per-month")
+	public List<MonthlyPointsTotal> getPointsPerMonth(@RequestParam YearMonth startMonth,
+			@RequestParam YearMonth endMonth, @RequestParam(required = false) Long fromCustomerId,
+			@RequestParam(required = false) Long toCustomerId) {
+		return analyticsService.getPointsPerMonth(startMonth, endMonth, fromCustomerId, toCustomerId);
+	}
+
+	/**
+	 * Retrieves the customers who earned the most reward points within a date
+	 * range.
+	 * 
+	 * @param startDate The start date of the range.
+	 * @param endDate   The end date of the range.
+	 * @param limit     The number of customers to rank, 10 by default.
+	 * @return the top earners, by points descending.
+	 */
+	@GetMapping("/top-earners")
+	public List<TopEarner> getTopEarners(@RequestParam LocalDate startDate, @RequestParam LocalDate endDate,
+			@RequestParam(defaultValue = "10") int limit) {
+		return analyticsService.getTopEarners(startDate, endDate, limit);
+	}
+
+}
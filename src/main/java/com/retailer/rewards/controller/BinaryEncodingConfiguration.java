@@ -0,0 +1,67 @@
+package com.retailer.rewards.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Encodes the responses in CBOR or Smile, binary encodings of the JSON data
+ * model that are smaller and cheaper to parse, for the clients accepting
+ * {@code application/cbor} or {@code application/x-jackson-smile}. Clients
+ * accepting any type still get JSON.
+ *
+ * The binary encodings are written with an object mapper configured like the
+ * JSON one, so that they carry the same properties in the same formats, e.g.
+ * ISO-8601 dates.
+ */
+@Configuration
+public class BinaryEncodingConfiguration implements WebMvcConfigurer {
+
+	/**
+	 * The media type of Smile, as a string.
+	 */
+	public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+
+	/**
+	 * The media type of Smile.
+	 */
+	public static final MediaType APPLICATION_SMILE = MediaType.valueOf(APPLICATION_SMILE_VALUE);
+
+	@Autowired
+	private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+	/**
+	 * Replaces the CBOR and Smile converters registered by default, which use
+	 * object mappers without the configuration of the application, and places
+	 * them right after the JSON converter.
+	 */
+	@Override
+	public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+		converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+				|| converter instanceof MappingJackson2SmileHttpMessageConverter);
+		int index = converters.size();
+		for (int i = 0; i < converters.size(); i++) {
+			if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+				index = i + 1;
+				break;
+			}
+		}
+		converters.add(index, new MappingJackson2SmileHttpMessageConverter(
+				objectMapperBuilder.getObject().factory(new SmileFactory()).build()));
+		converters.add(index, new MappingJackson2CborHttpMessageConverter(
+				objectMapperBuilder.getObject().factory(new CBORFactory()).build()));
+	}
+
+}
@@ -0,0 +1,63 @@
+package com.retailer.rewards.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.retailer.rewards.model.LeaderboardEntry;
+import com.retailer.rewards.service.RewardLeaderboard;
+import com.retailer.rewards.service.RewardService;
+
+/**
+ * Controller class to handle requests for the leaderboards of the customers
+ * by reward points earned.
+ */
+@RestController
+@RequestMapping("/api/rewards/leaderboard")
+public class LeaderboardController {
+
+	@Autowired
+	private RewardLeaderboard rewardLeaderboard;
+
+	@Autowired
+	private RewardService rewardService;
+
+	/**
+	 * Retrieves the customers who earned the most reward points in a year or a
+	 * month of a year.
+	 * 
+	 * @param year  The year.
+	 * @param month The month (1-12) within the year (optional, the whole year
+	 *              if not given).
+	 * @param limit The number of customers to return, 10 by default.
+	 * @return the top customers, ranked from 1.
+	 */
+	@GetMapping
+	public List<LeaderboardEntry> getTop(@RequestParam int year, @RequestParam(required = false) Integer month,
+			@RequestParam(defaultValue = "10") int limit) {
+		return rewardLeaderboard.getTop(year, month, limit);
+	}
+
+	/**
+	 * Retrieves the rank of a customer in a year or a month of a year.
+	 * 
+	 * @param customerId The unique ID of the customer.
+	 * @param year       The year.
+	 * @param month      The month (1-12) within the year (optional, the whole
+	 *                   year if not given).
+	 * @return the rank and points of the customer, without a rank if the customer
+	 *         earned no points in the period.
+	 */
+	@GetMapping("/customers/{customerId}")
+	public LeaderboardEntry getRank(@PathVariable Long customerId, @RequestParam int year,
+			@RequestParam(required = false) Integer month) {
+		rewardService.getCustomerName(customerId);
+		return rewardLeaderboard.getRank(customerId, year, month);
+	}
+
+}
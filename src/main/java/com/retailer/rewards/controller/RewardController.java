@@ -1,19 +1,53 @@
 package com.retailer.rewards.controller;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.model.BulkIngestionResponse;
 import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.PointsBalanceResponse;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.RewardSummaryBatchRequest;
+import com.retailer.rewards.model.RewardSummaryCacheStats;
 import com.retailer.rewards.model.RewardSummaryResponse;
 import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionPage;
+import com.retailer.rewards.model.TransactionRequest;
 import com.retailer.rewards.service.RewardService;
 
 import lombok.extern.slf4j.Slf4j;
@@ -26,9 +60,22 @@ import lombok.extern.slf4j.Slf4j;
 @Slf4j
 public class RewardController {
 
+	private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR,
+			BinaryEncodingConfiguration.APPLICATION_SMILE);
+
+	private static final JsonFactory CBOR_FACTORY = new CBORFactory();
+
+	private static final JsonFactory SMILE_FACTORY = new SmileFactory();
+
 	@Autowired
 	private RewardService rewardService;
 
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${rewards.ingestion.batch-size}")
+	private int ingestionBatchSize;
+
 	/**
 	 * Creates a new customer with the given name.
 	 * 
@@ -59,11 +106,75 @@ public class RewardController {
 			@RequestParam(required = false) LocalDate date) {
 		log.info("Creating transaction for customer ID: {} with amount: {} and date: {}", customerId, amount, date);
 		Transaction transaction = rewardService.createTransaction(customerId, amount, date);
-		log.info("Transaction created successfully with ID: {} for Customer: {} on date: {}", transaction.getId(),
-				transaction.getCustomer().getName(), transaction.getDate());
+		// The customer of the transaction is a reference, its name is not loaded
+		log.info("Transaction created successfully with ID: {} for customer ID: {} on date: {}", transaction.getId(),
+				customerId, transaction.getDate());
 		return transaction;
 	}
 
+	/**
+	 * Ingests a JSON array of transactions. The transactions are validated and
+	 * inserted in batches of {@code rewards.ingestion.batch-size} rows.
+	 * 
+	 * @param requests The transactions to ingest.
+	 * @return The number of accepted and rejected rows and the result of every
+	 *         row.
+	 */
+	@PostMapping(value = "/transactions/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public BulkIngestionResponse ingestTransactions(@RequestBody List<TransactionRequest> requests) {
+		log.info("Ingesting {} transactions", requests.size());
+		List<TransactionIngestionResult> results = new ArrayList<>(requests.size());
+		for (int from = 0; from < requests.size(); from += ingestionBatchSize) {
+			int to = Math.min(from + ingestionBatchSize, requests.size());
+			results.addAll(rewardService.ingestTransactions(requests.subList(from, to), from));
+		}
+		BulkIngestionResponse response = new BulkIngestionResponse(results);
+		log.info("Ingested transactions, accepted: {}, rejected: {}", response.getAccepted(), response.getRejected());
+		return response;
+	}
+
+	/**
+	 * Ingests a stream of newline delimited JSON transactions. The stream is read
+	 * one batch of {@code rewards.ingestion.batch-size} rows at a time, so the
+	 * request body is never held in memory as a whole. Malformed lines are
+	 * rejected without affecting the other rows.
+	 * 
+	 * @param body The NDJSON request body, one transaction per line.
+	 * @return The number of accepted and rejected rows and the result of every
+	 *         row.
+	 * @throws IOException if the request body can not be read.
+	 */
+	@PostMapping(value = "/transactions/bulk", consumes = "application/x-ndjson")
+	public BulkIngestionResponse ingestTransactions(InputStream body) throws IOException {
+		log.info("Ingesting NDJSON transaction stream");
+		ObjectReader reader = objectMapper.readerFor(TransactionRequest.class);
+		BufferedReader lines = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+		List<TransactionIngestionResult> results = new ArrayList<>();
+		List<TransactionRequest> batch = new ArrayList<>(ingestionBatchSize);
+		long row = 0;
+		String line;
+		while ((line = lines.readLine()) != null) {
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				batch.add(reader.readValue(line));
+			} catch (JsonProcessingException ex) {
+				// Flush the pending rows first, so the rows of a batch stay contiguous
+				ingestBatch(batch, row, results);
+				results.add(TransactionIngestionResult.rejected(row, "Malformed row."));
+			}
+			row++;
+			if (batch.size() == ingestionBatchSize) {
+				ingestBatch(batch, row, results);
+			}
+		}
+		ingestBatch(batch, row, results);
+		BulkIngestionResponse response = new BulkIngestionResponse(results);
+		log.info("Ingested transactions, accepted: {}, rejected: {}", response.getAccepted(), response.getRejected());
+		return response;
+	}
+
 	/**
 	 * Fetches the details of a customer by their ID.
 	 * 
@@ -76,24 +187,220 @@ public class RewardController {
 		return rewardService.getCustomer(customerId);
 	}
 
+	/**
+	 * Reverses a transaction, e.g. on a refund, taking back the points it earned.
+	 * 
+	 * @param transactionId The unique ID of the transaction to reverse.
+	 * @return The points event of the reversal.
+	 */
+	@PostMapping("/transactions/{transactionId}/reverse")
+	public PointsEvent reverseTransaction(@PathVariable Long transactionId) {
+		log.info("Reversing transaction with ID: {}", transactionId);
+		PointsEvent reversal = rewardService.reverseTransaction(transactionId);
+		log.info("Transaction reversed successfully with ID: {}, points: {}", transactionId, reversal.getPoints());
+		return reversal;
+	}
+
+	/**
+	 * Retrieves the points balance of a customer, and the points of a year or a
+	 * month of a year if given.
+	 * 
+	 * @param customerId The unique ID of the customer.
+	 * @param year       The year of the period, not given for the lifetime balance
+	 *                   only.
+	 * @param month      The month (1-12) of the period within the year, not given
+	 *                   for the whole year.
+	 * @return The lifetime points balance of the customer and the points of the
+	 *         period.
+	 */
+	@GetMapping("/customers/{customerId}/points-balance")
+	public PointsBalanceResponse getPointsBalance(@PathVariable Long customerId,
+			@RequestParam(required = false) Integer year, @RequestParam(required = false) Integer month) {
+		log.info("Fetching points balance for customer ID: {} for year {} and month {}", customerId, year, month);
+		return rewardService.getPointsBalance(customerId, year, month);
+	}
+
 	/**
 	 * Retrieves a summary of reward points for a given customer within a specified
 	 * date range.
 	 * 
-	 * @param customerId the unique ID of the customer for whom the transaction is
-	 *                   being created.
-	 * @param startDate  the start date of the period to consider for transactions
-	 * @param endDate    the end date of the period to consider for transactions
+	 * @param customerId          the unique ID of the customer for whom the
+	 *                            transaction is being created.
+	 * @param startDate           the start date of the period to consider for
+	 *                            transactions
+	 * @param endDate             the end date of the period to consider for
+	 *                            transactions
+	 * @param includeTransactions whether to include the transactions in the
+	 *                            response, true if not given.
+	 * @param ifNoneMatch         the ETags of the summaries held by the client,
+	 *                            if any.
 	 * @return a RewardSummaryResponse containing the customer's details,
 	 *         transactions, reward points per month, and the total reward points
-	 *         earned in the specified period
+	 *         earned in the specified period, tagged with its version, or Not
+	 *         Modified without reading the summary if the client holds this
+	 *         version, or any version of an existing customer
 	 */
 	@GetMapping("reward-summary/{customerId}")
 	public ResponseEntity<RewardSummaryResponse> getRewardsSummary(@PathVariable Long customerId,
-			@RequestParam LocalDate startDate, @RequestParam LocalDate endDate) {
+			@RequestParam LocalDate startDate, @RequestParam LocalDate endDate,
+			@RequestParam(defaultValue = "true") boolean includeTransactions,
+			@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
 		log.info("Fetching rewards summary for customer ID: {} between period {} and {}", customerId, startDate,
 				endDate);
-		RewardSummaryResponse response = rewardService.getRewardsSummary(customerId, startDate, endDate);
-		return ResponseEntity.ok(response);
+		// Weak, as the same summary is served compressed or not, in JSON, CBOR or
+		// Smile
+		ETag etag = new ETag(rewardService.getRewardsSummaryVersion(customerId, startDate, endDate), true);
+		if (ifNoneMatch != null && ETag.parse(ifNoneMatch).stream()
+				.anyMatch(match -> match.isWildcard() ? customerExists(customerId) : match.compare(etag, false))) {
+			return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.formattedTag())
+					.varyBy(HttpHeaders.ACCEPT).build();
+		}
+		RewardSummaryResponse response = rewardService.getRewardsSummary(customerId, startDate, endDate,
+				includeTransactions);
+		return ResponseEntity.ok().eTag(etag.formattedTag()).varyBy(HttpHeaders.ACCEPT).body(response);
+	}
+
+	/**
+	 * Retrieves a page of the transactions of a customer within a specified date
+	 * range, ordered by date and id.
+	 * 
+	 * @param customerId the unique ID of the customer.
+	 * @param startDate  the start date of the period to consider for transactions
+	 * @param endDate    the end date of the period to consider for transactions
+	 * @param afterDate  the nextAfterDate of the previous page, not given for the
+	 *                   first page.
+	 * @param afterId    the nextAfterId of the previous page, not given for the
+	 *                   first page.
+	 * @param limit      the maximum number of transactions of the page, 100 if not
+	 *                   given.
+	 * @return a TransactionPage containing the transactions and the cursor of the
+	 *         next page
+	 */
+	@GetMapping("/customers/{customerId}/transactions")
+	public TransactionPage getTransactions(@PathVariable Long customerId, @RequestParam LocalDate startDate,
+			@RequestParam LocalDate endDate, @RequestParam(required = false) LocalDate afterDate,
+			@RequestParam(required = false) Long afterId, @RequestParam(defaultValue = "100") int limit) {
+		log.info("Fetching transactions for customer ID: {} between period {} and {} after {}/{}", customerId,
+				startDate, endDate, afterDate, afterId);
+		return rewardService.getTransactions(customerId, startDate, endDate, afterDate, afterId, limit);
+	}
+
+	/**
+	 * Retrieves the reward summaries of several customers within a specified date
+	 * range. The summaries are streamed back as an array, one
+	 * RewardSummaryResponse per customer in the order of their IDs, encoded in
+	 * JSON, or in CBOR or Smile when the client prefers them.
+	 * 
+	 * @param request the customer IDs, or the range of customer IDs, and the date
+	 *                range of the summaries.
+	 * @param accept  the media types accepted by the client.
+	 * @return a stream of the RewardSummaryResponse of every customer found
+	 */
+	@PostMapping("/reward-summaries")
+	public ResponseEntity<StreamingResponseBody> getRewardsSummaries(@RequestBody RewardSummaryBatchRequest request,
+			@RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = MediaType.APPLICATION_JSON_VALUE) String accept) {
+		log.info("Fetching rewards summaries for customer IDs: {} or range {} to {} between period {} and {}",
+				request.getCustomerIds(), request.getFromCustomerId(), request.getToCustomerId(),
+				request.getStartDate(), request.getEndDate());
+		rewardService.validateRewardsSummaryBatch(request);
+		MediaType encoding = selectEncoding(accept);
+		JsonFactory factory = MediaType.APPLICATION_CBOR.equals(encoding) ? CBOR_FACTORY
+				: BinaryEncodingConfiguration.APPLICATION_SMILE.equals(encoding) ? SMILE_FACTORY
+						: objectMapper.getFactory();
+		StreamingResponseBody body = outputStream -> {
+			// The generator sets the encoding, the object mapper the properties
+			JsonGenerator generator = factory.createGenerator(outputStream);
+			generator.writeStartArray();
+			rewardService.streamRewardsSummaries(request, summary -> {
+				try {
+					objectMapper.writeValue(generator, summary);
+				} catch (IOException ex) {
+					throw new UncheckedIOException(ex);
+				}
+			});
+			generator.writeEndArray();
+			generator.flush();
+		};
+		return ResponseEntity.ok().contentType(encoding).body(body);
+	}
+
+	/**
+	 * Checks whether a customer exists, as the customer ID index only tells that
+	 * it might. The name is read from the customer cache if it is cached.
+	 * 
+	 * @param customerId the ID of the customer.
+	 * @return true if there is a customer with the given ID.
+	 */
+	private boolean customerExists(Long customerId) {
+		try {
+			rewardService.getCustomerName(customerId);
+			return true;
+		} catch (CustomerNotFoundException ex) {
+			return false;
+		}
+	}
+
+	/**
+	 * Selects the encoding of a response among JSON, CBOR and Smile, by order of
+	 * preference of the media types accepted by the client.
+	 * 
+	 * @param accept the media types accepted by the client.
+	 * @return the preferred encoding, JSON if none is accepted.
+	 */
+	private static MediaType selectEncoding(String accept) {
+		List<MediaType> accepted;
+		try {
+			accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+		} catch (InvalidMediaTypeException ex) {
+			return MediaType.APPLICATION_JSON;
+		}
+		accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+		for (MediaType mediaType : accepted) {
+			for (MediaType encoding : ENCODINGS) {
+				if (mediaType.includes(encoding)) {
+					return encoding;
+				}
+			}
+		}
+		return MediaType.APPLICATION_JSON;
+	}
+
+	/**
+	 * Rebuilds the monthly reward ledger of every customer from their existing
+	 * transactions.
+	 * 
+	 * @return the number of ledger entries written.
+	 */
+	@PostMapping("/rebuild-ledger")
+	public int rebuildRewardLedger() {
+		log.info("Rebuilding monthly reward ledger");
+		int entries = rewardService.rebuildRewardLedger();
+		log.info("Monthly reward ledger rebuilt with {} entries", entries);
+		return entries;
+	}
+
+	/**
+	 * Retrieves the statistics of the reward summary cache.
+	 * 
+	 * @return the hit, miss and eviction counts and the number of cached
+	 *         summaries.
+	 */
+	@GetMapping("/reward-summary-cache")
+	public RewardSummaryCacheStats getRewardsSummaryCacheStats() {
+		return rewardService.getRewardsSummaryCacheStats();
+	}
+
+	/**
+	 * Ingests the pending batch of rows and clears it.
+	 * 
+	 * @param batch   The pending rows.
+	 * @param nextRow The row number following the last pending row.
+	 * @param results The results to add the batch results to.
+	 */
+	private void ingestBatch(List<TransactionRequest> batch, long nextRow, List<TransactionIngestionResult> results) {
+		if (!batch.isEmpty()) {
+			results.addAll(rewardService.ingestTransactions(new ArrayList<>(batch), nextRow - batch.size()));
+			batch.clear();
+		}
 	}
 }
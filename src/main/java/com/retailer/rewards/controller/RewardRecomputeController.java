@@ -0,0 +1,55 @@
+package com.retailer.rewards.controller;
+
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.retailer.rewards.job.RewardRecomputeJob;
+import com.retailer.rewards.model.RecomputeProgress;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller class to handle requests for the bulk recomputation of the
+ * reward points of every customer.
+ */
+@RestController
+@RequestMapping("/api/rewards")
+@Slf4j
+public class RewardRecomputeController {
+
+	@Autowired
+	private RewardRecomputeJob rewardRecomputeJob;
+
+	/**
+	 * Starts recomputing the reward points of every customer in the background.
+	 * The results are written to the recomputation results table under the ID of
+	 * the run.
+	 * 
+	 * @return The progress of the started recomputation, with status ACCEPTED
+	 *         (202).
+	 */
+	@PostMapping("/recompute")
+	public ResponseEntity<RecomputeProgress> startRecompute() {
+		log.info("Starting reward recomputation");
+		return ResponseEntity.status(HttpStatus.ACCEPTED).body(rewardRecomputeJob.start());
+	}
+
+	/**
+	 * Retrieves the progress of the running or last completed recomputation.
+	 * 
+	 * @return the progress and per-partition timings of the recomputation, or
+	 *         NOT_FOUND (404) if none was started.
+	 */
+	@GetMapping("/recompute")
+	public ResponseEntity<RecomputeProgress> getRecomputeProgress() {
+		return ResponseEntity.of(Optional.ofNullable(rewardRecomputeJob.progress()));
+	}
+
+}
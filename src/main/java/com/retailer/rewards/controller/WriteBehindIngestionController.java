@@ -0,0 +1,69 @@
+package com.retailer.rewards.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.retailer.rewards.job.WriteBehindIngestionJob;
+import com.retailer.rewards.model.AcceptedTransaction;
+import com.retailer.rewards.model.IngestionLag;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Controller class to handle requests for the asynchronous ingestion of
+ * transactions. It is only available when the
+ * {@code rewards.ingestion.async.enabled} property is set to true.
+ */
+@RestController
+@RequestMapping("/api/rewards")
+@ConditionalOnProperty(name = "rewards.ingestion.async.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindIngestionController {
+
+	@Autowired
+	private WriteBehindIngestionJob writeBehindIngestionJob;
+
+	/**
+	 * Accepts a transaction for the specified customer with the given amount and
+	 * date. The transaction is appended to the write-behind log and written to
+	 * the database in the background, a transaction of an unknown customer is
+	 * rejected then.
+	 * 
+	 * @param customerId The unique ID of the customer for whom the transaction is
+	 *                   being created.
+	 * @param amount     The amount of the transaction.
+	 * @param date       The date of the transaction, it will take current date if
+	 *                   date not given.
+	 * @return The accepted transaction with its position in the log, with status
+	 *         ACCEPTED (202).
+	 */
+	@PostMapping("/create-transaction-async")
+	public ResponseEntity<AcceptedTransaction> createTransactionAsync(@RequestParam Long customerId,
+			@RequestParam double amount, @RequestParam(required = false) LocalDate date) {
+		log.info("Accepting transaction for customer ID: {} with amount: {} and date: {}", customerId, amount, date);
+		return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body(writeBehindIngestionJob.accept(customerId, amount, date));
+	}
+
+	/**
+	 * Retrieves how far the database is behind the accepted transactions.
+	 * 
+	 * @return the appended and drained positions of the write-behind log, the
+	 *         number of pending transactions and the accepted and rejected counts
+	 *         of the drained ones.
+	 */
+	@GetMapping("/ingestion-lag")
+	public IngestionLag getIngestionLag() {
+		return writeBehindIngestionJob.lag();
+	}
+
+}
@@ -1,10 +1,12 @@
 package com.retailer.rewards.exceptionHandler;
 
 /**
- * A class to handle customerNotFoundException thrown by the application.
+ * A class to handle customerNotFoundException thrown by the application. The
+ * exception is thrown for every unknown customer ID a client sends, so it does
+ * not capture a stack trace.
  */
 public class CustomerNotFoundException extends RuntimeException {
 	public CustomerNotFoundException(String message) {
-		super(message);
+		super(message, null, false, false);
 	}
 }
@@ -98,11 +98,45 @@ public class GlobalExceptionHandler {
 	@ExceptionHandler(CustomerNotFoundException.class)
 	@ResponseStatus(HttpStatus.NOT_FOUND)
 	public ResponseEntity<ErrorResponse> handleCustomerNotFoundException(CustomerNotFoundException ex) {
-		log.error("Customer Not Found: {}", ex.getMessage());
+		// Unknown customer IDs are sent by clients, they are not errors of the
+		// application
+		log.debug("Customer Not Found: {}", ex.getMessage());
 		ErrorResponse errorResponse = new ErrorResponse("Not Found", ex.getMessage());
 		return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
 	}
 
+	/**
+	 * Handles TransactionNotFoundException thrown when a transaction is not found
+	 * in the system.
+	 * 
+	 * @param ex the exception that was thrown, providing the message and details
+	 * @return a ResponseEntity containing an ErrorResponse with status NOT_FOUND
+	 *         (404)
+	 */
+	@ExceptionHandler(TransactionNotFoundException.class)
+	@ResponseStatus(HttpStatus.NOT_FOUND)
+	public ResponseEntity<ErrorResponse> handleTransactionNotFoundException(TransactionNotFoundException ex) {
+		log.error("Transaction Not Found: {}", ex.getMessage());
+		ErrorResponse errorResponse = new ErrorResponse("Not Found", ex.getMessage());
+		return new ResponseEntity<>(errorResponse, HttpStatus.NOT_FOUND);
+	}
+
+	/**
+	 * Handles RecomputeInProgressException thrown when a reward recomputation is
+	 * started while another one is running.
+	 * 
+	 * @param ex the exception that was thrown, providing the message and details
+	 * @return a ResponseEntity containing an ErrorResponse with status CONFLICT
+	 *         (409)
+	 */
+	@ExceptionHandler(RecomputeInProgressException.class)
+	@ResponseStatus(HttpStatus.CONFLICT)
+	public ResponseEntity<ErrorResponse> handleRecomputeInProgressException(RecomputeInProgressException ex) {
+		log.error("Recomputation In Progress: {}", ex.getMessage());
+		ErrorResponse errorResponse = new ErrorResponse("Conflict", ex.getMessage());
+		return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+	}
+
 	/**
 	 * Handles all other exceptions that do not have a specific handler.
 	 * 
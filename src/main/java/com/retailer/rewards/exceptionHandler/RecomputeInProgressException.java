@@ -0,0 +1,10 @@
+package com.retailer.rewards.exceptionHandler;
+
+/**
+ * A class to handle recomputeInProgressException thrown by the application.
+ */
+public class RecomputeInProgressException extends RuntimeException {
+	public RecomputeInProgressException(String message) {
+		super(message);
+	}
+}
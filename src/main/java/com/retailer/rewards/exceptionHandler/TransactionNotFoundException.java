@@ -0,0 +1,10 @@
+package com.retailer.rewards.exceptionHandler;
+
+/**
+ * A class to handle transactionNotFoundException thrown by the application.
+ */
+public class TransactionNotFoundException extends RuntimeException {
+	public TransactionNotFoundException(String message) {
+		super(message);
+	}
+}
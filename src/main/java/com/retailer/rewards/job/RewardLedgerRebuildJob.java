@@ -0,0 +1,33 @@
+package com.retailer.rewards.job;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.retailer.rewards.service.RewardService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job to backfill the monthly reward ledger from the existing transactions on
+ * application startup. It only runs when the
+ * {@code rewards.ledger.rebuild-on-startup} property is set to true.
+ */
+@Component
+@ConditionalOnProperty(name = "rewards.ledger.rebuild-on-startup", havingValue = "true")
+@Slf4j
+public class RewardLedgerRebuildJob implements ApplicationRunner {
+
+	@Autowired
+	private RewardService rewardService;
+
+	@Override
+	public void run(ApplicationArguments args) {
+		log.info("Rebuilding monthly reward ledger on startup");
+		int entries = rewardService.rebuildRewardLedger();
+		log.info("Monthly reward ledger rebuilt with {} entries", entries);
+	}
+
+}
@@ -0,0 +1,298 @@
+package com.retailer.rewards.job;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.exceptionHandler.RecomputeInProgressException;
+import com.retailer.rewards.model.PartitionTiming;
+import com.retailer.rewards.model.RecomputeProgress;
+import com.retailer.rewards.model.RewardRecomputeResult;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.RewardRecomputeResultRepository;
+import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job to recompute the reward points of every customer from their
+ * transactions, e.g. for an audit of the ledger.
+ *
+ * The customer IDs are partitioned into ranges of
+ * {@code rewards.recompute.partition-size} IDs, which are scored in parallel
+ * on a fork-join pool of {@code rewards.recompute.parallelism} workers, the
+ * number of cores by default. A partition streams the transactions of its
+ * customers from a read-only cursor without loading any entity, holding one
+ * result per customer of the partition, and its results are written to the
+ * recomputation results table in batches of
+ * {@code rewards.ingestion.batch-size} rows. The partitions do not share any
+ * state but the progress counters, so the job scales with the cores as long as
+ * the database keeps up.
+ */
+@Component
+@Slf4j
+public class RewardRecomputeJob {
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private RewardRecomputeResultRepository resultRepository;
+
+	@Autowired
+	private RewardRuleSet rewardRules;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${rewards.recompute.partition-size}")
+	private long partitionSize;
+
+	@Value("${rewards.recompute.parallelism}")
+	private int parallelism;
+
+	@Value("${rewards.ingestion.batch-size}")
+	private int batchSize;
+
+	private RecomputeRun currentRun;
+
+	private Thread worker;
+
+	/**
+	 * Starts recomputing the reward points of every customer in the background.
+	 *
+	 * @return the progress of the started recomputation.
+	 * @throws RecomputeInProgressException if a recomputation is already running.
+	 */
+	public synchronized RecomputeProgress start() {
+		if (currentRun != null && !currentRun.completed) {
+			throw new RecomputeInProgressException(
+					"Recomputation " + currentRun.runId + " is still running, try again once it completes.");
+		}
+		Long minCustomerId = customerRepository.findMinId();
+		Long maxCustomerId = customerRepository.findMaxId();
+		int partitions = minCustomerId == null ? 0
+				: Math.toIntExact((maxCustomerId - minCustomerId) / partitionSize + 1);
+		int workers = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+		RecomputeRun run = new RecomputeRun(System.currentTimeMillis(), workers, partitions,
+				minCustomerId == null ? 0 : minCustomerId, maxCustomerId == null ? 0 : maxCustomerId);
+		currentRun = run;
+		worker = new Thread(() -> recompute(run), "reward-recompute");
+		worker.setDaemon(true);
+		worker.start();
+		return run.toProgress();
+	}
+
+	/**
+	 * Returns the progress of the last recomputation.
+	 *
+	 * @return the progress of the running or last completed recomputation, or
+	 *         null if none was started.
+	 */
+	public synchronized RecomputeProgress progress() {
+		return currentRun == null ? null : currentRun.toProgress();
+	}
+
+	/**
+	 * Waits for the last started recomputation to complete.
+	 *
+	 * @throws InterruptedException if interrupted while waiting.
+	 */
+	void awaitCompletion() throws InterruptedException {
+		Thread started;
+		synchronized (this) {
+			started = worker;
+		}
+		if (started != null) {
+			started.join();
+		}
+	}
+
+	/**
+	 * Scores all the partitions of a run on a dedicated fork-join pool.
+	 */
+	private void recompute(RecomputeRun run) {
+		log.info("Recomputing reward points of customers {} to {} in {} partitions on {} workers", run.minCustomerId,
+				run.maxCustomerId, run.partitions, run.parallelism);
+		ForkJoinPool pool = new ForkJoinPool(run.parallelism);
+		try {
+			if (run.partitions > 0) {
+				pool.invoke(new PartitionTask(run, 0, run.partitions));
+			}
+			run.complete(null);
+			RecomputeProgress progress = run.toProgress();
+			log.info("Recomputed reward points of {} customers from {} transactions in {} ms ({} transactions/s)",
+					progress.getCustomers(), progress.getTransactions(), progress.getElapsedMillis(),
+					progress.getTransactionsPerSecond());
+		} catch (RuntimeException ex) {
+			log.error("Recomputation {} failed", run.runId, ex);
+			run.complete(ex.getMessage());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Scores one partition of customers and writes their results.
+	 */
+	private void scorePartition(RecomputeRun run, int partition) {
+		long fromCustomerId = run.minCustomerId + partition * partitionSize;
+		long toCustomerId = Math.min(run.maxCustomerId, fromCustomerId + partitionSize - 1);
+
+		long readStart = System.nanoTime();
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		long[] transactions = new long[1];
+		List<RewardRecomputeResult> results = readOnly.execute(status -> {
+			List<RewardRecomputeResult> scored = new ArrayList<>();
+			try (Stream<TransactionAmount> amounts = transactionRepository
+					.streamAmountsByCustomerIdBetween(fromCustomerId, toCustomerId)) {
+				// The amounts are ordered by customer ID, so a customer is complete once
+				// the next one starts
+				RewardRecomputeResult current = null;
+				Iterator<TransactionAmount> iterator = amounts.iterator();
+				while (iterator.hasNext()) {
+					TransactionAmount amount = iterator.next();
+					if (current == null || !current.getCustomerId().equals(amount.getCustomerId())) {
+						current = new RewardRecomputeResult(run.runId, amount.getCustomerId(), 0, 0);
+						scored.add(current);
+					}
+					current.setTransactions(current.getTransactions() + 1);
+					current.setPoints(current.getPoints()
+							+ rewardRules.calculateRewardPointsFromCents(amount.getAmountCents(), amount.getDate()));
+					transactions[0]++;
+				}
+			}
+			return scored;
+		});
+		long readMillis = (System.nanoTime() - readStart) / 1_000_000;
+
+		long writeStart = System.nanoTime();
+		TransactionTemplate write = new TransactionTemplate(transactionManager);
+		for (int from = 0; from < results.size(); from += batchSize) {
+			List<RewardRecomputeResult> batch = results.subList(from, Math.min(results.size(), from + batchSize));
+			write.executeWithoutResult(status -> resultRepository.saveAll(batch));
+		}
+		long writeMillis = (System.nanoTime() - writeStart) / 1_000_000;
+
+		run.completePartition(new PartitionTiming(fromCustomerId, toCustomerId, results.size(), transactions[0],
+				readMillis, writeMillis));
+		log.debug("Recomputed customers {} to {}: {} customers, {} transactions, read in {} ms, written in {} ms",
+				fromCustomerId, toCustomerId, results.size(), transactions[0], readMillis, writeMillis);
+	}
+
+	/**
+	 * Fork-join task scoring a range of partitions, split in halves until a
+	 * single partition is left so that idle workers steal the remaining ones.
+	 */
+	private class PartitionTask extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final transient RecomputeRun run;
+
+		private final int fromPartition;
+
+		private final int toPartition;
+
+		PartitionTask(RecomputeRun run, int fromPartition, int toPartition) {
+			this.run = run;
+			this.fromPartition = fromPartition;
+			this.toPartition = toPartition;
+		}
+
+		@Override
+		protected void compute() {
+			if (toPartition - fromPartition == 1) {
+				scorePartition(run, fromPartition);
+				return;
+			}
+			int middle = (fromPartition + toPartition) >>> 1;
+			invokeAll(new PartitionTask(run, fromPartition, middle), new PartitionTask(run, middle, toPartition));
+		}
+
+	}
+
+	/**
+	 * The state of a recomputation, updated concurrently by the partitions.
+	 */
+	private static class RecomputeRun {
+
+		private final long runId;
+
+		private final int parallelism;
+
+		private final int partitions;
+
+		private final long minCustomerId;
+
+		private final long maxCustomerId;
+
+		private final long startNanos = System.nanoTime();
+
+		private final AtomicInteger completedPartitions = new AtomicInteger();
+
+		private final AtomicLong customers = new AtomicLong();
+
+		private final AtomicLong transactions = new AtomicLong();
+
+		private final Queue<PartitionTiming> partitionTimings = new ConcurrentLinkedQueue<>();
+
+		private volatile long completedNanos;
+
+		private volatile boolean completed;
+
+		private volatile String error;
+
+		RecomputeRun(long runId, int parallelism, int partitions, long minCustomerId, long maxCustomerId) {
+			this.runId = runId;
+			this.parallelism = parallelism;
+			this.partitions = partitions;
+			this.minCustomerId = minCustomerId;
+			this.maxCustomerId = maxCustomerId;
+		}
+
+		void completePartition(PartitionTiming timing) {
+			customers.addAndGet(timing.getCustomers());
+			transactions.addAndGet(timing.getTransactions());
+			partitionTimings.add(timing);
+			completedPartitions.incrementAndGet();
+		}
+
+		void complete(String error) {
+			this.error = error;
+			completedNanos = System.nanoTime();
+			completed = true;
+		}
+
+		RecomputeProgress toProgress() {
+			boolean done = completed;
+			String status = !done ? "RUNNING" : error == null ? "COMPLETED" : "FAILED";
+			long elapsedMillis = Math.max(1, ((done ? completedNanos : System.nanoTime()) - startNanos) / 1_000_000);
+			long scored = transactions.get();
+			return new RecomputeProgress(runId, status, parallelism, partitions, completedPartitions.get(),
+					customers.get(), scored, elapsedMillis, scored * 1000 / elapsedMillis, error,
+					List.copyOf(partitionTimings));
+		}
+
+	}
+
+}
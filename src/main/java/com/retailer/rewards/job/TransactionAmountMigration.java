@@ -0,0 +1,91 @@
+package com.retailer.rewards.job;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job to migrate the transaction amounts of an existing database from the
+ * legacy {@code amount} column, in dollars, to the {@code amount_cents} column.
+ *
+ * It runs on application startup before the entity manager factory is created,
+ * as the schema update cannot add the non null cents column to a table that
+ * already has rows. Once the legacy column is dropped it does nothing, and if
+ * it is interrupted it converts the amounts again on the next startup.
+ */
+@Component
+@Slf4j
+public class TransactionAmountMigration implements InitializingBean {
+
+	private static final String TABLE = "transaction";
+
+	@Autowired
+	private DataSource dataSource;
+
+	@Override
+	public void afterPropertiesSet() throws SQLException {
+		migrate();
+	}
+
+	/**
+	 * Converts the legacy dollar amounts to cents and drops the legacy column, if
+	 * it exists.
+	 *
+	 * @throws SQLException if the migration fails.
+	 */
+	public void migrate() throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			DatabaseMetaData metaData = connection.getMetaData();
+			if (!hasColumn(metaData, connection.getSchema(), "amount")) {
+				return;
+			}
+			log.info("Migrating transaction amounts from dollars to cents");
+			if (!hasColumn(metaData, connection.getSchema(), "amount_cents")) {
+				statement.execute("alter table " + TABLE + " add column amount_cents bigint");
+			}
+			int rows = statement.executeUpdate("update " + TABLE + " set amount_cents = round(amount * 100)");
+			// Added as nullable to the existing rows, then made as strict as the column the schema update creates
+			statement.execute("alter table " + TABLE + " alter column amount_cents set not null");
+			// The index including the legacy column is recreated on the cents column by the schema update
+			statement.execute("drop index if exists idx_transaction_customer_date");
+			statement.execute("alter table " + TABLE + " drop column amount");
+			log.info("Migrated the amounts of {} transactions to cents", rows);
+		}
+	}
+
+	private boolean hasColumn(DatabaseMetaData metaData, String schema, String column) throws SQLException {
+		String table = TABLE;
+		if (metaData.storesUpperCaseIdentifiers()) {
+			table = table.toUpperCase(Locale.ROOT);
+			column = column.toUpperCase(Locale.ROOT);
+		}
+		try (ResultSet columns = metaData.getColumns(null, schema, table, column)) {
+			return columns.next();
+		}
+	}
+
+	/**
+	 * Makes the entity manager factory, and so the schema update, wait for the
+	 * migration.
+	 */
+	@Component
+	static class EntityManagerFactoryDependsOnMigration extends EntityManagerFactoryDependsOnPostProcessor {
+
+		EntityManagerFactoryDependsOnMigration() {
+			super(TransactionAmountMigration.class);
+		}
+	}
+
+}
@@ -0,0 +1,297 @@
+package com.retailer.rewards.job;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.ImportCheckpoint;
+import com.retailer.rewards.model.ImportReport;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.ImportCheckpointRepository;
+import com.retailer.rewards.service.RewardService;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job to import historical transactions from a CSV ({@code customerId,amount,date})
+ * or NDJSON file.
+ *
+ * The import runs as a pipeline of three stages connected by bounded queues, so
+ * memory stays bounded by the queue sizes whatever the size of the file: one
+ * thread parses the file, one validates the customer IDs of each batch and the
+ * calling thread writes the batches through {@link RewardService}, which does
+ * not look the customers up again. A full queue blocks the stage feeding it
+ * until the next stage catches up.
+ *
+ * Every batch is written in the same database transaction as the import
+ * checkpoint, so an interrupted import resumes from the byte offset following
+ * the last written batch without duplicating or losing rows.
+ */
+@Component
+@Slf4j
+public class TransactionImportJob {
+
+	private static final long REPORT_INTERVAL_ROWS = 100_000;
+
+	private static final ParsedRow END_OF_ROWS = new ParsedRow(-1, -1, null, null);
+
+	private static final ImportBatch END_OF_BATCHES = new ImportBatch(List.of(), new long[0], -1, 0, 0);
+
+	@Autowired
+	private RewardService rewardService;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private ImportCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${rewards.ingestion.batch-size}")
+	private int batchSize;
+
+	/**
+	 * Imports the transactions of a file, resuming from its checkpoint if it was
+	 * imported before.
+	 *
+	 * @param file the CSV or NDJSON file to import, the format is chosen by its
+	 *             extension.
+	 * @return the report of the import.
+	 * @throws IOException          if the file can not be read.
+	 * @throws InterruptedException if the import is interrupted.
+	 */
+	public ImportReport importFile(Path file) throws IOException, InterruptedException {
+		String source = file.toAbsolutePath().normalize().toString();
+		ImportCheckpoint checkpoint = checkpointRepository.findById(source)
+				.orElseGet(() -> new ImportCheckpoint(source, 0, 0, 0, 0));
+		long resumedFromOffset = checkpoint.getOffset();
+		long resumedFromRows = checkpoint.getRowsRead();
+		if (resumedFromOffset > 0) {
+			log.info("Resuming import of {} from byte offset {} after {} rows", source, resumedFromOffset,
+					resumedFromRows);
+		}
+
+		boolean csv = file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv");
+		BlockingQueue<ParsedRow> rows = new ArrayBlockingQueue<>(batchSize * 2);
+		BlockingQueue<ImportBatch> batches = new ArrayBlockingQueue<>(2);
+		long startTime = System.nanoTime();
+
+		ExecutorService stages = Executors.newFixedThreadPool(2);
+		try {
+			Future<Void> parser = stages
+					.submit(() -> parse(file, resumedFromOffset, resumedFromRows, csv, rows));
+			Future<Void> validator = stages.submit(validate(rows, batches));
+			write(batches, checkpoint, startTime);
+			// The validator is checked first, a failed validator leaves the parser blocked
+			validator.get();
+			parser.get();
+		} catch (ExecutionException ex) {
+			if (ex.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new IllegalStateException("Import of " + source + " failed.", ex.getCause());
+		} finally {
+			stages.shutdownNow();
+		}
+
+		long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+		long rowsThisRun = checkpoint.getRowsRead() - resumedFromRows;
+		return new ImportReport(source, resumedFromOffset, checkpoint.getRowsRead(), checkpoint.getAccepted(),
+				checkpoint.getRejected(), elapsedMillis, rowsThisRun * 1000 / elapsedMillis);
+	}
+
+	/**
+	 * Parsing stage, reads the file line by line from the given byte offset.
+	 */
+	private Void parse(Path file, long offset, long firstRow, boolean csv, BlockingQueue<ParsedRow> rows)
+			throws IOException, InterruptedException {
+		ObjectReader reader = objectMapper.readerFor(TransactionRequest.class);
+		try (InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+			in.skipNBytes(offset);
+			ByteArrayOutputStream line = new ByteArrayOutputStream(128);
+			long position = offset;
+			long row = firstRow;
+			int next;
+			while ((next = in.read()) != -1) {
+				position++;
+				if (next != '\n') {
+					line.write(next);
+					continue;
+				}
+				if (parseLine(line.toString(StandardCharsets.UTF_8).strip(), row, position, csv, reader, rows)) {
+					row++;
+				}
+				line.reset();
+			}
+			parseLine(line.toString(StandardCharsets.UTF_8).strip(), row, position, csv, reader, rows);
+		} finally {
+			rows.put(END_OF_ROWS);
+		}
+		return null;
+	}
+
+	/**
+	 * Parses a single line and hands it to the validation stage.
+	 *
+	 * @return true if the line is a row, false if it is blank or the CSV header
+	 *         line.
+	 */
+	private boolean parseLine(String line, long row, long endOffset, boolean csv, ObjectReader reader,
+			BlockingQueue<ParsedRow> rows) throws InterruptedException {
+		if (line.isEmpty() || (csv && line.regionMatches(true, 0, "customerId", 0, "customerId".length()))) {
+			return false;
+		}
+		TransactionRequest request = null;
+		try {
+			request = csv ? parseCsv(line) : reader.readValue(line);
+		} catch (IOException | RuntimeException ex) {
+			// Left null, the row is rejected as malformed by the validation stage
+		}
+		rows.put(new ParsedRow(row, endOffset, request, line));
+		return true;
+	}
+
+	private TransactionRequest parseCsv(String line) {
+		String[] fields = line.split(",", -1);
+		if (fields.length < 2 || fields.length > 3) {
+			throw new IllegalArgumentException("Expected customerId,amount[,date].");
+		}
+		LocalDate date = fields.length == 3 && !fields[2].isBlank() ? LocalDate.parse(fields[2].strip()) : null;
+		return new TransactionRequest(Long.valueOf(fields[0].strip()), Double.parseDouble(fields[1].strip()), date);
+	}
+
+	/**
+	 * Validation stage, groups the parsed rows into batches and rejects the rows
+	 * that are malformed or belong to unknown customers.
+	 */
+	private Callable<Void> validate(BlockingQueue<ParsedRow> rows, BlockingQueue<ImportBatch> batches) {
+		return () -> {
+			Set<Long> knownCustomerIds = new HashSet<>();
+			try {
+				List<ParsedRow> pending = new ArrayList<>(batchSize);
+				ParsedRow row;
+				while ((row = rows.take()) != END_OF_ROWS) {
+					pending.add(row);
+					if (pending.size() == batchSize) {
+						batches.put(toBatch(pending, knownCustomerIds));
+						pending.clear();
+					}
+				}
+				if (!pending.isEmpty()) {
+					batches.put(toBatch(pending, knownCustomerIds));
+				}
+			} finally {
+				batches.put(END_OF_BATCHES);
+			}
+			return null;
+		};
+	}
+
+	private ImportBatch toBatch(List<ParsedRow> rows, Set<Long> knownCustomerIds) {
+		Set<Long> unknownCustomerIds = rows.stream().filter(row -> row.request() != null)
+				.map(row -> row.request().getCustomerId()).filter(id -> id != null && !knownCustomerIds.contains(id))
+				.collect(Collectors.toSet());
+		if (!unknownCustomerIds.isEmpty()) {
+			customerRepository.findAllById(unknownCustomerIds).stream().map(Customer::getId)
+					.forEach(knownCustomerIds::add);
+		}
+
+		List<TransactionRequest> requests = new ArrayList<>(rows.size());
+		long[] requestRows = new long[rows.size()];
+		long rejected = 0;
+		for (ParsedRow row : rows) {
+			if (row.request() == null) {
+				log.warn("Rejected row {}: Malformed row: {}", row.row(), row.line());
+				rejected++;
+			} else if (row.request().getCustomerId() != null
+					&& !knownCustomerIds.contains(row.request().getCustomerId())) {
+				log.warn("Rejected row {}: Customer not found with ID: {}", row.row(), row.request().getCustomerId());
+				rejected++;
+			} else {
+				requestRows[requests.size()] = row.row();
+				requests.add(row.request());
+			}
+		}
+		ParsedRow last = rows.get(rows.size() - 1);
+		return new ImportBatch(requests, Arrays.copyOf(requestRows, requests.size()), last.endOffset(), rows.size(),
+				rejected);
+	}
+
+	/**
+	 * Writing stage, writes every batch together with the checkpoint following
+	 * it.
+	 */
+	private void write(BlockingQueue<ImportBatch> batches, ImportCheckpoint checkpoint, long startTime)
+			throws InterruptedException {
+		long rowsAtStart = checkpoint.getRowsRead();
+		long nextReport = rowsAtStart + REPORT_INTERVAL_ROWS;
+		ImportBatch batch;
+		while ((batch = batches.take()) != END_OF_BATCHES) {
+			ImportBatch current = batch;
+			transactionTemplate.executeWithoutResult(status -> {
+				List<TransactionIngestionResult> results = rewardService
+						.ingestValidatedTransactions(current.requests(), current.rows());
+				long accepted = results.stream().filter(TransactionIngestionResult::isAccepted).count();
+				checkpoint.advance(current.endOffset(), current.rowsRead(), accepted,
+						current.rejected() + results.size() - accepted);
+				checkpointRepository.save(checkpoint);
+			});
+			if (checkpoint.getRowsRead() >= nextReport) {
+				long elapsedMillis = Math.max(1, (System.nanoTime() - startTime) / 1_000_000);
+				log.info("Imported {} rows of {} ({} rows/s)", checkpoint.getRowsRead(), checkpoint.getSource(),
+						(checkpoint.getRowsRead() - rowsAtStart) * 1000 / elapsedMillis);
+				nextReport += REPORT_INTERVAL_ROWS;
+			}
+		}
+	}
+
+	/**
+	 * A row handed from the parsing stage to the validation stage, the request is
+	 * null if the line could not be parsed.
+	 */
+	private record ParsedRow(long row, long endOffset, TransactionRequest request, String line) {
+	}
+
+	/**
+	 * A batch handed from the validation stage to the writing stage, with the row
+	 * number of every request, as the rejected rows leave gaps.
+	 */
+	private record ImportBatch(List<TransactionRequest> requests, long[] rows, long endOffset, long rowsRead,
+			long rejected) {
+	}
+
+}
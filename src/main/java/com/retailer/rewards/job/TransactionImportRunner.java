@@ -0,0 +1,42 @@
+package com.retailer.rewards.job;
+
+import java.nio.file.Path;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.retailer.rewards.model.ImportReport;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the transaction import of the file given by the
+ * {@code rewards.import.file} property on application startup, e.g.
+ * {@code --rewards.import.file=history.csv}. Running it again with the same
+ * file resumes the import from its last checkpoint.
+ */
+@Component
+@ConditionalOnProperty(name = "rewards.import.file")
+@Slf4j
+public class TransactionImportRunner implements ApplicationRunner {
+
+	@Autowired
+	private TransactionImportJob transactionImportJob;
+
+	@Value("${rewards.import.file}")
+	private String file;
+
+	@Override
+	public void run(ApplicationArguments args) throws Exception {
+		log.info("Importing transactions from {}", file);
+		ImportReport report = transactionImportJob.importFile(Path.of(file));
+		log.info("Imported transactions from {}, rows: {}, accepted: {}, rejected: {}, {} rows/s",
+				report.getSource(), report.getRowsRead(), report.getAccepted(), report.getRejected(),
+				report.getRowsPerSecond());
+	}
+
+}
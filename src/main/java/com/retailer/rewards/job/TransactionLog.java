@@ -0,0 +1,255 @@
+package com.retailer.rewards.job;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Durable append-only log of accepted transactions, stored in memory-mapped
+ * segment files of fixed size records.
+ *
+ * Every record is addressed by its position, the number of records appended
+ * before it since the log was created. A segment file is named after the
+ * position of its first record and is deleted once all of its records have
+ * been released. A record ends with a checksum of its fields, which is never
+ * 0, so that on opening the log the first slot without a valid record, be it
+ * never written or torn by a crash, marks the end of the log.
+ *
+ * Appends are serialized by a lock rather than a monitor, so that a virtual
+ * thread forcing its record to the storage device does not pin its carrier
+ * thread, while a single reader may read the appended records concurrently.
+ */
+@Slf4j
+public class TransactionLog implements Closeable {
+
+	static final int RECORD_SIZE = 24;
+
+	private static final String SEGMENT_SUFFIX = ".log";
+
+	private final Path directory;
+
+	private final int recordsPerSegment;
+
+	private final boolean forceOnAppend;
+
+	private final ConcurrentNavigableMap<Long, MappedByteBuffer> segments = new ConcurrentSkipListMap<>();
+
+	private final ReentrantLock appendLock = new ReentrantLock();
+
+	private volatile long appendPosition;
+
+	private TransactionLog(Path directory, int recordsPerSegment, boolean forceOnAppend) {
+		this.directory = directory;
+		this.recordsPerSegment = recordsPerSegment;
+		this.forceOnAppend = forceOnAppend;
+	}
+
+	/**
+	 * Opens the log of a directory, creating it if it does not exist. The
+	 * segments released before are deleted and the end of the log is recovered
+	 * from the records of the remaining segments.
+	 *
+	 * @param directory         the directory of the segment files.
+	 * @param recordsPerSegment the number of records of a new segment.
+	 * @param forceOnAppend     whether every appended record is forced to the
+	 *                          storage device before the append returns.
+	 * @param releasedPosition  the position up to which the records have been
+	 *                          released.
+	 * @return the opened log.
+	 * @throws IOException if the segments can not be read.
+	 */
+	public static TransactionLog open(Path directory, int recordsPerSegment, boolean forceOnAppend,
+			long releasedPosition) throws IOException {
+		Files.createDirectories(directory);
+		TransactionLog transactionLog = new TransactionLog(directory, recordsPerSegment, forceOnAppend);
+		try (Stream<Path> files = Files.list(directory)) {
+			for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+				String name = file.getFileName().toString();
+				long firstPosition = Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+				transactionLog.segments.put(firstPosition, map(file, Files.size(file)));
+			}
+		}
+		// Positions of released records are never reused, even if the storage lost
+		// their unforced pages
+		transactionLog.appendPosition = Math.max(releasedPosition,
+				transactionLog.recoverAppendPosition(releasedPosition));
+		transactionLog.release(releasedPosition);
+		return transactionLog;
+	}
+
+	/**
+	 * Appends a transaction to the log.
+	 *
+	 * @param customerId  the ID of the customer of the transaction.
+	 * @param amountCents the amount in cents.
+	 * @param date        the date of the transaction.
+	 * @return the position of the appended record.
+	 * @throws UncheckedIOException if a new segment can not be created.
+	 */
+	public long append(long customerId, long amountCents, LocalDate date) {
+		appendLock.lock();
+		try {
+			long position = appendPosition;
+			Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(position);
+			if (segment == null || position - segment.getKey() >= capacity(segment.getValue())) {
+				segment = Map.entry(position, createSegment(position));
+			}
+			MappedByteBuffer buffer = segment.getValue();
+			int offset = Math.toIntExact(position - segment.getKey()) * RECORD_SIZE;
+			int epochDay = Math.toIntExact(date.toEpochDay());
+			buffer.putLong(offset, customerId);
+			buffer.putLong(offset + 8, amountCents);
+			buffer.putInt(offset + 16, epochDay);
+			buffer.putInt(offset + 20, checksum(customerId, amountCents, epochDay));
+			if (forceOnAppend) {
+				buffer.force(offset, RECORD_SIZE);
+			}
+			appendPosition = position + 1;
+			return position;
+		} finally {
+			appendLock.unlock();
+		}
+	}
+
+	/**
+	 * Reads the appended records from a position on.
+	 *
+	 * @param fromPosition the position of the first record to read.
+	 * @param maxRecords   the maximum number of records to read.
+	 * @return the records read, in the order of their positions.
+	 */
+	public List<LoggedTransaction> read(long fromPosition, int maxRecords) {
+		long toPosition = Math.min(appendPosition, fromPosition + maxRecords);
+		List<LoggedTransaction> records = new ArrayList<>((int) Math.max(0, toPosition - fromPosition));
+		for (long position = fromPosition; position < toPosition; position++) {
+			Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(position);
+			MappedByteBuffer buffer = segment.getValue();
+			int offset = Math.toIntExact(position - segment.getKey()) * RECORD_SIZE;
+			records.add(new LoggedTransaction(position, buffer.getLong(offset), buffer.getLong(offset + 8),
+					LocalDate.ofEpochDay(buffer.getInt(offset + 16))));
+		}
+		return records;
+	}
+
+	/**
+	 * Releases the records before a position, deleting the segments that only
+	 * hold released records.
+	 *
+	 * @param position the position up to which the records are released.
+	 */
+	public void release(long position) {
+		for (Map.Entry<Long, MappedByteBuffer> segment : segments.headMap(position).entrySet()) {
+			if (segment.getKey() + capacity(segment.getValue()) > position) {
+				continue;
+			}
+			segments.remove(segment.getKey());
+			try {
+				Files.deleteIfExists(segmentFile(segment.getKey()));
+			} catch (IOException ex) {
+				log.warn("Could not delete released segment {}", segmentFile(segment.getKey()), ex);
+			}
+		}
+	}
+
+	/**
+	 * Returns the position following the last appended record.
+	 *
+	 * @return the number of records appended since the log was created.
+	 */
+	public long getAppendPosition() {
+		return appendPosition;
+	}
+
+	/**
+	 * Forces the appended records to the storage device.
+	 */
+	@Override
+	public void close() {
+		segments.values().forEach(MappedByteBuffer::force);
+	}
+
+	/**
+	 * Finds the end of the log, scanning the records from the released position
+	 * on up to the first slot without a valid record.
+	 */
+	private long recoverAppendPosition(long releasedPosition) {
+		long position = segments.isEmpty() ? releasedPosition : Math.max(releasedPosition, segments.firstKey());
+		while (true) {
+			Map.Entry<Long, MappedByteBuffer> segment = segments.floorEntry(position);
+			if (segment == null || position - segment.getKey() >= capacity(segment.getValue())) {
+				return position;
+			}
+			MappedByteBuffer buffer = segment.getValue();
+			int offset = Math.toIntExact(position - segment.getKey()) * RECORD_SIZE;
+			long customerId = buffer.getLong(offset);
+			long amountCents = buffer.getLong(offset + 8);
+			int epochDay = buffer.getInt(offset + 16);
+			if (buffer.getInt(offset + 20) != checksum(customerId, amountCents, epochDay)) {
+				return position;
+			}
+			position++;
+		}
+	}
+
+	private MappedByteBuffer createSegment(long firstPosition) {
+		try {
+			MappedByteBuffer buffer = map(segmentFile(firstPosition), (long) recordsPerSegment * RECORD_SIZE);
+			segments.put(firstPosition, buffer);
+			return buffer;
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+
+	private Path segmentFile(long firstPosition) {
+		return directory.resolve(String.format("%020d%s", firstPosition, SEGMENT_SUFFIX));
+	}
+
+	private static MappedByteBuffer map(Path file, long size) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	private static long capacity(MappedByteBuffer buffer) {
+		return buffer.capacity() / RECORD_SIZE;
+	}
+
+	private static int checksum(long customerId, long amountCents, int epochDay) {
+		CRC32 crc = new CRC32();
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			crc.update((int) (customerId >>> shift));
+		}
+		for (int shift = 56; shift >= 0; shift -= 8) {
+			crc.update((int) (amountCents >>> shift));
+		}
+		for (int shift = 24; shift >= 0; shift -= 8) {
+			crc.update(epochDay >>> shift);
+		}
+		return (int) crc.getValue() | 1;
+	}
+
+	/**
+	 * A transaction read from the log.
+	 */
+	public record LoggedTransaction(long position, long customerId, long amountCents, LocalDate date) {
+	}
+
+}
@@ -0,0 +1,222 @@
+package com.retailer.rewards.job;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.job.TransactionLog.LoggedTransaction;
+import com.retailer.rewards.model.AcceptedTransaction;
+import com.retailer.rewards.model.ImportCheckpoint;
+import com.retailer.rewards.model.IngestionLag;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.repository.ImportCheckpointRepository;
+import com.retailer.rewards.service.RewardService;
+import com.retailer.rewards.service.RewardValidator;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job to ingest transactions asynchronously. Accepted transactions are
+ * appended to a durable {@link TransactionLog} and acknowledged right away,
+ * and a background thread drains the log into the database in batches of
+ * {@code rewards.ingestion.batch-size} rows through {@link RewardService}. It
+ * only runs when the {@code rewards.ingestion.async.enabled} property is set to
+ * true.
+ *
+ * The position up to which the log has been drained is kept as an import
+ * checkpoint, written in the same database transaction as every batch, so a
+ * restarted application resumes draining from the first transaction not
+ * written yet without duplicating or losing any. Transactions of unknown
+ * customers are only rejected once drained.
+ */
+@Component
+@ConditionalOnProperty(name = "rewards.ingestion.async.enabled", havingValue = "true")
+@Slf4j
+public class WriteBehindIngestionJob {
+
+	private static final String SOURCE_PREFIX = "write-behind:";
+
+	@Autowired
+	private RewardService rewardService;
+
+	@Autowired
+	private ImportCheckpointRepository checkpointRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${rewards.ingestion.batch-size}")
+	private int batchSize;
+
+	@Value("${rewards.ingestion.async.directory}")
+	private Path directory;
+
+	@Value("${rewards.ingestion.async.segment-records}")
+	private int segmentRecords;
+
+	@Value("${rewards.ingestion.async.force-on-append}")
+	private boolean forceOnAppend;
+
+	@Value("${rewards.ingestion.async.drain-interval}")
+	private Duration drainInterval;
+
+	private TransactionLog transactionLog;
+
+	private volatile ImportCheckpoint checkpoint;
+
+	private volatile boolean running;
+
+	private Thread drainer;
+
+	/**
+	 * Opens the log, recovering the transactions not drained before the last
+	 * shutdown, and starts draining it.
+	 *
+	 * @throws IOException if the log can not be opened.
+	 */
+	@PostConstruct
+	public void start() throws IOException {
+		recover();
+		running = true;
+		drainer = new Thread(this::drain, "write-behind-drainer");
+		drainer.setDaemon(true);
+		drainer.start();
+	}
+
+	/**
+	 * Stops draining the log once the current batch is written. The remaining
+	 * transactions are drained after the next start.
+	 *
+	 * @throws InterruptedException if interrupted while waiting for the drainer.
+	 */
+	@PreDestroy
+	public void stop() throws InterruptedException {
+		running = false;
+		synchronized (this) {
+			notifyAll();
+		}
+		drainer.join();
+		transactionLog.close();
+	}
+
+	/**
+	 * Accepts a transaction for a customer, appending it to the log without
+	 * looking up the customer.
+	 *
+	 * @param customerId the ID of the customer making the transaction.
+	 * @param amount     the transaction amount.
+	 * @param date       the transaction date (defaults to the current date if
+	 *                   null).
+	 * @return the accepted transaction with its position in the log.
+	 * @throws IllegalArgumentException if the customer ID is null or the amount
+	 *                                  is not valid.
+	 */
+	public AcceptedTransaction accept(Long customerId, double amount, LocalDate date) {
+		RewardValidator.validateCustomerId(customerId);
+		long amountCents = RewardValidator.validateAmount(amount);
+		LocalDate transactionDate = Optional.ofNullable(date).orElse(LocalDate.now());
+		long position = transactionLog.append(customerId, amountCents, transactionDate);
+		return new AcceptedTransaction(position, customerId, Money.toAmount(amountCents), transactionDate);
+	}
+
+	/**
+	 * Returns how far the database is behind the log.
+	 *
+	 * @return the appended and drained positions of the log, the number of
+	 *         pending transactions and the counts of the drained ones.
+	 */
+	public IngestionLag lag() {
+		ImportCheckpoint drained = checkpoint;
+		long appended = transactionLog.getAppendPosition();
+		return new IngestionLag(appended, drained.getOffset(), appended - drained.getOffset(),
+				drained.getAccepted(), drained.getRejected());
+	}
+
+	/**
+	 * Loads the checkpoint of the log and opens it.
+	 */
+	void recover() throws IOException {
+		String source = SOURCE_PREFIX + directory.toAbsolutePath().normalize();
+		checkpoint = checkpointRepository.findById(source)
+				.orElseGet(() -> new ImportCheckpoint(source, 0, 0, 0, 0));
+		transactionLog = TransactionLog.open(directory, segmentRecords, forceOnAppend, checkpoint.getOffset());
+		long pending = transactionLog.getAppendPosition() - checkpoint.getOffset();
+		if (pending > 0) {
+			log.info("Recovered {} transactions to drain from {}", pending, directory);
+		}
+	}
+
+	/**
+	 * Writes the next batch of the log, together with the checkpoint following
+	 * it.
+	 *
+	 * @return the number of transactions drained.
+	 */
+	int drainBatch() {
+		long from = checkpoint.getOffset();
+		List<LoggedTransaction> records = transactionLog.read(from, batchSize);
+		if (records.isEmpty()) {
+			return 0;
+		}
+		List<TransactionRequest> requests = records.stream().map(record -> new TransactionRequest(
+				record.customerId(), Money.toAmount(record.amountCents()), record.date())).toList();
+		// The checkpoint is only replaced once its batch has been committed
+		ImportCheckpoint next = new ImportCheckpoint(checkpoint.getSource(), from, checkpoint.getRowsRead(),
+				checkpoint.getAccepted(), checkpoint.getRejected());
+		transactionTemplate.executeWithoutResult(status -> {
+			List<TransactionIngestionResult> results = rewardService.ingestTransactions(requests, from);
+			long accepted = 0;
+			for (TransactionIngestionResult result : results) {
+				if (result.isAccepted()) {
+					accepted++;
+				} else {
+					log.warn("Rejected transaction {}: {}", result.getRow(), result.getMessage());
+				}
+			}
+			next.advance(from + records.size(), records.size(), accepted, records.size() - accepted);
+			checkpointRepository.save(next);
+		});
+		checkpoint = next;
+		transactionLog.release(next.getOffset());
+		return records.size();
+	}
+
+	/**
+	 * Drains the log until stopped, waiting for the drain interval whenever it is
+	 * drained or a batch fails.
+	 */
+	private void drain() {
+		while (running) {
+			int drained = 0;
+			try {
+				drained = drainBatch();
+			} catch (RuntimeException ex) {
+				log.error("Draining transactions from position {} failed, retrying", checkpoint.getOffset(), ex);
+			}
+			if (drained < batchSize) {
+				synchronized (this) {
+					try {
+						wait(drainInterval.toMillis());
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+						return;
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,27 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds a transaction accepted for asynchronous ingestion, including
+ * its position in the write-behind log, customer id, amount and date. The
+ * transaction is written to the database once the log is drained up to its
+ * position.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class AcceptedTransaction {
+	private long position;
+	private Long customerId;
+	private double amount;
+	private LocalDate date;
+}
@@ -0,0 +1,29 @@
+package com.retailer.rewards.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds response of a bulk transaction ingestion including the
+ * number of accepted and rejected rows and the result of every row.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkIngestionResponse {
+	private long accepted;
+	private long rejected;
+	private List<TransactionIngestionResult> results;
+
+	public BulkIngestionResponse(List<TransactionIngestionResult> results) {
+		this(results.stream().filter(TransactionIngestionResult::isAccepted).count(),
+				results.stream().filter(result -> !result.isAccepted()).count(), results);
+	}
+}
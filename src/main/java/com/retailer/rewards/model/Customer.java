@@ -33,7 +33,9 @@ public class Customer {
 
 	private String name;
 
+	// Left out of toString so that logging a customer never loads its transactions
 	@OneToMany(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+	@ToString.Exclude
 	private List<Transaction> transactions;
 
 }
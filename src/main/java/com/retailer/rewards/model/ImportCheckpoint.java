@@ -0,0 +1,50 @@
+package com.retailer.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents the checkpoint of a transaction import. This entity holds the
+ * byte offset of the import file up to which rows have been written, along
+ * with the row counts so far, so that an interrupted import can be resumed.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class ImportCheckpoint {
+
+	@Id
+	private String source;
+
+	@Column(name = "byte_offset")
+	private long offset;
+
+	private long rowsRead;
+	private long accepted;
+	private long rejected;
+
+	/**
+	 * Moves the checkpoint past a written batch of rows.
+	 *
+	 * @param offset   the byte offset following the last row of the batch.
+	 * @param rowsRead the number of rows read for the batch.
+	 * @param accepted the number of accepted rows of the batch.
+	 * @param rejected the number of rejected rows of the batch.
+	 */
+	public void advance(long offset, long rowsRead, long accepted, long rejected) {
+		this.offset = offset;
+		this.rowsRead += rowsRead;
+		this.accepted += accepted;
+		this.rejected += rejected;
+	}
+
+}
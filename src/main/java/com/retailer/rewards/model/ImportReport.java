@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the report of a transaction import, including the totals of
+ * the import so far and the throughput of the last run.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportReport {
+	private String source;
+	private long resumedFromOffset;
+	private long rowsRead;
+	private long accepted;
+	private long rejected;
+	private long elapsedMillis;
+	private long rowsPerSecond;
+}
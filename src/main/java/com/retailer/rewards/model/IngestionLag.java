@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the state of the asynchronous ingestion, including the
+ * positions up to which the write-behind log has been appended and drained,
+ * the number of transactions waiting to be written, and the accepted and
+ * rejected counts of the drained transactions.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestionLag {
+	private long appendedPosition;
+	private long drainedPosition;
+	private long pending;
+	private long accepted;
+	private long rejected;
+}
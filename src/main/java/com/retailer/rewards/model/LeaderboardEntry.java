@@ -0,0 +1,23 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the rank of a customer on the leaderboard of a period,
+ * along with the points the customer earned in the period. The rank is null
+ * for a customer who earned no points in the period.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaderboardEntry {
+	private Integer rank;
+	private Long customerId;
+	private long points;
+}
@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import java.time.Month;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the reward points earned, and the amount and number of the
+ * transactions made in a month, across a range of customers.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyPointsTotal {
+	private int year;
+	private Month month;
+	private long points;
+	private double amount;
+	private long transactions;
+}
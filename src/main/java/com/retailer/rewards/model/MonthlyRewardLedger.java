@@ -0,0 +1,53 @@
+package com.retailer.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents a monthly reward ledger entry. This entity holds the reward points
+ * earned by a customer in a given year and month, and is kept up to date as
+ * transactions are created. The IDs are allocated from a pooled sequence, so
+ * that a rebuild of the ledger inserts its entries in JDBC batches.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "monthly_reward_ledger", uniqueConstraints = @UniqueConstraint(name = "uk_ledger_customer_period", columnNames = {
+		"customer_id", "ledger_year", "ledger_month" }))
+public class MonthlyRewardLedger {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "monthly_reward_ledger_seq")
+	@SequenceGenerator(name = "monthly_reward_ledger_seq", sequenceName = "monthly_reward_ledger_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "customer_id", nullable = false)
+	private Long customerId;
+
+	@Column(name = "ledger_year", nullable = false)
+	private int year;
+
+	@Column(name = "ledger_month", nullable = false)
+	private int month;
+
+	private int points;
+
+	public MonthlyRewardLedger(Long customerId, int year, int month, int points) {
+		this(null, customerId, year, month, points);
+	}
+
+}
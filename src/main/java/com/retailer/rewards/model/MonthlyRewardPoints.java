@@ -0,0 +1,23 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the reward points earned by a customer in a month, as
+ * aggregated by the database.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyRewardPoints {
+	private Long customerId;
+	private Integer year;
+	private Integer month;
+	private Long points;
+}
@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the timing of a partition of a reward recomputation,
+ * including its range of customer IDs, the customers and transactions scored
+ * and the time spent reading and writing them.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class PartitionTiming {
+	private long fromCustomerId;
+	private long toCustomerId;
+	private long customers;
+	private long transactions;
+	private long readMillis;
+	private long writeMillis;
+}
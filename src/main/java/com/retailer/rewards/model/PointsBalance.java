@@ -0,0 +1,50 @@
+package com.retailer.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents the running points balance of a customer. This entity is a
+ * projection of the points events of the customer, updated with every event,
+ * along with the ID and sequence of the last event applied to it and the number
+ * of events applied since the last snapshot of the balance.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+public class PointsBalance {
+
+	@Id
+	@Column(name = "customer_id")
+	private Long customerId;
+
+	private long points;
+
+	private Long lastEventId;
+
+	private long lastSequence;
+
+	private int eventsSinceSnapshot;
+
+	/**
+	 * Applies an event of the customer to the balance.
+	 *
+	 * @param event the event to apply, following the last applied event.
+	 */
+	public void apply(PointsEvent event) {
+		this.points += event.getPoints();
+		this.lastEventId = event.getId();
+		this.lastSequence = event.getSequence();
+		this.eventsSinceSnapshot++;
+	}
+
+}
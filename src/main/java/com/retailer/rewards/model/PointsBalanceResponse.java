@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the points balance of a customer, including the lifetime
+ * balance, the last event applied to it and, when a period was requested, the
+ * points of the year or month of the period.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsBalanceResponse {
+	private Long customerId;
+	private long lifetimePoints;
+	private Long lastEventId;
+	private Integer year;
+	private Integer month;
+	private Integer periodPoints;
+}
@@ -0,0 +1,50 @@
+package com.retailer.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents a snapshot of the points balance of a customer, the sum of the
+ * points of their events up to and including the given event and sequence. A
+ * balance is replayed from its latest snapshot, so only the events following
+ * it in sequence are read.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(indexes = @Index(name = "idx_points_snapshot_customer", columnList = "customer_id, last_sequence"))
+public class PointsBalanceSnapshot {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "customer_id", nullable = false)
+	private Long customerId;
+
+	@Column(name = "last_event_id", nullable = false)
+	private Long lastEventId;
+
+	@Column(name = "last_sequence", nullable = false)
+	private long lastSequence;
+
+	private long points;
+
+	public PointsBalanceSnapshot(Long customerId, Long lastEventId, long lastSequence, long points) {
+		this(null, customerId, lastEventId, lastSequence, points);
+	}
+
+}
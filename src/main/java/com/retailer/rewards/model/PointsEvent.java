@@ -0,0 +1,88 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents an event of the reward points of a customer. Events are only ever
+ * appended: a transaction earns its points with an EARNED event and gives them
+ * back with a REVERSED event of the opposite points. The points balance of a
+ * customer is the sum of the points of their events, in the order of their
+ * sequence. The sequence numbers the events of a customer from 1, and is given
+ * under the lock of their balance, unlike the IDs which concurrent writers
+ * allocate from their own blocks of the database sequence.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_points_event_customer_sequence", columnNames = {
+		"customer_id", "event_sequence" }), indexes = @Index(name = "idx_points_event_transaction",
+				columnList = "transaction_id"))
+public class PointsEvent {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "points_event_seq")
+	@SequenceGenerator(name = "points_event_seq", sequenceName = "points_event_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "customer_id", nullable = false)
+	private Long customerId;
+
+	@Column(name = "transaction_id", nullable = false)
+	private Long transactionId;
+
+	@Enumerated(EnumType.STRING)
+	@Column(nullable = false)
+	private PointsEventType type;
+
+	private int points;
+
+	private LocalDate date;
+
+	@Column(name = "event_sequence", nullable = false)
+	private long sequence;
+
+	/**
+	 * Creates the event of the points earned by a transaction.
+	 *
+	 * @param transaction the created transaction.
+	 * @param points      the points earned by the transaction.
+	 * @return the EARNED event of the transaction.
+	 */
+	public static PointsEvent earned(Transaction transaction, int points) {
+		return new PointsEvent(null, transaction.getCustomer().getId(), transaction.getId(), PointsEventType.EARNED,
+				points, transaction.getDate(), 0);
+	}
+
+	/**
+	 * Creates the event of the points given back by a reversed transaction.
+	 *
+	 * @param transaction the reversed transaction.
+	 * @param points      the points earned by the transaction.
+	 * @return the REVERSED event of the transaction, of the opposite points.
+	 */
+	public static PointsEvent reversed(Transaction transaction, int points) {
+		return new PointsEvent(null, transaction.getCustomer().getId(), transaction.getId(),
+				PointsEventType.REVERSED, -points, transaction.getDate(), 0);
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.retailer.rewards.model;
+
+/**
+ * The types of the events of the reward points of a customer.
+ */
+public enum PointsEventType {
+
+	/**
+	 * Points earned by a created transaction.
+	 */
+	EARNED,
+
+	/**
+	 * Points taken back by the reversal of a transaction, e.g. on a refund.
+	 */
+	REVERSED
+
+}
@@ -0,0 +1,23 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the sum of the points of the events of a customer following
+ * a given sequence, the number of these events and the sequence of the last
+ * one, as aggregated by the database.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointsReplay {
+	private Long points;
+	private Long events;
+	private Long lastSequence;
+}
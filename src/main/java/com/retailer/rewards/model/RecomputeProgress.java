@@ -0,0 +1,33 @@
+package com.retailer.rewards.model;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the progress of a reward recomputation, including its
+ * status, the partitions completed so far, the customers and transactions
+ * scored, the throughput and the timing of every completed partition.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecomputeProgress {
+	private long runId;
+	private String status;
+	private int parallelism;
+	private int partitions;
+	private int completedPartitions;
+	private long customers;
+	private long transactions;
+	private long elapsedMillis;
+	private long transactionsPerSecond;
+	private String error;
+	private List<PartitionTiming> partitionTimings;
+}
@@ -0,0 +1,52 @@
+package com.retailer.rewards.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Represents the result of a recomputation of the reward points of a customer.
+ * This entity holds the number of transactions of the customer and the points
+ * they earn with the reward rules of the run, to be audited against the
+ * ledger.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "reward_recompute_result", uniqueConstraints = @UniqueConstraint(name = "uk_recompute_run_customer", columnNames = {
+		"run_id", "customer_id" }))
+public class RewardRecomputeResult {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reward_recompute_result_seq")
+	@SequenceGenerator(name = "reward_recompute_result_seq", sequenceName = "reward_recompute_result_seq", allocationSize = 50)
+	private Long id;
+
+	@Column(name = "run_id", nullable = false)
+	private long runId;
+
+	@Column(name = "customer_id", nullable = false)
+	private Long customerId;
+
+	private long transactions;
+
+	private long points;
+
+	public RewardRecomputeResult(long runId, Long customerId, long transactions, long points) {
+		this(null, runId, customerId, transactions, points);
+	}
+
+}
@@ -0,0 +1,28 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds a request for the reward summaries of several customers,
+ * given either as a list of customer IDs or as a range of customer IDs, and the
+ * date range of the summaries.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardSummaryBatchRequest {
+	private List<Long> customerIds;
+	private Long fromCustomerId;
+	private Long toCustomerId;
+	private LocalDate startDate;
+	private LocalDate endDate;
+}
@@ -0,0 +1,23 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the counters of the reward summary cache since the
+ * application started and its current number of entries.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class RewardSummaryCacheStats {
+	private long hitCount;
+	private long missCount;
+	private long evictionCount;
+	private long size;
+}
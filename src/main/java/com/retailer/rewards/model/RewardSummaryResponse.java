@@ -2,6 +2,8 @@ package com.retailer.rewards.model;
 
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -11,7 +13,7 @@ import lombok.ToString;
 /**
  * This model holds response of reward summary including customer id, customer
  * name, total transactions done by customer, rewards per month and total reward
- * points.
+ * points. The transactions are left out when they were not requested.
  */
 @Getter
 @Setter
@@ -21,7 +23,8 @@ import lombok.ToString;
 public class RewardSummaryResponse {
 	private Long customerId;
 	private String customerName;
-	private List<Transaction> transactions;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private List<TransactionDetails> transactions;
 	private List<MonthRewardSummary> rewardPointsPerMonth;
 	private int totalRewardPoints;
 }
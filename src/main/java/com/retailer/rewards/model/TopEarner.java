@@ -0,0 +1,22 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the rank of a customer among the top earners of reward
+ * points over a period, along with the points the customer earned.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TopEarner {
+	private int rank;
+	private Long customerId;
+	private long points;
+}
@@ -3,15 +3,20 @@ package com.retailer.rewards.model;
 import java.time.LocalDate;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.retailer.rewards.Money;
 
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
+import jakarta.persistence.ForeignKey;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
-import lombok.AllArgsConstructor;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -19,26 +24,71 @@ import lombok.ToString;
 
 /**
  * Represents a Transaction. This entity holds transaction information for a
- * customer.
+ * customer. The amount is stored in whole cents and exposed in dollars. The
+ * transactions are indexed by customer and date, including the amount, so that
+ * the transactions and reward points of a customer within a date range are read
+ * from the index alone.
  */
 @Getter
 @Setter
 @ToString
 @NoArgsConstructor
-@AllArgsConstructor
 @Entity
+@Table(indexes = @Index(name = "idx_transaction_customer_date", columnList = "customer_id, date, amount_cents"))
 public class Transaction {
 
+	/**
+	 * The name of the foreign key from a transaction to its customer.
+	 */
+	public static final String CUSTOMER_FOREIGN_KEY = "fk_transaction_customer";
+
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
+	@SequenceGenerator(name = "transaction_seq", sequenceName = "transaction_seq", allocationSize = 50)
 	private Long id;
 
-	private double amount;
+	@Column(name = "amount_cents", nullable = false)
+	@JsonIgnore
+	private long amountCents;
+
 	private LocalDate date;
 
 	@ManyToOne(fetch = FetchType.LAZY)
-	@JoinColumn(name = "customer_id")
+	@JoinColumn(name = "customer_id", foreignKey = @ForeignKey(name = CUSTOMER_FOREIGN_KEY))
 	@JsonIgnore
 	private Customer customer;
 
+	/**
+	 * Creates a transaction.
+	 *
+	 * @param id       the ID of the transaction.
+	 * @param amount   the amount in dollars.
+	 * @param date     the date of the transaction.
+	 * @param customer the customer of the transaction.
+	 */
+	public Transaction(Long id, double amount, LocalDate date, Customer customer) {
+		this.id = id;
+		this.amountCents = Money.toCents(amount);
+		this.date = date;
+		this.customer = customer;
+	}
+
+	/**
+	 * Returns the amount in dollars.
+	 *
+	 * @return the amount in dollars.
+	 */
+	public double getAmount() {
+		return Money.toAmount(amountCents);
+	}
+
+	/**
+	 * Sets the amount in dollars, rounded to whole cents.
+	 *
+	 * @param amount the amount in dollars.
+	 */
+	public void setAmount(double amount) {
+		this.amountCents = Money.toCents(amount);
+	}
+
 }
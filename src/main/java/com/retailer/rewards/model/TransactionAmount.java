@@ -0,0 +1,24 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the customer, amount and date of a transaction, read
+ * without loading the transaction entity.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionAmount {
+	private Long customerId;
+	private long amountCents;
+	private LocalDate date;
+}
@@ -0,0 +1,55 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.retailer.rewards.Money;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the id, amount and date of a transaction, read without
+ * loading the transaction entity into the persistence context. It is
+ * serialized like a {@link Transaction}: the amount is exposed in dollars and
+ * the customer is left out.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionDetails {
+
+	private Long id;
+
+	@JsonIgnore
+	private Long customerId;
+
+	@JsonIgnore
+	private long amountCents;
+
+	private LocalDate date;
+
+	/**
+	 * Returns the amount in dollars.
+	 *
+	 * @return the amount in dollars.
+	 */
+	public double getAmount() {
+		return Money.toAmount(amountCents);
+	}
+
+	/**
+	 * Sets the amount in dollars, so that a serialized response reads back.
+	 *
+	 * @param amount the amount in dollars.
+	 */
+	public void setAmount(double amount) {
+		this.amountCents = Money.toCents(amount);
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.retailer.rewards.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds the ingestion result of a single row, including the row
+ * number, whether it was accepted, the id of the created transaction and the
+ * reason of rejection.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionIngestionResult {
+	private long row;
+	private boolean accepted;
+	private Long transactionId;
+	private String message;
+
+	public static TransactionIngestionResult accepted(long row, Long transactionId) {
+		return new TransactionIngestionResult(row, true, transactionId, null);
+	}
+
+	public static TransactionIngestionResult rejected(long row, String message) {
+		return new TransactionIngestionResult(row, false, null, message);
+	}
+}
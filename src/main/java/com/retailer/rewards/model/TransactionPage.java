@@ -0,0 +1,26 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds a page of transactions ordered by date and id, and the
+ * cursor (date and id of the last transaction) to fetch the next page with.
+ * The cursor is null on the last page.
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionPage {
+	private List<TransactionDetails> transactions;
+	private LocalDate nextAfterDate;
+	private Long nextAfterId;
+}
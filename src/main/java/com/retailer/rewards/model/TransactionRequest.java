@@ -0,0 +1,24 @@
+package com.retailer.rewards.model;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * This model holds a single transaction to be ingested, including customer id,
+ * amount and date (optional).
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransactionRequest {
+	private Long customerId;
+	private double amount;
+	private LocalDate date;
+}
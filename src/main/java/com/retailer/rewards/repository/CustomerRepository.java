@@ -1,10 +1,21 @@
 package com.retailer.rewards.repository;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.retailer.rewards.model.Customer;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
 /**
  * Repository interface for managing Customer entities.
  * 
@@ -15,4 +26,64 @@ import com.retailer.rewards.model.Customer;
  */
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
+
+	/**
+	 * Fetches the customers within a range of IDs, ordered by ID.
+	 *
+	 * @param fromId The first ID of the range.
+	 * @param toId   The last ID of the range.
+	 * @return A list of the customers within the range.
+	 */
+	List<Customer> findByIdBetweenOrderById(Long fromId, Long toId);
+
+	/**
+	 * Fetches the lowest customer ID.
+	 *
+	 * @return The lowest customer ID, or null if there are no customers.
+	 */
+	@Query("select min(c.id) from Customer c")
+	Long findMinId();
+
+	/**
+	 * Fetches the highest customer ID.
+	 *
+	 * @return The highest customer ID, or null if there are no customers.
+	 */
+	@Query("select max(c.id) from Customer c")
+	Long findMaxId();
+
+	/**
+	 * Streams the IDs of all the customers, fetching the rows from the cursor in
+	 * chunks. The stream must be consumed within a transaction and closed
+	 * afterwards.
+	 *
+	 * @return A stream of the IDs of all the customers.
+	 */
+	@Query("select c.id from Customer c")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<Long> streamIds();
+
+	/**
+	 * Streams the IDs of the customers above an ID. The stream must be consumed
+	 * within a transaction and closed afterwards.
+	 *
+	 * @param customerId the ID above which the IDs are streamed.
+	 * @return A stream of the IDs of the customers above the ID.
+	 */
+	@Query("select c.id from Customer c where c.id > :customerId")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<Long> streamIdsAbove(@Param("customerId") long customerId);
+
+	/**
+	 * Fetches a customer and locks it until the end of the transaction, so that
+	 * concurrent writers of the customer creating the same row wait for each
+	 * other.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @return The locked customer, or empty if there is no customer with this ID.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select c from Customer c where c.id = :customerId")
+	Optional<Customer> findForUpdate(@Param("customerId") Long customerId);
+
 }
@@ -0,0 +1,18 @@
+package com.retailer.rewards.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.ImportCheckpoint;
+
+/**
+ * Repository interface for managing ImportCheckpoint entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * ImportCheckpoint entity. It is automatically implemented by Spring Data JPA
+ * at runtime.
+ * 
+ */
+@Repository
+public interface ImportCheckpointRepository extends JpaRepository<ImportCheckpoint, String> {
+}
@@ -0,0 +1,91 @@
+package com.retailer.rewards.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+
+/**
+ * Repository interface for managing MonthlyRewardLedger entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * MonthlyRewardLedger entity. It is automatically implemented by Spring Data
+ * JPA at runtime.
+ * 
+ */
+@Repository
+public interface MonthlyRewardLedgerRepository extends JpaRepository<MonthlyRewardLedger, Long> {
+
+	/**
+	 * Fetches the ledger entries of a customer for the given range of years.
+	 *
+	 * @param customerId The ID of the customer whose ledger is to be retrieved.
+	 * @param startYear  The first year of the range.
+	 * @param endYear    The last year of the range.
+	 * @return A list of ledger entries of the customer within the given years.
+	 */
+	List<MonthlyRewardLedger> findByCustomerIdAndYearBetween(Long customerId, int startYear, int endYear);
+
+	/**
+	 * Fetches the ledger entries of the given customers for the given range of
+	 * years.
+	 *
+	 * @param customerIds The IDs of the customers whose ledger is to be retrieved.
+	 * @param startYear   The first year of the range.
+	 * @param endYear     The last year of the range.
+	 * @return A list of ledger entries of the customers within the given years.
+	 */
+	List<MonthlyRewardLedger> findByCustomerIdInAndYearBetween(Collection<Long> customerIds, int startYear,
+			int endYear);
+
+	/**
+	 * Fetches the ledger entries of a range of customers for the given range of
+	 * years.
+	 *
+	 * @param fromCustomerId The first customer ID of the range.
+	 * @param toCustomerId   The last customer ID of the range.
+	 * @param startYear      The first year of the range.
+	 * @param endYear        The last year of the range.
+	 * @return A list of ledger entries of the customers within the given years.
+	 */
+	List<MonthlyRewardLedger> findByCustomerIdBetweenAndYearBetween(Long fromCustomerId, Long toCustomerId,
+			int startYear, int endYear);
+
+	/**
+	 * Adds reward points to the ledger entry of a customer for the given year and
+	 * month.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @param year       The year of the ledger entry.
+	 * @param month      The month (1-12) of the ledger entry.
+	 * @param points     The reward points to add.
+	 * @return The number of updated entries, 0 if the entry does not exist yet.
+	 */
+	@Modifying
+	@Query("update MonthlyRewardLedger l set l.points = l.points + :points "
+			+ "where l.customerId = :customerId and l.year = :year and l.month = :month")
+	int addPoints(@Param("customerId") Long customerId, @Param("year") int year, @Param("month") int month,
+			@Param("points") int points);
+
+	/**
+	 * Streams the points of every ledger entry from a year on, without loading
+	 * the entries. The stream must be consumed within a transaction and closed
+	 * afterwards.
+	 *
+	 * @param startYear The first year.
+	 * @return A stream of the points of every customer per month from the year
+	 *         on.
+	 */
+	@Query("select new com.retailer.rewards.model.MonthlyRewardPoints(l.customerId, l.year, l.month, "
+			+ "cast(l.points as Long)) from MonthlyRewardLedger l where l.year >= :startYear")
+	Stream<MonthlyRewardPoints> streamPointsFromYear(@Param("startYear") int startYear);
+
+}
@@ -0,0 +1,38 @@
+package com.retailer.rewards.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.PointsBalance;
+
+import jakarta.persistence.LockModeType;
+
+/**
+ * Repository interface for managing PointsBalance entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * PointsBalance entity. It is automatically implemented by Spring Data JPA at
+ * runtime.
+ * 
+ */
+@Repository
+public interface PointsBalanceRepository extends JpaRepository<PointsBalance, Long> {
+
+	/**
+	 * Fetches the balance of a customer and locks it until the end of the
+	 * transaction, so that concurrent events of the customer are applied one
+	 * after the other.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @return The locked balance, or empty if the customer has no balance yet.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select b from PointsBalance b where b.customerId = :customerId")
+	Optional<PointsBalance> findForUpdate(@Param("customerId") Long customerId);
+
+}
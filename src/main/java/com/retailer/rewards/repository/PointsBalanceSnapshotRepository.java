@@ -0,0 +1,30 @@
+package com.retailer.rewards.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.PointsBalanceSnapshot;
+
+/**
+ * Repository interface for managing PointsBalanceSnapshot entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * PointsBalanceSnapshot entity. It is automatically implemented by Spring Data
+ * JPA at runtime.
+ * 
+ */
+@Repository
+public interface PointsBalanceSnapshotRepository extends JpaRepository<PointsBalanceSnapshot, Long> {
+
+	/**
+	 * Fetches the latest snapshot of the balance of a customer.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @return The snapshot with the highest last sequence, or empty if the
+	 *         balance of the customer has no snapshot yet.
+	 */
+	Optional<PointsBalanceSnapshot> findFirstByCustomerIdOrderByLastSequenceDesc(Long customerId);
+
+}
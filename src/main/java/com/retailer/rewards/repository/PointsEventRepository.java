@@ -0,0 +1,58 @@
+package com.retailer.rewards.repository;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.PointsEventType;
+import com.retailer.rewards.model.PointsReplay;
+
+/**
+ * Repository interface for managing PointsEvent entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * PointsEvent entity. It is automatically implemented by Spring Data JPA at
+ * runtime.
+ * 
+ */
+@Repository
+public interface PointsEventRepository extends JpaRepository<PointsEvent, Long> {
+
+	/**
+	 * Fetches the event of the given type of a transaction.
+	 *
+	 * @param transactionId The ID of the transaction.
+	 * @param type          The type of the event.
+	 * @return The event, or empty if the transaction has no event of the type.
+	 */
+	Optional<PointsEvent> findFirstByTransactionIdAndType(Long transactionId, PointsEventType type);
+
+	/**
+	 * Fetches the last event of a customer.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @return The event of the highest sequence, or empty if the customer has no
+	 *         event.
+	 */
+	Optional<PointsEvent> findFirstByCustomerIdOrderBySequenceDesc(Long customerId);
+
+	/**
+	 * Sums the points of the events of a customer following a given sequence.
+	 * The points are summed by the database, so only one row is returned.
+	 *
+	 * @param customerId    The ID of the customer.
+	 * @param afterSequence The sequence of the last event not to include, 0 to
+	 *                      include all events.
+	 * @return The sum of the points of the events, their number and the sequence
+	 *         of the last one, or the given sequence if there is none.
+	 */
+	@Query("select new com.retailer.rewards.model.PointsReplay(coalesce(sum(e.points), 0), count(e), "
+			+ "coalesce(max(e.sequence), :afterSequence)) from PointsEvent e "
+			+ "where e.customerId = :customerId and e.sequence > :afterSequence")
+	PointsReplay sumPointsAfter(@Param("customerId") Long customerId, @Param("afterSequence") long afterSequence);
+
+}
@@ -0,0 +1,19 @@
+package com.retailer.rewards.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.RewardRecomputeResult;
+
+/**
+ * Repository interface for managing RewardRecomputeResult entities.
+ * 
+ * This interface extends JpaRepository to provide CRUD operations for the
+ * RewardRecomputeResult entity. It is automatically implemented by Spring Data
+ * JPA at runtime.
+ * 
+ */
+@Repository
+public interface RewardRecomputeResultRepository extends JpaRepository<RewardRecomputeResult, Long> {
+
+}
@@ -1,12 +1,23 @@
 package com.retailer.rewards.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.retailer.rewards.model.MonthlyRewardPoints;
 import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.model.TransactionDetails;
+
+import jakarta.persistence.QueryHint;
 
 /**
  * Repository interface for managing Transaction entities.
@@ -20,17 +31,32 @@ import com.retailer.rewards.model.Transaction;
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
 
 	/**
-	 * Fetches all transactions for a given customer within a specified date range.
+	 * Reward points of a transaction, computed by the database. This is the same
+	 * formula as RewardCalculator.calculateRewardPointsFromCents: 1 point for
+	 * every 50 cents above $100 plus 1 point for every dollar between $50 and
+	 * $100, in exact integer arithmetic. The aggregates using it are only valid
+	 * with the default reward rules, see RewardRuleSet.isDefault.
+	 */
+	String REWARD_POINTS = "case when t.amountCents > 10000 then (t.amountCents - 10000) / 50 + 50 "
+			+ "when t.amountCents > 5000 then (t.amountCents - 5000) / 100 else 0 end";
+
+	/**
+	 * Fetches the details of the transactions of a given customer within a
+	 * specified date range, ordered by date and id. No entity is loaded, so
+	 * nothing is added to the persistence context or dirty checked.
 	 *
 	 * @param customerId The ID of the customer whose transactions are to be
 	 *                   retrieved.
 	 * @param startDate  The start date of the date range.
 	 * @param endDate    The end date of the date range.
-	 * @return A list of transactions made by the customer within the specified date
-	 *         range.
+	 * @return The details of the transactions made by the customer within the
+	 *         specified date range.
 	 */
-	List<Transaction> findTransactionsByCustomerIdAndDateBetween(Long customerId, LocalDate startDate,
-			LocalDate endDate);
+	@Query("select new com.retailer.rewards.model.TransactionDetails(t.id, t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id = :customerId and t.date between :startDate and :endDate "
+			+ "order by t.date, t.id")
+	List<TransactionDetails> findDetailsByCustomerIdAndDateBetween(@Param("customerId") Long customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
 
 	/**
 	 * Fetches all transactions for a given customer regardless of date.
@@ -41,4 +67,170 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
 	 */
 	List<Transaction> findByCustomerId(Long customerId);
 
+	/**
+	 * Streams the details of the transactions of the given customers within a
+	 * specified date range, ordered by customer and date, without loading any
+	 * entity and fetching the rows from the cursor in chunks. The stream must be
+	 * consumed within a transaction and closed afterwards.
+	 *
+	 * @param customerIds The IDs of the customers whose transactions are to be
+	 *                    retrieved.
+	 * @param startDate   The start date of the date range.
+	 * @param endDate     The end date of the date range.
+	 * @return A stream of the details of the transactions of the customers within
+	 *         the specified date range.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionDetails(t.id, t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id in :customerIds and t.date between :startDate and :endDate "
+			+ "order by t.customer.id, t.date")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<TransactionDetails> streamDetailsByCustomerIdInAndDateBetween(
+			@Param("customerIds") Collection<Long> customerIds, @Param("startDate") LocalDate startDate,
+			@Param("endDate") LocalDate endDate);
+
+	/**
+	 * Streams the details of the transactions of a range of customers within a
+	 * specified date range, ordered by customer and date, without loading any
+	 * entity and fetching the rows from the cursor in chunks. The stream must be
+	 * consumed within a transaction and closed afterwards.
+	 *
+	 * @param fromCustomerId The first customer ID of the range.
+	 * @param toCustomerId   The last customer ID of the range.
+	 * @param startDate      The start date of the date range.
+	 * @param endDate        The end date of the date range.
+	 * @return A stream of the details of the transactions of the customers within
+	 *         the specified date range.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionDetails(t.id, t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id between :fromCustomerId and :toCustomerId "
+			+ "and t.date between :startDate and :endDate order by t.customer.id, t.date")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<TransactionDetails> streamDetailsByCustomerIdBetweenAndDateBetween(
+			@Param("fromCustomerId") Long fromCustomerId, @Param("toCustomerId") Long toCustomerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	/**
+	 * Streams the customer, amount and date of all the transactions, ordered by
+	 * customer ID. No entity is loaded and the rows are fetched from the cursor in
+	 * chunks. The stream must be consumed within a transaction and closed
+	 * afterwards.
+	 *
+	 * @return A stream of the amounts of all the transactions, ordered by customer
+	 *         ID.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionAmount(t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t order by t.customer.id")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<TransactionAmount> streamAmountsOrderByCustomerId();
+
+	/**
+	 * Streams the customer, amount and date of the transactions of a range of
+	 * customers, ordered by customer ID. Only the columns of the customer index
+	 * are read, no entity is loaded, and the rows are fetched from the cursor in
+	 * chunks. The stream must be consumed within a transaction and closed
+	 * afterwards.
+	 *
+	 * @param fromCustomerId The first customer ID of the range.
+	 * @param toCustomerId   The last customer ID of the range.
+	 * @return A stream of the amounts of the transactions of the customers.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionAmount(t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id between :fromCustomerId and :toCustomerId "
+			+ "order by t.customer.id")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<TransactionAmount> streamAmountsByCustomerIdBetween(@Param("fromCustomerId") Long fromCustomerId,
+			@Param("toCustomerId") Long toCustomerId);
+
+	/**
+	 * Streams the customer, amount and date of the transactions within a range of
+	 * IDs, without loading any entity, fetching the rows from the cursor in
+	 * chunks. The stream must be consumed within a transaction and closed
+	 * afterwards.
+	 *
+	 * @param afterId The ID preceding the range.
+	 * @param toId    The last ID of the range.
+	 * @return A stream of the amounts of the transactions within the range.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionAmount(t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.id > :afterId and t.id <= :toId")
+	@QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+	Stream<TransactionAmount> streamAmountsByIdBetween(@Param("afterId") Long afterId, @Param("toId") Long toId);
+
+	/**
+	 * Fetches the highest transaction ID.
+	 *
+	 * @return The highest transaction ID, or null if there are no transactions.
+	 */
+	@Query("select max(t.id) from Transaction t")
+	Long findMaxId();
+
+	/**
+	 * Fetches the details of the first transactions of a customer within a
+	 * specified date range, ordered by date and id, without loading any entity.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @param startDate  The start date of the date range.
+	 * @param endDate    The end date of the date range.
+	 * @param limit      The maximum number of transactions to fetch.
+	 * @return The details of the first transactions of the customer within the
+	 *         date range.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionDetails(t.id, t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id = :customerId and t.date between :startDate and :endDate "
+			+ "order by t.date, t.id")
+	List<TransactionDetails> findFirstPage(@Param("customerId") Long customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate, Limit limit);
+
+	/**
+	 * Fetches the details of the transactions of a customer within a specified
+	 * date range that follow the given (date, id) position, ordered by date and
+	 * id, without loading any entity. Paging by position instead of offset keeps
+	 * every page as cheap as the first.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @param startDate  The start date of the date range.
+	 * @param endDate    The end date of the date range.
+	 * @param afterDate  The date of the last transaction of the previous page.
+	 * @param afterId    The id of the last transaction of the previous page.
+	 * @param limit      The maximum number of transactions to fetch.
+	 * @return The details of the transactions of the customer following the given
+	 *         position.
+	 */
+	@Query("select new com.retailer.rewards.model.TransactionDetails(t.id, t.customer.id, t.amountCents, t.date) "
+			+ "from Transaction t where t.customer.id = :customerId and t.date between :startDate and :endDate "
+			+ "and (t.date > :afterDate or (t.date = :afterDate and t.id > :afterId)) order by t.date, t.id")
+	List<TransactionDetails> findPageAfter(@Param("customerId") Long customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate,
+			@Param("afterDate") LocalDate afterDate, @Param("afterId") Long afterId, Limit limit);
+
+	/**
+	 * Sums the reward points of a customer per month within a specified date
+	 * range. The points are computed and grouped by the database, so only one row
+	 * per month is returned.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @param startDate  The start date of the date range.
+	 * @param endDate    The end date of the date range.
+	 * @return The reward points of the customer per month, ordered by month.
+	 *         Months without transactions are not included.
+	 */
+	@Query("select new com.retailer.rewards.model.MonthlyRewardPoints(t.customer.id, year(t.date), month(t.date), "
+			+ "cast(sum(" + REWARD_POINTS + ") as Long)) from Transaction t "
+			+ "where t.customer.id = :customerId and t.date between :startDate and :endDate "
+			+ "group by t.customer.id, year(t.date), month(t.date) order by year(t.date), month(t.date)")
+	List<MonthlyRewardPoints> sumRewardPointsPerMonth(@Param("customerId") Long customerId,
+			@Param("startDate") LocalDate startDate, @Param("endDate") LocalDate endDate);
+
+	/**
+	 * Streams the reward points of every customer per month, computed and grouped
+	 * by the database. The stream must be consumed within a transaction and
+	 * closed afterwards.
+	 *
+	 * @return A stream of the reward points of every customer per month.
+	 */
+	@Query("select new com.retailer.rewards.model.MonthlyRewardPoints(t.customer.id, year(t.date), month(t.date), "
+			+ "cast(sum(" + REWARD_POINTS + ") as Long)) from Transaction t "
+			+ "group by t.customer.id, year(t.date), month(t.date)")
+	Stream<MonthlyRewardPoints> sumRewardPointsPerCustomerAndMonth();
+
 }
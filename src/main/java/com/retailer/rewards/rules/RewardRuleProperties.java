@@ -0,0 +1,61 @@
+package com.retailer.rewards.rules;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Reward rule definitions bound from the {@code rewards.rules} properties. The
+ * tiers default to the rules of {@link com.retailer.rewards.RewardCalculator}
+ * when none are configured.
+ */
+@Getter
+@Setter
+@ToString
+@ConfigurationProperties(prefix = "rewards.rules")
+public class RewardRuleProperties {
+
+	private List<Tier> tiers = new ArrayList<>();
+
+	private List<Promotion> promotions = new ArrayList<>();
+
+	/**
+	 * A tier awarding points for every dollar above its threshold, up to the
+	 * threshold of the next tier.
+	 */
+	@Getter
+	@Setter
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Tier {
+		private double threshold;
+		private double pointsPerDollar;
+	}
+
+	/**
+	 * A promotion applying to the transactions made between its start and end
+	 * dates, both included. Its points are computed with its own tiers, or the
+	 * default tiers if it has none, and multiplied by its multiplier.
+	 */
+	@Getter
+	@Setter
+	@ToString
+	@NoArgsConstructor
+	@AllArgsConstructor
+	public static class Promotion {
+		private String name;
+		private LocalDate startDate;
+		private LocalDate endDate;
+		private double multiplier = 1;
+		private List<Tier> tiers = new ArrayList<>();
+	}
+}
@@ -0,0 +1,240 @@
+package com.retailer.rewards.rules;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleProperties.Promotion;
+import com.retailer.rewards.rules.RewardRuleProperties.Tier;
+
+/**
+ * Reward rules compiled into flat arrays, so that calculating the points of a
+ * transaction is a short scan over a few thresholds and a multiplication.
+ *
+ * Every set of tiers is compiled into sorted thresholds in cents, the points
+ * per hundred dollars above each threshold and the points already earned at
+ * each threshold, so points are calculated in exact integer arithmetic. Points
+ * per dollar and multipliers are therefore applied with a precision of 0.01.
+ * The points earned in every full tier are truncated to whole points, as in
+ * {@link RewardCalculator#calculateRewardPointsFromCents(long)}. Promotions are
+ * compiled into sorted start and end days, and looked up by binary search only
+ * when there are any. The default rules delegate to {@link RewardCalculator},
+ * whose constant tiers the JIT compiler folds into the code.
+ */
+public class RewardRuleSet {
+
+	private static final List<Tier> DEFAULT_TIERS = List.of(new Tier(50, 1), new Tier(100, 2));
+
+	/**
+	 * The rules of {@link RewardCalculator}, used when no rules are configured.
+	 */
+	public static final RewardRuleSet DEFAULT = compile(List.of(), List.of());
+
+	private final CompiledTiers tiers;
+
+	private final int[] promotionStartDays;
+
+	private final int[] promotionEndDays;
+
+	private final CompiledTiers[] promotionTiers;
+
+	private final boolean isDefault;
+
+	private RewardRuleSet(CompiledTiers tiers, int[] promotionStartDays, int[] promotionEndDays,
+			CompiledTiers[] promotionTiers) {
+		this.tiers = tiers;
+		this.promotionStartDays = promotionStartDays;
+		this.promotionEndDays = promotionEndDays;
+		this.promotionTiers = promotionTiers;
+		this.isDefault = promotionTiers.length == 0 && tiers.equals(CompiledTiers.compile(DEFAULT_TIERS, 1));
+	}
+
+	/**
+	 * Compiles reward rules.
+	 *
+	 * @param tiers      the default tiers, the tiers of {@link RewardCalculator} if
+	 *                   empty.
+	 * @param promotions the promotions, which must not overlap.
+	 * @return the compiled reward rules.
+	 * @throws IllegalArgumentException if the rules are not valid.
+	 */
+	public static RewardRuleSet compile(List<Tier> tiers, List<Promotion> promotions) {
+		List<Tier> defaultTiers = tiers.isEmpty() ? DEFAULT_TIERS : tiers;
+		promotions.forEach(RewardRuleSet::validate);
+		List<Promotion> sortedPromotions = promotions.stream().sorted(Comparator.comparing(Promotion::getStartDate))
+				.toList();
+
+		int[] startDays = new int[sortedPromotions.size()];
+		int[] endDays = new int[sortedPromotions.size()];
+		CompiledTiers[] promotionTiers = new CompiledTiers[sortedPromotions.size()];
+		for (int i = 0; i < sortedPromotions.size(); i++) {
+			Promotion promotion = sortedPromotions.get(i);
+			startDays[i] = dayKey(promotion.getStartDate());
+			endDays[i] = dayKey(promotion.getEndDate());
+			if (i > 0 && startDays[i] <= endDays[i - 1]) {
+				throw new IllegalArgumentException("Promotion " + promotion.getName() + " overlaps promotion "
+						+ sortedPromotions.get(i - 1).getName() + ".");
+			}
+			List<Tier> tiersOfPromotion = promotion.getTiers() == null || promotion.getTiers().isEmpty()
+					? defaultTiers
+					: promotion.getTiers();
+			promotionTiers[i] = CompiledTiers.compile(tiersOfPromotion, promotion.getMultiplier());
+		}
+		return new RewardRuleSet(CompiledTiers.compile(defaultTiers, 1), startDays, endDays, promotionTiers);
+	}
+
+	private static void validate(Promotion promotion) {
+		if (promotion.getStartDate() == null || promotion.getEndDate() == null
+				|| promotion.getEndDate().isBefore(promotion.getStartDate())) {
+			throw new IllegalArgumentException(
+					"Promotion " + promotion.getName() + " requires a start date not after its end date.");
+		}
+		if (promotion.getMultiplier() < 0) {
+			throw new IllegalArgumentException("Promotion " + promotion.getName() + " has a negative multiplier.");
+		}
+	}
+
+	/**
+	 * Calculates the reward points of an amount with the default tiers, ignoring
+	 * promotions.
+	 *
+	 * @param amountCents the purchase amount in cents.
+	 * @return the calculated reward points.
+	 */
+	public int calculateRewardPointsFromCents(long amountCents) {
+		return isDefault ? RewardCalculator.calculateRewardPointsFromCents(amountCents) : tiers.points(amountCents);
+	}
+
+	/**
+	 * Calculates the reward points of a purchase with the promotion running on
+	 * its date, or the default tiers if there is none.
+	 *
+	 * @param amountCents the purchase amount in cents.
+	 * @param date        the purchase date.
+	 * @return the calculated reward points.
+	 */
+	public int calculateRewardPointsFromCents(long amountCents, LocalDate date) {
+		if (promotionTiers.length == 0) {
+			return calculateRewardPointsFromCents(amountCents);
+		}
+		int day = dayKey(date);
+		int index = Arrays.binarySearch(promotionStartDays, day);
+		// Index of the last promotion starting on or before the day
+		index = index >= 0 ? index : -index - 2;
+		if (index >= 0 && day <= promotionEndDays[index]) {
+			return promotionTiers[index].points(amountCents);
+		}
+		return tiers.points(amountCents);
+	}
+
+	/**
+	 * Calculates the reward points of the given transactions per month, for a
+	 * number of consecutive months. The points are summed into a plain array
+	 * indexed by the offset of the month from the first month, so months of
+	 * different years never share a bucket and no boxing takes place.
+	 *
+	 * @param transactions the transactions to calculate the reward points for.
+	 * @param firstMonth   the first month of the array.
+	 * @param months       the number of months of the array.
+	 * @return the reward points per month. Transactions outside of the months are
+	 *         ignored.
+	 */
+	public int[] calculateRewardPointsPerMonth(List<TransactionDetails> transactions, YearMonth firstMonth,
+			int months) {
+		int[] points = new int[months];
+		int firstEpochMonth = RewardCalculator.epochMonth(firstMonth.getYear(), firstMonth.getMonthValue());
+		for (TransactionDetails transaction : transactions) {
+			LocalDate date = transaction.getDate();
+			int index = RewardCalculator.epochMonth(date.getYear(), date.getMonthValue()) - firstEpochMonth;
+			if (index >= 0 && index < months) {
+				points[index] += calculateRewardPointsFromCents(transaction.getAmountCents(), date);
+			}
+		}
+		return points;
+	}
+
+	/**
+	 * Packs a date into a key ordered like the dates, cheaper to compute than the
+	 * epoch day.
+	 */
+	private static int dayKey(LocalDate date) {
+		return date.getYear() << 9 | date.getMonthValue() << 5 | date.getDayOfMonth();
+	}
+
+	/**
+	 * Checks whether these are the rules of {@link RewardCalculator}, which the
+	 * reward points aggregated by the database are computed with.
+	 *
+	 * @return true if these are the default rules without promotions.
+	 */
+	public boolean isDefault() {
+		return isDefault;
+	}
+
+	/**
+	 * A set of tiers compiled into arrays indexed by tier. The first tier is a
+	 * sentinel at threshold 0 awarding no points, so that every amount falls into
+	 * a tier.
+	 */
+	private record CompiledTiers(long[] thresholdCents, long[] pointsPerHundredDollars, int[] cumulativePoints,
+			long multiplierPercent) {
+
+		static CompiledTiers compile(List<Tier> tiers, double multiplier) {
+			List<Tier> sortedTiers = tiers.stream().sorted(Comparator.comparingDouble(Tier::getThreshold)).toList();
+			int count = sortedTiers.size() + 1;
+			long[] thresholdCents = new long[count];
+			long[] pointsPerHundredDollars = new long[count];
+			int[] cumulativePoints = new int[count];
+			for (int i = 1; i < count; i++) {
+				Tier tier = sortedTiers.get(i - 1);
+				if (tier.getThreshold() < 0 || tier.getPointsPerDollar() < 0) {
+					throw new IllegalArgumentException("Tier thresholds and points per dollar cannot be negative.");
+				}
+				thresholdCents[i] = Money.toCents(tier.getThreshold());
+				if (i > 1 && thresholdCents[i] == thresholdCents[i - 1]) {
+					throw new IllegalArgumentException("Tier thresholds must be distinct.");
+				}
+				pointsPerHundredDollars[i] = Math.round(tier.getPointsPerDollar() * 100);
+				cumulativePoints[i] = cumulativePoints[i - 1]
+						+ tierPoints(thresholdCents[i] - thresholdCents[i - 1], pointsPerHundredDollars[i - 1]);
+			}
+			return new CompiledTiers(thresholdCents, pointsPerHundredDollars, cumulativePoints,
+					Math.round(multiplier * 100));
+		}
+
+		/**
+		 * Points of an amount in cents at a rate in points per hundred dollars,
+		 * truncated to whole points.
+		 */
+		private static int tierPoints(long amountCents, long pointsPerHundredDollars) {
+			return Math.toIntExact(Math.multiplyExact(amountCents, pointsPerHundredDollars) / 10_000);
+		}
+
+		int points(long amountCents) {
+			int tier = thresholdCents.length - 1;
+			while (tier > 0 && amountCents <= thresholdCents[tier]) {
+				tier--;
+			}
+			int points = Math.addExact(cumulativePoints[tier],
+					tierPoints(amountCents - thresholdCents[tier], pointsPerHundredDollars[tier]));
+			return multiplierPercent == 100 ? points : Math.toIntExact(Math.multiplyExact(points, multiplierPercent) / 100);
+		}
+
+		@Override
+		public boolean equals(Object other) {
+			return other instanceof CompiledTiers that && Arrays.equals(thresholdCents, that.thresholdCents)
+					&& Arrays.equals(pointsPerHundredDollars, that.pointsPerHundredDollars)
+					&& multiplierPercent == that.multiplierPercent;
+		}
+
+		@Override
+		public int hashCode() {
+			return Arrays.hashCode(thresholdCents) * 31 + Arrays.hashCode(pointsPerHundredDollars);
+		}
+	}
+}
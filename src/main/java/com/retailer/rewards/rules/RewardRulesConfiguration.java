@@ -0,0 +1,31 @@
+package com.retailer.rewards.rules;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Compiles the configured reward rules into the {@link RewardRuleSet} used to
+ * calculate reward points.
+ */
+@Configuration
+@EnableConfigurationProperties(RewardRuleProperties.class)
+@Slf4j
+public class RewardRulesConfiguration {
+
+	/**
+	 * Compiles the configured reward rules.
+	 *
+	 * @param properties the configured reward rules.
+	 * @return the compiled reward rules.
+	 * @throws IllegalArgumentException if the rules are not valid.
+	 */
+	@Bean
+	public RewardRuleSet rewardRuleSet(RewardRuleProperties properties) {
+		RewardRuleSet ruleSet = RewardRuleSet.compile(properties.getTiers(), properties.getPromotions());
+		log.info("Reward rules compiled: {}", ruleSet.isDefault() ? "default rules" : properties);
+		return ruleSet;
+	}
+}
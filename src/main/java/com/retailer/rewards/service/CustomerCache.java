@@ -0,0 +1,74 @@
+package com.retailer.rewards.service;
+
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Read-through cache of the names of the customers, keyed by customer ID, so
+ * that the customer of a request is looked up without querying the database.
+ *
+ * The cache is bounded by size. Customers are never renamed nor deleted, so
+ * their names are kept until evicted by size. Only existing customers are
+ * cached: misses are not, as an unknown ID may be created later on, and are
+ * left to the {@link CustomerIdIndex}, which rejects them without a query once
+ * they are below its refreshed watermark.
+ *
+ * As for the {@link RewardSummaryCache}, names are loaded outside of the cache
+ * rather than inside its atomic compute, so that the carrier thread of a
+ * virtual thread is not pinned while the database is queried.
+ */
+@Component
+public class CustomerCache {
+
+	private final Cache<Long, String> cache;
+
+	private final boolean enabled;
+
+	/**
+	 * Creates the cache.
+	 *
+	 * @param maximumSize the maximum number of customers to keep, 0 disables the
+	 *                    cache.
+	 */
+	public CustomerCache(@Value("${rewards.cache.customer.maximum-size}") long maximumSize) {
+		this.enabled = maximumSize > 0;
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).build();
+	}
+
+	/**
+	 * Returns the cached name of a customer, loading and caching it if it is not
+	 * cached. Concurrent misses of the same customer may each load it.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param loader     loads the name of the customer, or returns null if there
+	 *                   is no customer with this ID.
+	 * @return the name of the customer, or null if there is no customer with this
+	 *         ID.
+	 */
+	public String getName(Long customerId, Function<Long, String> loader) {
+		String name = enabled ? cache.getIfPresent(customerId) : null;
+		if (name == null) {
+			name = loader.apply(customerId);
+			put(customerId, name);
+		}
+		return name;
+	}
+
+	/**
+	 * Caches the name of an existing customer.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param name       the name of the customer, null caches nothing.
+	 */
+	public void put(Long customerId, String name) {
+		if (enabled && name != null) {
+			cache.put(customerId, name);
+		}
+	}
+
+}
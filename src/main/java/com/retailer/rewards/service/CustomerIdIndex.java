@@ -0,0 +1,179 @@
+package com.retailer.rewards.service;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.repository.CustomerRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * In-memory index of the existing customer IDs, to reject unknown IDs without
+ * querying the database.
+ *
+ * The IDs are held in a bitmap split in pages of 65536 IDs, allocated on the
+ * first ID of their range, so the sequential IDs of the customers cost one bit
+ * each. The index is loaded on startup and every customer created or found by
+ * this application is added to it.
+ *
+ * Only IDs up to the highest ID loaded from the database are ever rejected.
+ * Customer IDs are assigned by an identity column, so customers created since,
+ * whether by this instance or another one, have higher IDs and are never
+ * rejected, even before they were added. Adding IDs does not move this
+ * watermark, only loading does. An ID above the watermark loads the IDs above
+ * it, at most every {@code rewards.customer-index.refresh-interval}, so that
+ * unknown IDs above the customers loaded on startup are rejected without a
+ * query once the next refresh is due rather than never.
+ *
+ * Lookups never lock, additions are serialized.
+ */
+@Component
+@Slf4j
+public class CustomerIdIndex {
+
+	private static final int PAGE_BITS = 1 << 16;
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${rewards.customer-index.refresh-interval}")
+	private Duration refreshInterval;
+
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	private volatile long refreshedNanos;
+
+	// Replaced whenever a page is allocated, publishing the page
+	private volatile AtomicLongArray[] pages = new AtomicLongArray[0];
+
+	private volatile long loadedMaxId;
+
+	/**
+	 * Loads the IDs of all the customers, and rejects the missing IDs up to the
+	 * highest one.
+	 */
+	@PostConstruct
+	public void load() {
+		long startTime = System.nanoTime();
+		long loaded = load(customerRepository::streamIds);
+		log.info("Loaded {} customer IDs in {} ms", loaded, (System.nanoTime() - startTime) / 1_000_000);
+	}
+
+	/**
+	 * Loads the IDs of the customers above the highest loaded one, unless they
+	 * were loaded less than the refresh interval ago or are being loaded.
+	 */
+	void refresh() {
+		if (!refreshLock.tryLock()) {
+			return;
+		}
+		try {
+			if (System.nanoTime() - refreshedNanos < refreshInterval.toNanos()) {
+				// Refreshed by a concurrent lookup
+				return;
+			}
+			long fromId = loadedMaxId;
+			load(() -> customerRepository.streamIdsAbove(fromId));
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Adds the streamed IDs and moves the watermark to the highest one.
+	 *
+	 * @return the number of IDs read.
+	 */
+	private long load(Supplier<Stream<Long>> customerIds) {
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		long[] loaded = readOnly.execute(status -> {
+			long read = 0;
+			long highest = 0;
+			try (Stream<Long> ids = customerIds.get()) {
+				Iterator<Long> iterator = ids.iterator();
+				while (iterator.hasNext()) {
+					long customerId = iterator.next();
+					add(customerId);
+					highest = Math.max(highest, customerId);
+					read++;
+				}
+			}
+			return new long[] { read, highest };
+		});
+		// Published once every loaded ID was added, so none of them is rejected
+		loadedMaxId = Math.max(loadedMaxId, loaded[1]);
+		refreshedNanos = System.nanoTime();
+		return loaded[0];
+	}
+
+	/**
+	 * Adds the ID of an existing customer.
+	 *
+	 * @param customerId the ID of the customer.
+	 */
+	public void add(long customerId) {
+		if (customerId > 0 && !contains(customerId)) {
+			set(customerId);
+		}
+	}
+
+	/**
+	 * Checks whether a customer may exist, first loading the customers created
+	 * since the last refresh if the ID is above the loaded ones and a refresh is
+	 * due.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @return false if there is no customer with this ID, true if there may be
+	 *         one.
+	 */
+	public boolean mightExist(long customerId) {
+		if (customerId > loadedMaxId && System.nanoTime() - refreshedNanos >= refreshInterval.toNanos()) {
+			refresh();
+		}
+		return customerId > loadedMaxId || contains(customerId);
+	}
+
+	private boolean contains(long customerId) {
+		if (customerId <= 0) {
+			return false;
+		}
+		AtomicLongArray[] current = pages;
+		long page = customerId / PAGE_BITS;
+		if (page >= current.length || current[(int) page] == null) {
+			return false;
+		}
+		int bit = (int) (customerId % PAGE_BITS);
+		return (current[(int) page].get(bit >>> 6) & (1L << bit)) != 0;
+	}
+
+	private synchronized void set(long customerId) {
+		int page = Math.toIntExact(customerId / PAGE_BITS);
+		AtomicLongArray[] current = pages;
+		if (page >= current.length || current[page] == null) {
+			current = Arrays.copyOf(current, Math.max(current.length, page + 1));
+			current[page] = new AtomicLongArray(PAGE_BITS / Long.SIZE);
+			pages = current;
+		}
+		int bit = (int) (customerId % PAGE_BITS);
+		current[page].getAndAccumulate(bit >>> 6, 1L << bit, (word, mask) -> word | mask);
+	}
+
+}
@@ -0,0 +1,187 @@
+package com.retailer.rewards.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.PointsBalance;
+import com.retailer.rewards.model.PointsBalanceResponse;
+import com.retailer.rewards.model.PointsBalanceSnapshot;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.PointsEventType;
+import com.retailer.rewards.model.PointsReplay;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
+import com.retailer.rewards.repository.PointsBalanceRepository;
+import com.retailer.rewards.repository.PointsBalanceSnapshotRepository;
+import com.retailer.rewards.repository.PointsEventRepository;
+
+/**
+ * Service class to keep the event-sourced points balance of the customers.
+ *
+ * Every change of the points of a customer is appended as a
+ * {@link PointsEvent}, and applied in the same database transaction to the
+ * running {@link PointsBalance} of the customer, so the lifetime balance is
+ * read with a single lookup. Every {@code rewards.points.snapshot-interval}
+ * events of a customer, the balance is snapshotted, so a balance that has to
+ * be replayed from the events, e.g. one lost or never projected, reads at most
+ * that many events.
+ *
+ * The balances of a write are locked in ascending customer ID order, so that
+ * concurrent writes of the same customers never deadlock, and the events of a
+ * customer are numbered in sequence under the lock of their balance.
+ */
+@Service
+public class PointsBalanceService {
+
+	@Autowired
+	private PointsEventRepository eventRepository;
+
+	@Autowired
+	private PointsBalanceRepository balanceRepository;
+
+	@Autowired
+	private PointsBalanceSnapshotRepository snapshotRepository;
+
+	@Autowired
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@Value("${rewards.points.snapshot-interval}")
+	private int snapshotInterval;
+
+	/**
+	 * Opens the empty balance of a new customer.
+	 *
+	 * @param customerId the ID of the customer.
+	 */
+	public void openBalance(Long customerId) {
+		balanceRepository.save(new PointsBalance(customerId, 0, null, 0, 0));
+	}
+
+	/**
+	 * Records the points earned by created transactions, within the transaction
+	 * creating them.
+	 *
+	 * @param transactions the saved transactions.
+	 * @param points       the points earned by every transaction, in the same
+	 *                     order.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void recordEarned(List<Transaction> transactions, int[] points) {
+		List<PointsEvent> events = new ArrayList<>(transactions.size());
+		for (int i = 0; i < transactions.size(); i++) {
+			events.add(PointsEvent.earned(transactions.get(i), points[i]));
+		}
+		append(events);
+	}
+
+	/**
+	 * Records the reversal of a transaction, within the transaction removing it.
+	 * The points taken back are the ones recorded when the transaction was
+	 * created, whatever the reward rules are now.
+	 *
+	 * @param transaction    the reversed transaction.
+	 * @param fallbackPoints the points to take back if the creation of the
+	 *                       transaction was not recorded.
+	 * @return the REVERSED event of the transaction.
+	 */
+	@Transactional(propagation = Propagation.MANDATORY)
+	public PointsEvent recordReversal(Transaction transaction, int fallbackPoints) {
+		int points = eventRepository.findFirstByTransactionIdAndType(transaction.getId(), PointsEventType.EARNED)
+				.map(PointsEvent::getPoints).orElse(fallbackPoints);
+		PointsEvent event = PointsEvent.reversed(transaction, points);
+		append(List.of(event));
+		return event;
+	}
+
+	/**
+	 * Retrieves the points balance of a customer, and the points of a year or a
+	 * month of a year if given. The lifetime balance is read from the running
+	 * balance, the points of the period from the monthly reward ledger.
+	 *
+	 * Both agree as long as the reward rules are unchanged. Once the ledger was
+	 * rebuilt with changed rules, the period points are the ones of the new rules,
+	 * while the lifetime balance keeps the points recorded by the events, so the
+	 * period points of all periods may no longer add up to the lifetime balance.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param year       the year of the period, or null for the lifetime balance
+	 *                   only.
+	 * @param month      the month (1-12) of the period within the year, or null
+	 *                   for the whole year.
+	 * @return the points balance of the customer.
+	 */
+	@Transactional(readOnly = true)
+	public PointsBalanceResponse getBalance(Long customerId, Integer year, Integer month) {
+		PointsBalance balance = balanceRepository.findById(customerId).orElseGet(() -> replay(customerId));
+		Integer periodPoints = null;
+		if (year != null) {
+			periodPoints = ledgerRepository.findByCustomerIdAndYearBetween(customerId, year, year).stream()
+					.filter(entry -> month == null || entry.getMonth() == month)
+					.mapToInt(MonthlyRewardLedger::getPoints).sum();
+		}
+		return new PointsBalanceResponse(customerId, balance.getPoints(), balance.getLastEventId(), year, month,
+				periodPoints);
+	}
+
+	/**
+	 * Appends events and applies them to the balances of their customers,
+	 * snapshotting every balance that reaches the snapshot interval.
+	 *
+	 * @param events the events to append, in the order to apply them.
+	 */
+	private void append(List<PointsEvent> events) {
+		// Locked in ascending order, whatever the order of the events
+		Map<Long, PointsBalance> balances = new TreeMap<>();
+		for (PointsEvent event : events) {
+			balances.put(event.getCustomerId(), null);
+		}
+		for (Map.Entry<Long, PointsBalance> entry : balances.entrySet()) {
+			Long customerId = entry.getKey();
+			entry.setValue(balanceRepository.findForUpdate(customerId).orElseGet(() -> replay(customerId)));
+		}
+		Map<Long, Long> sequences = new HashMap<>();
+		for (PointsEvent event : events) {
+			event.setSequence(sequences.merge(event.getCustomerId(),
+					balances.get(event.getCustomerId()).getLastSequence() + 1, (last, first) -> last + 1));
+		}
+		for (PointsEvent event : eventRepository.saveAll(events)) {
+			PointsBalance balance = balances.get(event.getCustomerId());
+			balance.apply(event);
+			if (balance.getEventsSinceSnapshot() >= snapshotInterval) {
+				snapshotRepository.save(new PointsBalanceSnapshot(balance.getCustomerId(), balance.getLastEventId(),
+						balance.getLastSequence(), balance.getPoints()));
+				balance.setEventsSinceSnapshot(0);
+			}
+		}
+		balanceRepository.saveAll(balances.values());
+	}
+
+	/**
+	 * Replays the balance of a customer from its latest snapshot and the events
+	 * following it in sequence.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @return the balance of the customer.
+	 */
+	PointsBalance replay(Long customerId) {
+		PointsBalanceSnapshot snapshot = snapshotRepository.findFirstByCustomerIdOrderByLastSequenceDesc(customerId)
+				.orElseGet(() -> new PointsBalanceSnapshot(customerId, null, 0, 0));
+		PointsReplay replay = eventRepository.sumPointsAfter(customerId, snapshot.getLastSequence());
+		Long lastEventId = replay.getEvents() == 0 ? snapshot.getLastEventId()
+				: eventRepository.findFirstByCustomerIdOrderBySequenceDesc(customerId).map(PointsEvent::getId)
+						.orElse(null);
+		return new PointsBalance(customerId, snapshot.getPoints() + replay.getPoints(), lastEventId,
+				replay.getLastSequence(), Math.toIntExact(replay.getEvents()));
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.retailer.rewards.service;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Order statistic tree of the points of customers, ranked by points descending
+ * then customer ID ascending. It is a treap whose nodes count the nodes of
+ * their subtree, so that inserting, removing and ranking an entry take
+ * logarithmic time on average, and the first entries are read in order.
+ *
+ * The tree is not thread safe.
+ */
+class RankTree {
+
+	private Node root;
+
+	/**
+	 * Inserts the points of a customer, who must not be in the tree yet.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param points     the points of the customer.
+	 */
+	void insert(long customerId, long points) {
+		root = insert(root, new Node(customerId, points, ThreadLocalRandom.current().nextInt()));
+	}
+
+	/**
+	 * Removes the points of a customer.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param points     the points of the customer in the tree.
+	 */
+	void remove(long customerId, long points) {
+		root = remove(root, customerId, points);
+	}
+
+	/**
+	 * Ranks the points of a customer in the tree.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param points     the points of the customer in the tree.
+	 * @return the rank of the customer, from 1.
+	 */
+	int rank(long customerId, long points) {
+		int before = 0;
+		Node node = root;
+		while (node != null) {
+			int comparison = compare(customerId, points, node);
+			if (comparison < 0) {
+				node = node.left;
+			} else if (comparison > 0) {
+				before += size(node.left) + 1;
+				node = node.right;
+			} else {
+				before += size(node.left);
+				break;
+			}
+		}
+		return before + 1;
+	}
+
+	/**
+	 * Reads the first entries of the tree in rank order.
+	 *
+	 * @param limit    the maximum number of entries to read.
+	 * @param consumer receives the customer ID and points of every entry.
+	 */
+	void top(int limit, EntryConsumer consumer) {
+		Deque<Node> path = new ArrayDeque<>();
+		Node node = root;
+		int read = 0;
+		while (read < limit && (node != null || !path.isEmpty())) {
+			while (node != null) {
+				path.push(node);
+				node = node.left;
+			}
+			node = path.pop();
+			consumer.accept(node.customerId, node.points);
+			read++;
+			node = node.right;
+		}
+	}
+
+	/**
+	 * Returns the number of entries of the tree.
+	 *
+	 * @return the number of customers in the tree.
+	 */
+	int size() {
+		return size(root);
+	}
+
+	private static Node insert(Node node, Node added) {
+		if (node == null) {
+			return added;
+		}
+		if (compare(added.customerId, added.points, node) < 0) {
+			node.left = insert(node.left, added);
+			if (node.left.priority > node.priority) {
+				node = rotateRight(node);
+			}
+		} else {
+			node.right = insert(node.right, added);
+			if (node.right.priority > node.priority) {
+				node = rotateLeft(node);
+			}
+		}
+		update(node);
+		return node;
+	}
+
+	private static Node remove(Node node, long customerId, long points) {
+		if (node == null) {
+			return null;
+		}
+		int comparison = compare(customerId, points, node);
+		if (comparison < 0) {
+			node.left = remove(node.left, customerId, points);
+		} else if (comparison > 0) {
+			node.right = remove(node.right, customerId, points);
+		} else {
+			return merge(node.left, node.right);
+		}
+		update(node);
+		return node;
+	}
+
+	/**
+	 * Merges two trees, all the entries of the first ranking before the ones of
+	 * the second.
+	 */
+	private static Node merge(Node first, Node second) {
+		if (first == null) {
+			return second;
+		}
+		if (second == null) {
+			return first;
+		}
+		if (first.priority > second.priority) {
+			first.right = merge(first.right, second);
+			update(first);
+			return first;
+		}
+		second.left = merge(first, second.left);
+		update(second);
+		return second;
+	}
+
+	private static Node rotateRight(Node node) {
+		Node left = node.left;
+		node.left = left.right;
+		left.right = node;
+		update(node);
+		update(left);
+		return left;
+	}
+
+	private static Node rotateLeft(Node node) {
+		Node right = node.right;
+		node.right = right.left;
+		right.left = node;
+		update(node);
+		update(right);
+		return right;
+	}
+
+	private static int compare(long customerId, long points, Node node) {
+		if (points != node.points) {
+			return points > node.points ? -1 : 1;
+		}
+		return Long.compare(customerId, node.customerId);
+	}
+
+	private static void update(Node node) {
+		node.size = size(node.left) + size(node.right) + 1;
+	}
+
+	private static int size(Node node) {
+		return node == null ? 0 : node.size;
+	}
+
+	/**
+	 * Receives the entries of the tree.
+	 */
+	@FunctionalInterface
+	interface EntryConsumer {
+		void accept(long customerId, long points);
+	}
+
+	private static class Node {
+
+		private final long customerId;
+
+		private final long points;
+
+		private final int priority;
+
+		private int size = 1;
+
+		private Node left;
+
+		private Node right;
+
+		Node(long customerId, long points, int priority) {
+			this.customerId = customerId;
+			this.points = points;
+			this.priority = priority;
+		}
+
+	}
+
+}
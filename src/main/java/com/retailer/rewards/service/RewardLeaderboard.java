@@ -0,0 +1,332 @@
+package com.retailer.rewards.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.model.LeaderboardEntry;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Leaderboards of the customers by reward points earned, one per month and one
+ * per year of the last {@code rewards.leaderboard.retained-years} years.
+ *
+ * Every leaderboard keeps the points of its customers in a {@link RankTree},
+ * so the top customers and the rank of any customer are read in logarithmic
+ * time. The leaderboards are updated with the points added to the monthly
+ * reward ledger once the transaction adding them has committed. Every
+ * leaderboard has its own lock, so writers of different periods never
+ * contend, and readers of a leaderboard only block its writers.
+ *
+ * The monthly reward ledger is the snapshot the leaderboards are loaded from
+ * on startup and after the ledger is rebuilt. A load holds the write lock of a
+ * reload lock, whose read lock every transaction adding points takes before it
+ * commits and releases once the points are added. Points are therefore either
+ * committed before the snapshot is read, and part of it, or committed after the
+ * new leaderboards are published, and added to them: never lost to the
+ * replaced leaderboards nor counted twice.
+ */
+@Component
+@Slf4j
+public class RewardLeaderboard {
+
+	@Autowired
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${rewards.leaderboard.retained-years}")
+	private int retainedYears;
+
+	private final ReadWriteLock reloadLock = new ReentrantReadWriteLock();
+
+	private volatile Map<Integer, PeriodBoard> boards = new ConcurrentHashMap<>();
+
+	/**
+	 * Loads the leaderboards from the monthly reward ledger.
+	 */
+	@PostConstruct
+	public void load() {
+		long startTime = System.nanoTime();
+		Map<Integer, PeriodBoard> loaded = new ConcurrentHashMap<>();
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		readOnly.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		long entries;
+		reloadLock.writeLock().lock();
+		try {
+			entries = readOnly.execute(status -> {
+				long read = 0;
+				try (Stream<MonthlyRewardPoints> points = ledgerRepository
+						.streamPointsFromYear(firstRetainedYear())) {
+					Iterator<MonthlyRewardPoints> iterator = points.iterator();
+					while (iterator.hasNext()) {
+						MonthlyRewardPoints entry = iterator.next();
+						add(loaded, entry.getCustomerId(), entry.getYear(), entry.getMonth(), entry.getPoints());
+						read++;
+					}
+				}
+				return read;
+			});
+			boards = loaded;
+		} finally {
+			reloadLock.writeLock().unlock();
+		}
+		log.info("Loaded {} leaderboards from {} ledger entries in {} ms", loaded.size(), entries,
+				(System.nanoTime() - startTime) / 1_000_000);
+	}
+
+	/**
+	 * Reloads the leaderboards from the monthly reward ledger, once the current
+	 * transaction has committed if there is one.
+	 */
+	public void reload() {
+		runAfterCommit(this::load);
+	}
+
+	/**
+	 * Adds points earned by a customer in a month to the leaderboards of the
+	 * month and its year, once the current transaction has committed if there is
+	 * one. The current transaction waits for a reload in progress before it
+	 * commits. Points of years no longer retained are ignored.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param month      the month in which the points were earned.
+	 * @param points     the points to add, negative to take points back.
+	 */
+	public void addPoints(Long customerId, YearMonth month, int points) {
+		if (points == 0 || month.getYear() < firstRetainedYear()) {
+			return;
+		}
+		Runnable action = () -> add(boards, customerId, month.getYear(), month.getMonthValue(), points);
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			reloadLock.readLock().lock();
+			try {
+				action.run();
+			} finally {
+				reloadLock.readLock().unlock();
+			}
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new PendingPoints(action));
+	}
+
+	/**
+	 * Retrieves the top customers of a year or a month of a year.
+	 *
+	 * @param year  the year.
+	 * @param month the month (1-12) within the year, or null for the whole year.
+	 * @param limit the number of customers to return.
+	 * @return the top customers by points descending then customer ID ascending,
+	 *         ranked from 1.
+	 * @throws IllegalArgumentException if the period is not retained or the limit
+	 *                                  is not between 1 and 1000.
+	 */
+	public List<LeaderboardEntry> getTop(int year, Integer month, int limit) {
+		validatePeriod(year, month);
+		if (limit < 1 || limit > 1000) {
+			throw new IllegalArgumentException("Limit must be between 1 and 1000.");
+		}
+		PeriodBoard board = boards.get(periodKey(year, month));
+		if (board == null) {
+			return List.of();
+		}
+		return board.top(limit);
+	}
+
+	/**
+	 * Retrieves the rank of a customer in a year or a month of a year.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param year       the year.
+	 * @param month      the month (1-12) within the year, or null for the whole
+	 *                   year.
+	 * @return the rank and points of the customer, without a rank if the
+	 *         customer earned no points in the period.
+	 * @throws IllegalArgumentException if the period is not retained.
+	 */
+	public LeaderboardEntry getRank(Long customerId, int year, Integer month) {
+		validatePeriod(year, month);
+		PeriodBoard board = boards.get(periodKey(year, month));
+		if (board == null) {
+			return new LeaderboardEntry(null, customerId, 0);
+		}
+		return board.rank(customerId);
+	}
+
+	private void validatePeriod(int year, Integer month) {
+		int firstYear = firstRetainedYear();
+		if (year < firstYear || year > LocalDate.now().getYear()) {
+			throw new IllegalArgumentException(
+					"Year must be between " + firstYear + " and " + LocalDate.now().getYear() + ".");
+		}
+		if (month != null && (month < 1 || month > 12)) {
+			throw new IllegalArgumentException("Month must be between 1 and 12.");
+		}
+	}
+
+	private int firstRetainedYear() {
+		return LocalDate.now().getYear() - retainedYears + 1;
+	}
+
+	private static void add(Map<Integer, PeriodBoard> boards, Long customerId, int year, int month, long points) {
+		boards.computeIfAbsent(periodKey(year, month), key -> new PeriodBoard()).add(customerId, points);
+		boards.computeIfAbsent(periodKey(year, null), key -> new PeriodBoard()).add(customerId, points);
+	}
+
+	/**
+	 * Returns the key of a period, month 0 standing for the whole year.
+	 */
+	private static int periodKey(int year, Integer month) {
+		return year * 13 + (month == null ? 0 : month);
+	}
+
+	private static void runAfterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	/**
+	 * Points added by a transaction, holding the read lock of the reload lock from
+	 * before the transaction commits until the points are added, or until the
+	 * transaction is rolled back.
+	 */
+	private class PendingPoints implements TransactionSynchronization {
+
+		private final Runnable action;
+
+		private boolean locked;
+
+		PendingPoints(Runnable action) {
+			this.action = action;
+		}
+
+		/**
+		 * Runs before the synchronization of a reload requested by the same
+		 * transaction, which would otherwise wait for the read lock held by its own
+		 * thread.
+		 */
+		@Override
+		public int getOrder() {
+			return Ordered.LOWEST_PRECEDENCE - 1;
+		}
+
+		@Override
+		public void beforeCommit(boolean readOnly) {
+			reloadLock.readLock().lock();
+			locked = true;
+		}
+
+		@Override
+		public void afterCommit() {
+			try {
+				action.run();
+			} finally {
+				unlock();
+			}
+		}
+
+		@Override
+		public void afterCompletion(int status) {
+			unlock();
+		}
+
+		private void unlock() {
+			if (locked) {
+				locked = false;
+				reloadLock.readLock().unlock();
+			}
+		}
+
+	}
+
+	/**
+	 * The leaderboard of a period, guarded by its own lock.
+	 */
+	private static class PeriodBoard {
+
+		private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+		private final Map<Long, Long> points = new HashMap<>();
+
+		private final RankTree ranks = new RankTree();
+
+		void add(Long customerId, long added) {
+			lock.writeLock().lock();
+			try {
+				Long current = points.get(customerId);
+				if (current != null) {
+					ranks.remove(customerId, current);
+				}
+				long updated = (current == null ? 0 : current) + added;
+				// Customers whose points were all taken back leave the leaderboard
+				if (updated > 0) {
+					points.put(customerId, updated);
+					ranks.insert(customerId, updated);
+				} else {
+					points.remove(customerId);
+				}
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+
+		List<LeaderboardEntry> top(int limit) {
+			lock.readLock().lock();
+			try {
+				List<LeaderboardEntry> entries = new ArrayList<>(Math.min(limit, ranks.size()));
+				ranks.top(limit, (customerId, customerPoints) -> entries
+						.add(new LeaderboardEntry(entries.size() + 1, customerId, customerPoints)));
+				return entries;
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+		LeaderboardEntry rank(Long customerId) {
+			lock.readLock().lock();
+			try {
+				Long current = points.get(customerId);
+				if (current == null) {
+					return new LeaderboardEntry(null, customerId, 0);
+				}
+				return new LeaderboardEntry(ranks.rank(customerId, current), customerId, current);
+			} finally {
+				lock.readLock().unlock();
+			}
+		}
+
+	}
+
+}
@@ -1,25 +1,62 @@
 package com.retailer.rewards.service;
 
 import java.time.LocalDate;
-import java.time.Month;
+import java.time.YearMonth;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.retailer.rewards.Money;
 import com.retailer.rewards.RewardCalculator;
 import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.exceptionHandler.TransactionNotFoundException;
 import com.retailer.rewards.model.Customer;
-import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.model.PointsBalanceResponse;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.RewardSummaryBatchRequest;
+import com.retailer.rewards.model.RewardSummaryCacheStats;
 import com.retailer.rewards.model.RewardSummaryResponse;
 import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionPage;
+import com.retailer.rewards.model.TransactionRequest;
 import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
 import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 
 /**
  * Service class to handle business logic for rewards calculation. This includes
@@ -34,6 +71,41 @@ public class RewardService {
 	@Autowired
 	private TransactionRepository transactionRepository;
 
+	@Autowired
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@Autowired
+	private RewardSummaryCache rewardSummaryCache;
+
+	@Autowired
+	private RewardRuleSet rewardRules;
+
+	@Autowired
+	private PointsBalanceService pointsBalanceService;
+
+	@Autowired
+	private RewardLeaderboard rewardLeaderboard;
+
+	@Autowired
+	private CustomerIdIndex customerIdIndex;
+
+	@Autowired
+	private CustomerCache customerCache;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	/**
+	 * Fences the writers of the ledger off its rebuild. A transaction adding
+	 * points to the ledger holds the read lock, and a rebuild the write lock, from
+	 * their first ledger write until they complete. A transaction is therefore
+	 * either completed before the rebuild reads the transactions, and its points
+	 * rebuilt, or adds its points to the rebuilt ledger once the rebuild has
+	 * committed, instead of inserting an entry that the rebuild inserts as well.
+	 * The fence only covers the writers of this instance.
+	 */
+	private final ReadWriteLock ledgerRebuildLock = new ReentrantReadWriteLock();
+
 	/**
 	 * Creates a new customer with the given name.
 	 *
@@ -41,43 +113,230 @@ public class RewardService {
 	 * @return the newly created customer.
 	 */
 	public Customer createCustomer(String name) {
-		if (name == null || name.trim().isEmpty() || "null".equals(name.trim())) {
-			throw new IllegalArgumentException("Customer name is required.");
-		}
+		RewardValidator.validateCustomerName(name);
 		Customer customer = new Customer();
 		customer.setName(name);
-		return customerRepository.save(customer);
+		Customer savedCustomer = customerRepository.save(customer);
+		customerIdIndex.add(savedCustomer.getId());
+		customerCache.put(savedCustomer.getId(), savedCustomer.getName());
+		pointsBalanceService.openBalance(savedCustomer.getId());
+		return savedCustomer;
 	}
 
 	/**
-	 * Retrieves a customer by their unique ID.
+	 * Retrieves a customer by their unique ID, with their transactions. The name
+	 * is read through the customer cache and unknown IDs are rejected by the
+	 * customer ID index, so only the transactions are queried.
 	 *
 	 * @param customerId the ID of the customer to retrieve.
 	 * @return the customer with the given ID.
+	 * @throws CustomerNotFoundException if no customer is found with the given ID.
 	 */
 	public Customer getCustomer(Long customerId) {
-		return findCustomerById(customerId);
+		String name = findCustomerName(customerId);
+		return new Customer(customerId, name, transactionRepository.findByCustomerId(customerId));
+	}
+
+	/**
+	 * Retrieves the name of a customer by their unique ID, from the customer
+	 * cache if it is cached.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @return the name of the customer with the given ID.
+	 * @throws CustomerNotFoundException if no customer is found with the given ID.
+	 */
+	public String getCustomerName(Long customerId) {
+		return findCustomerName(customerId);
 	}
 
 	/**
-	 * Creates a new transaction for a customer.
+	 * Creates a new transaction for a customer. The customer is attached by
+	 * reference without being read, the foreign key of the transaction rejecting
+	 * unknown customers, so the transaction is written with a single statement.
 	 *
 	 * @param customerId the ID of the customer making the transaction.
 	 * @param amount     the transaction amount.
 	 * @param date       the transaction date (defaults to the current date if
 	 *                   null).
 	 * @return the newly created transaction.
+	 * @throws CustomerNotFoundException if no customer is found with the given ID.
 	 */
+	@Transactional
+	@Timed("rewards.transaction.create")
 	public Transaction createTransaction(Long customerId, double amount, LocalDate date) {
-		if (amount <= 0) {
-			throw new IllegalArgumentException("Amount must be greater than 0.");
-		}
-		Customer customer = findCustomerById(customerId);
+		long amountCents = RewardValidator.validateAmount(amount);
+		RewardValidator.validateCustomerId(customerId);
+		rejectUnknownCustomer(customerId);
 		Transaction transaction = new Transaction();
-		transaction.setCustomer(customer);
-		transaction.setAmount(amount);
+		transaction.setCustomer(customerRepository.getReferenceById(customerId));
+		transaction.setAmountCents(amountCents);
 		transaction.setDate(Optional.ofNullable(date).orElse(LocalDate.now()));
-		return transactionRepository.save(transaction);
+		Transaction savedTransaction;
+		try {
+			// Flushed now so that an unknown customer fails here, before the ledger is
+			// updated
+			savedTransaction = transactionRepository.saveAndFlush(transaction);
+		} catch (DataIntegrityViolationException e) {
+			if (!isCustomerForeignKeyViolation(e)) {
+				throw e;
+			}
+			throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
+		}
+		int points = rewardRules.calculateRewardPointsFromCents(savedTransaction.getAmountCents(),
+				savedTransaction.getDate());
+		addToLedger(customerId, YearMonth.from(savedTransaction.getDate()), points);
+		pointsBalanceService.recordEarned(List.of(savedTransaction), new int[] { points });
+		rewardSummaryCache.invalidate(Map.of(customerId, List.of(savedTransaction.getDate())));
+		return savedTransaction;
+	}
+
+	/**
+	 * Ingests a batch of transactions. The customers of the batch are looked up
+	 * with a single query, and the accepted transactions are inserted together so
+	 * that they are written in JDBC batches. Rows that fail validation are
+	 * rejected without affecting the rest of the batch.
+	 *
+	 * @param requests the transactions to ingest.
+	 * @param firstRow the row number of the first transaction of the batch.
+	 * @return the result of every row, in the order of the requests.
+	 */
+	@Transactional
+	public List<TransactionIngestionResult> ingestTransactions(List<TransactionRequest> requests, long firstRow) {
+		Set<Long> customerIds = requests.stream().map(TransactionRequest::getCustomerId).filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		Map<Long, Customer> customers = customerRepository.findAllById(customerIds).stream()
+				.collect(Collectors.toMap(Customer::getId, Function.identity()));
+		return ingest(requests, LongStream.range(firstRow, firstRow + requests.size()).toArray(), customers);
+	}
+
+	/**
+	 * Ingests a batch of transactions whose customers were already checked to
+	 * exist, e.g. by an earlier stage of an import pipeline. The customers are
+	 * attached by reference without being read, so no query precedes the inserts;
+	 * the foreign key of the transactions still rejects a customer that does not
+	 * exist, failing the batch. The other rules of
+	 * {@link #ingestTransactions(List, long)} apply to every row.
+	 *
+	 * @param requests the transactions to ingest.
+	 * @param rows     the row number of every transaction, in the order of the
+	 *                 requests.
+	 * @return the result of every row, in the order of the requests.
+	 */
+	@Transactional
+	public List<TransactionIngestionResult> ingestValidatedTransactions(List<TransactionRequest> requests,
+			long[] rows) {
+		Map<Long, Customer> customers = requests.stream().map(TransactionRequest::getCustomerId)
+				.filter(Objects::nonNull).distinct()
+				.collect(Collectors.toMap(Function.identity(), customerRepository::getReferenceById));
+		return ingest(requests, rows, customers);
+	}
+
+	/**
+	 * Validates the rows of a batch, inserts the accepted transactions and adds
+	 * their points to the ledger and the points balances.
+	 *
+	 * @param requests  the transactions to ingest.
+	 * @param rows      the row number of every transaction.
+	 * @param customers the customers of the batch that exist, by ID.
+	 * @return the result of every row, in the order of the requests.
+	 */
+	private List<TransactionIngestionResult> ingest(List<TransactionRequest> requests, long[] rows,
+			Map<Long, Customer> customers) {
+		List<TransactionIngestionResult> results = new ArrayList<>(requests.size());
+		List<Transaction> transactions = new ArrayList<>(requests.size());
+		List<TransactionIngestionResult> acceptedResults = new ArrayList<>(requests.size());
+		for (int i = 0; i < requests.size(); i++) {
+			TransactionRequest request = requests.get(i);
+			long row = rows[i];
+			String rejection = RewardValidator.validateTransactionRequest(request, customers.keySet());
+			if (rejection != null) {
+				results.add(TransactionIngestionResult.rejected(row, rejection));
+			} else {
+				Transaction transaction = new Transaction();
+				transaction.setCustomer(customers.get(request.getCustomerId()));
+				transaction.setAmountCents(Money.toCents(request.getAmount()));
+				transaction.setDate(Optional.ofNullable(request.getDate()).orElse(LocalDate.now()));
+				transactions.add(transaction);
+				TransactionIngestionResult result = TransactionIngestionResult.accepted(row, null);
+				acceptedResults.add(result);
+				results.add(result);
+			}
+		}
+
+		List<Transaction> savedTransactions = transactionRepository.saveAll(transactions);
+
+		// Add the points to the ledger once per customer and month of the batch, in
+		// ascending customer ID order, so that concurrent batches lock their
+		// customers in the same order
+		Map<Long, Map<YearMonth, int[]>> pointsPerCustomer = new TreeMap<>();
+		Map<Long, Set<LocalDate>> datesPerCustomer = new HashMap<>();
+		int[] pointsPerTransaction = new int[savedTransactions.size()];
+		for (int i = 0; i < savedTransactions.size(); i++) {
+			Transaction transaction = savedTransactions.get(i);
+			acceptedResults.get(i).setTransactionId(transaction.getId());
+			int points = rewardRules.calculateRewardPointsFromCents(transaction.getAmountCents(),
+					transaction.getDate());
+			pointsPerTransaction[i] = points;
+			pointsPerCustomer.computeIfAbsent(transaction.getCustomer().getId(), id -> new HashMap<>())
+					.computeIfAbsent(YearMonth.from(transaction.getDate()), month -> new int[1])[0] += points;
+			datesPerCustomer.computeIfAbsent(transaction.getCustomer().getId(), id -> new HashSet<>())
+					.add(transaction.getDate());
+		}
+		pointsPerCustomer.forEach((customerId, pointsPerMonth) -> pointsPerMonth
+				.forEach((month, points) -> addToLedger(customerId, month, points[0])));
+		pointsBalanceService.recordEarned(savedTransactions, pointsPerTransaction);
+		rewardSummaryCache.invalidate(datesPerCustomer);
+		return results;
+	}
+
+	/**
+	 * Reverses a transaction, e.g. on a refund. The transaction is removed, so it
+	 * no longer counts in the reward summaries, and a REVERSED points event takes
+	 * back the points it earned, which are taken off the ledger as well. The
+	 * points are the ones recorded when the transaction was created, so that
+	 * reversing it after the reward rules changed takes off what it added.
+	 *
+	 * @param transactionId the ID of the transaction to reverse.
+	 * @return the REVERSED points event of the transaction.
+	 * @throws TransactionNotFoundException if no transaction is found with the
+	 *                                      given ID.
+	 */
+	@Transactional
+	public PointsEvent reverseTransaction(Long transactionId) {
+		if (transactionId == null) {
+			throw new IllegalArgumentException("Transaction ID cannot be null.");
+		}
+		Transaction transaction = transactionRepository.findById(transactionId).orElseThrow(
+				() -> new TransactionNotFoundException("Transaction not found with ID: " + transactionId));
+		Long customerId = transaction.getCustomer().getId();
+		int points = rewardRules.calculateRewardPointsFromCents(transaction.getAmountCents(), transaction.getDate());
+		transactionRepository.delete(transaction);
+		PointsEvent reversal = pointsBalanceService.recordReversal(transaction, points);
+		// The points taken back are the ones recorded when the transaction was created
+		addToLedger(customerId, YearMonth.from(transaction.getDate()), reversal.getPoints());
+		rewardSummaryCache.invalidate(Map.of(customerId, List.of(transaction.getDate())));
+		return reversal;
+	}
+
+	/**
+	 * Retrieves the points balance of a customer, and the points of a year or a
+	 * month of a year if given.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param year       the year of the period, or null for the lifetime balance
+	 *                   only.
+	 * @param month      the month (1-12) of the period within the year, or null
+	 *                   for the whole year.
+	 * @return the points balance of the customer.
+	 * @throws IllegalArgumentException if a month is given without a year or is
+	 *                                  not between 1 and 12.
+	 */
+	public PointsBalanceResponse getPointsBalance(Long customerId, Integer year, Integer month) {
+		if (month != null && (year == null || month < 1 || month > 12)) {
+			throw new IllegalArgumentException("Month must be between 1 and 12 and given with a year.");
+		}
+		findCustomerName(customerId);
+		return pointsBalanceService.getBalance(customerId, year, month);
 	}
 
 	/**
@@ -94,60 +353,552 @@ public class RewardService {
 	 * @throws IllegalArgumentException if the endDate is before the startDate
 	 */
 	public RewardSummaryResponse getRewardsSummary(Long customerId, LocalDate startDate, LocalDate endDate) {
+		return getRewardsSummary(customerId, startDate, endDate, true);
+	}
+
+	/**
+	 * Retrieves a summary of reward points for a given customer within a specified
+	 * date range, optionally without the transactions made during the period.
+	 * Without the transactions, the summary is computed from the ledger and the
+	 * database aggregates only, and no transaction is loaded. Summaries are served
+	 * from the {@link RewardSummaryCache} when cached. This is the single entry
+	 * point timed as {@code rewards.summary}.
+	 *
+	 * @param customerId          the unique ID of the customer
+	 * @param startDate           the start date of the period to consider for
+	 *                            transactions
+	 * @param endDate             the end date of the period to consider for
+	 *                            transactions
+	 * @param includeTransactions whether to include the transactions in the
+	 *                            summary
+	 * @return a RewardSummaryResponse containing the customer's details,
+	 *         transactions if requested, reward points per month, and the total
+	 *         reward points earned in the specified period
+	 * @throws IllegalArgumentException if the endDate is before the startDate
+	 */
+	@Timed("rewards.summary")
+	public RewardSummaryResponse getRewardsSummary(Long customerId, LocalDate startDate, LocalDate endDate,
+			boolean includeTransactions) {
 
 		// Validate that the endDate is after startDate
-		if (endDate.isBefore(startDate)) {
-			throw new IllegalArgumentException("End date cannot be before start date.");
-		}
+		RewardValidator.validateDateRange(startDate, endDate);
+
+		return rewardSummaryCache.get(customerId, startDate, endDate, includeTransactions,
+				() -> loadRewardsSummary(customerId, startDate, endDate, includeTransactions));
+	}
+
+	/**
+	 * Returns the version of the reward summaries of a customer within a
+	 * specified date range, without reading the database. The version changes
+	 * whenever a transaction of the customer is written or reversed, so a client
+	 * holding a summary of this version does not need to read it again.
+	 *
+	 * @param customerId the unique ID of the customer
+	 * @param startDate  the start date of the period to consider for transactions
+	 * @param endDate    the end date of the period to consider for transactions
+	 * @return the version of the summaries of the customer for the date range
+	 * @throws IllegalArgumentException  if the endDate is before the startDate
+	 * @throws CustomerNotFoundException if the customer ID index knows there is
+	 *                                   no customer with the given ID.
+	 */
+	public String getRewardsSummaryVersion(Long customerId, LocalDate startDate, LocalDate endDate) {
+		RewardValidator.validateDateRange(startDate, endDate);
+		RewardValidator.validateCustomerId(customerId);
+		rejectUnknownCustomer(customerId);
+		return rewardSummaryCache.version(customerId, endDate);
+	}
 
+	/**
+	 * Returns the cache statistics of the reward summaries.
+	 *
+	 * @return the hit, miss and eviction counts and the number of cached
+	 *         summaries.
+	 */
+	public RewardSummaryCacheStats getRewardsSummaryCacheStats() {
+		return rewardSummaryCache.stats();
+	}
+
+	/**
+	 * Loads the summary of reward points of a customer from the ledger and the
+	 * database.
+	 *
+	 * @param customerId          the unique ID of the customer
+	 * @param startDate           the start date of the period
+	 * @param endDate             the end date of the period
+	 * @param includeTransactions whether to include the transactions in the
+	 *                            summary
+	 * @return the summary of reward points of the customer.
+	 */
+	private RewardSummaryResponse loadRewardsSummary(Long customerId, LocalDate startDate, LocalDate endDate,
+			boolean includeTransactions) {
 		// Check if customer exists
-		Customer customer = findCustomerById(customerId);
+		String customerName = findCustomerName(customerId);
+
+		List<TransactionDetails> transactions = includeTransactions
+				? transactionRepository.findDetailsByCustomerIdAndDateBetween(customerId, startDate, endDate)
+				: null;
 
-		List<Transaction> transactions = transactionRepository.findTransactionsByCustomerIdAndDateBetween(customerId,
+		// Months fully covered by the range are read from the ledger
+		int[] ledgerPointsPerMonth = toPointsPerMonth(
+				ledgerRepository.findByCustomerIdAndYearBetween(customerId, startDate.getYear(), endDate.getYear()),
 				startDate, endDate);
 
-		// Group transactions by month and calculate reward points per month
-		Map<Month, Integer> rewardPointsPerMonth = transactions.stream().filter(
-				transaction -> !transaction.getDate().isBefore(startDate) && !transaction.getDate().isAfter(endDate))
-				.collect(Collectors.groupingBy(transaction -> transaction.getDate().getMonth(), TreeMap::new, Collectors
-						.summingInt(transaction -> RewardCalculator.calculateRewardPoints(transaction.getAmount()))));
+		// Partially covered months at the edges of the range are aggregated by the
+		// database
+		int[] partialPointsPerMonth = sumPartialMonthPoints(customerId, startDate, endDate);
 
-		List<MonthRewardSummary> monthRewardSummaryList = new ArrayList<MonthRewardSummary>();
+		return buildRewardsSummary(customerId, customerName, transactions, ledgerPointsPerMonth,
+				partialPointsPerMonth, startDate, endDate);
+	}
 
-		// Iterate over months in the range and add corresponding reward points
-		LocalDate currentMonth = startDate.withDayOfMonth(1);
-		while (!currentMonth.isAfter(endDate)) {
-			Month month = currentMonth.getMonth();
-			int year = currentMonth.getYear();
-			int points = rewardPointsPerMonth.getOrDefault(month, 0);
+	/**
+	 * Retrieves a page of the transactions of a customer within a specified date
+	 * range, ordered by date and id. The next page is fetched by passing the
+	 * cursor of the returned page as afterDate and afterId.
+	 *
+	 * @param customerId the unique ID of the customer
+	 * @param startDate  the start date of the period to consider for transactions
+	 * @param endDate    the end date of the period to consider for transactions
+	 * @param afterDate  the date of the last transaction of the previous page, or
+	 *                   null for the first page
+	 * @param afterId    the id of the last transaction of the previous page, or
+	 *                   null for the first page
+	 * @param limit      the maximum number of transactions of the page (1-1000)
+	 * @return the page of transactions and the cursor of the next page
+	 * @throws IllegalArgumentException if the parameters are not valid
+	 */
+	public TransactionPage getTransactions(Long customerId, LocalDate startDate, LocalDate endDate,
+			LocalDate afterDate, Long afterId, int limit) {
+		RewardValidator.validateDateRange(startDate, endDate);
+		if ((afterDate == null) != (afterId == null)) {
+			throw new IllegalArgumentException("afterDate and afterId must be given together.");
+		}
+		if (limit < 1 || limit > 1000) {
+			throw new IllegalArgumentException("Limit must be between 1 and 1000.");
+		}
+		findCustomerName(customerId);
 
-			// Add the month reward summary to the list
-			monthRewardSummaryList.add(new MonthRewardSummary(year, month, points));
+		// One extra transaction is fetched to know whether there is a next page
+		List<TransactionDetails> transactions = afterDate == null
+				? transactionRepository.findFirstPage(customerId, startDate, endDate, Limit.of(limit + 1))
+				: transactionRepository.findPageAfter(customerId, startDate, endDate, afterDate, afterId,
+						Limit.of(limit + 1));
+		if (transactions.size() <= limit) {
+			return new TransactionPage(transactions, null, null);
+		}
+		List<TransactionDetails> page = transactions.subList(0, limit);
+		TransactionDetails last = page.get(limit - 1);
+		return new TransactionPage(page, last.getDate(), last.getId());
+	}
+
+	/**
+	 * Retrieves the reward summaries of several customers within a specified date
+	 * range, either for a list of customer IDs or for a range of customer IDs. The
+	 * customers, their ledger entries and their transactions are each fetched
+	 * with a single query, and the transactions are streamed in customer order,
+	 * so only the transactions of one customer are held at a time.
+	 *
+	 * @param request  the customers and the date range of the summaries.
+	 * @param consumer the consumer receiving the summary of every customer, in
+	 *                 the order of their IDs.
+	 * @throws IllegalArgumentException if the request is not valid.
+	 */
+	@Transactional(readOnly = true)
+	public void streamRewardsSummaries(RewardSummaryBatchRequest request, Consumer<RewardSummaryResponse> consumer) {
+		validateRewardsSummaryBatch(request);
+		LocalDate startDate = request.getStartDate();
+		LocalDate endDate = request.getEndDate();
+
+		List<Customer> customers;
+		List<MonthlyRewardLedger> ledger;
+		Stream<TransactionDetails> transactions;
+		if (request.getCustomerIds() != null) {
+			List<Long> customerIds = request.getCustomerIds();
+			customers = customerRepository.findAllById(customerIds).stream()
+					.sorted(Comparator.comparing(Customer::getId)).toList();
+			ledger = ledgerRepository.findByCustomerIdInAndYearBetween(customerIds, startDate.getYear(),
+					endDate.getYear());
+			transactions = transactionRepository.streamDetailsByCustomerIdInAndDateBetween(customerIds, startDate,
+					endDate);
+		} else {
+			Long fromId = request.getFromCustomerId();
+			Long toId = request.getToCustomerId();
+			customers = customerRepository.findByIdBetweenOrderById(fromId, toId);
+			ledger = ledgerRepository.findByCustomerIdBetweenAndYearBetween(fromId, toId, startDate.getYear(),
+					endDate.getYear());
+			transactions = transactionRepository.streamDetailsByCustomerIdBetweenAndDateBetween(fromId, toId,
+					startDate, endDate);
+		}
+
+		Map<Long, List<MonthlyRewardLedger>> ledgerPerCustomer = ledger.stream()
+				.collect(Collectors.groupingBy(MonthlyRewardLedger::getCustomerId));
+
+		try (transactions) {
+			Iterator<TransactionDetails> iterator = transactions.iterator();
+			TransactionDetails next = iterator.hasNext() ? iterator.next() : null;
+			for (Customer customer : customers) {
+				// Both the customers and the transactions are ordered by customer ID
+				List<TransactionDetails> customerTransactions = new ArrayList<>();
+				while (next != null && next.getCustomerId().equals(customer.getId())) {
+					customerTransactions.add(next);
+					next = iterator.hasNext() ? iterator.next() : null;
+				}
+				int[] ledgerPointsPerMonth = toPointsPerMonth(
+						ledgerPerCustomer.getOrDefault(customer.getId(), List.of()), startDate, endDate);
+				int[] partialPointsPerMonth = rewardRules.calculateRewardPointsPerMonth(customerTransactions,
+						YearMonth.from(startDate), RewardSummaryAccumulator.countMonths(startDate, endDate));
+				consumer.accept(buildRewardsSummary(customer.getId(), customer.getName(), customerTransactions,
+						ledgerPointsPerMonth, partialPointsPerMonth, startDate, endDate));
+			}
+		}
+	}
+
+	/**
+	 * Validates a request for the reward summaries of several customers.
+	 *
+	 * @param request the request to validate.
+	 * @throws IllegalArgumentException if the request is not valid.
+	 */
+	public void validateRewardsSummaryBatch(RewardSummaryBatchRequest request) {
+		if (request.getStartDate() == null || request.getEndDate() == null) {
+			throw new IllegalArgumentException("Start date and end date are required.");
+		}
+		RewardValidator.validateDateRange(request.getStartDate(), request.getEndDate());
+		boolean hasIds = request.getCustomerIds() != null;
+		boolean hasRange = request.getFromCustomerId() != null || request.getToCustomerId() != null;
+		if (hasIds == hasRange) {
+			throw new IllegalArgumentException("Either customer IDs or a customer ID range is required.");
+		}
+		if (hasIds && (request.getCustomerIds().isEmpty() || request.getCustomerIds().contains(null))) {
+			throw new IllegalArgumentException("Customer IDs cannot be empty or null.");
+		}
+		if (hasRange && (request.getFromCustomerId() == null || request.getToCustomerId() == null
+				|| request.getToCustomerId() < request.getFromCustomerId())) {
+			throw new IllegalArgumentException("Customer ID range requires a from ID not greater than the to ID.");
+		}
+	}
+
+	/**
+	 * Rebuilds the monthly reward ledger of every customer from their existing
+	 * transactions. This is used to backfill the ledger for transactions created
+	 * before it existed, to repair it if it ever drifts from the transactions, and
+	 * to apply changed reward rules to past transactions. With the default rules
+	 * the points are aggregated by the database in a single query, otherwise the
+	 * transactions are streamed in customer order and aggregated per customer.
+	 * The entries are inserted in JDBC batches, and the transactions adding points
+	 * to the ledger wait for the rebuild to complete.
+	 *
+	 * The points balances are not rebuilt: their events keep the points recorded
+	 * when the transactions were created. After the reward rules changed, the
+	 * ledger, and the period points of the balances read from it, follow the new
+	 * rules, while the lifetime balances keep the points actually awarded.
+	 *
+	 * @return the number of ledger entries written.
+	 */
+	@Transactional
+	public int rebuildRewardLedger() {
+		holdUntilCompletion(ledgerRebuildLock.writeLock());
+		ledgerRepository.deleteAllInBatch();
+		rewardSummaryCache.invalidateAll();
+		rewardLeaderboard.reload();
+		if (!rewardRules.isDefault()) {
+			return rebuildRewardLedgerFromTransactions();
+		}
+		int entries = 0;
+		try (Stream<MonthlyRewardPoints> pointsPerMonth = transactionRepository.sumRewardPointsPerCustomerAndMonth()) {
+			Iterator<MonthlyRewardPoints> iterator = pointsPerMonth.iterator();
+			while (iterator.hasNext()) {
+				MonthlyRewardPoints points = iterator.next();
+				ledgerRepository.save(new MonthlyRewardLedger(points.getCustomerId(), points.getYear(),
+						points.getMonth(), Math.toIntExact(points.getPoints())));
+				entries++;
+			}
+		}
+		return entries;
+	}
 
-			// Move to the next month
+	/**
+	 * Rebuilds the monthly reward ledger with the configured reward rules, holding
+	 * the points of one customer at a time. The transactions are streamed as a
+	 * projection, so none of them enters the persistence context.
+	 *
+	 * @return the number of ledger entries written.
+	 */
+	private int rebuildRewardLedgerFromTransactions() {
+		int entries = 0;
+		try (Stream<TransactionAmount> transactions = transactionRepository.streamAmountsOrderByCustomerId()) {
+			Long customerId = null;
+			Map<YearMonth, int[]> pointsPerMonth = new HashMap<>();
+			Iterator<TransactionAmount> iterator = transactions.iterator();
+			while (iterator.hasNext()) {
+				TransactionAmount transaction = iterator.next();
+				if (!transaction.getCustomerId().equals(customerId)) {
+					entries += saveLedgerEntries(customerId, pointsPerMonth);
+					customerId = transaction.getCustomerId();
+				}
+				int points = rewardRules.calculateRewardPointsFromCents(transaction.getAmountCents(),
+						transaction.getDate());
+				pointsPerMonth.computeIfAbsent(YearMonth.from(transaction.getDate()), month -> new int[1])[0] += points;
+			}
+			entries += saveLedgerEntries(customerId, pointsPerMonth);
+		}
+		return entries;
+	}
+
+	/**
+	 * Saves the ledger entries of a customer and clears them.
+	 *
+	 * @param customerId     the ID of the customer.
+	 * @param pointsPerMonth the reward points of the customer per month.
+	 * @return the number of ledger entries written.
+	 */
+	private int saveLedgerEntries(Long customerId, Map<YearMonth, int[]> pointsPerMonth) {
+		int entries = pointsPerMonth.size();
+		pointsPerMonth.forEach((month, points) -> ledgerRepository
+				.save(new MonthlyRewardLedger(customerId, month.getYear(), month.getMonthValue(), points[0])));
+		pointsPerMonth.clear();
+		return entries;
+	}
+
+	/**
+	 * Adds reward points to the ledger entry of a customer for the given month,
+	 * creating the entry if it does not exist yet, and to the leaderboards of the
+	 * month.
+	 *
+	 * An entry is only created under the lock of its customer, so that concurrent
+	 * first writes of a month do not both insert it: the one waiting for the lock
+	 * then updates the entry the other one created. Neither a MERGE, which fails
+	 * on a concurrent insert of the same key in H2, nor retrying the update after
+	 * a unique key violation, which rolls back the whole JPA transaction, would
+	 * do.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param month      the month in which the points were earned.
+	 * @param points     the reward points to add.
+	 */
+	private void addToLedger(Long customerId, YearMonth month, int points) {
+		holdUntilCompletion(ledgerRebuildLock.readLock());
+		if (ledgerRepository.addPoints(customerId, month.getYear(), month.getMonthValue(), points) == 0) {
+			customerRepository.findForUpdate(customerId);
+			if (ledgerRepository.addPoints(customerId, month.getYear(), month.getMonthValue(), points) == 0) {
+				ledgerRepository
+						.save(new MonthlyRewardLedger(customerId, month.getYear(), month.getMonthValue(), points));
+			}
+		}
+		rewardLeaderboard.addPoints(customerId, month, points);
+	}
+
+	/**
+	 * Acquires a lock until the current transaction completes, unless the
+	 * transaction already holds it. Outside a transaction every ledger write
+	 * commits on its own and the lock is not taken.
+	 *
+	 * @param lock the lock to hold.
+	 */
+	private static void holdUntilCompletion(Lock lock) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()
+				|| TransactionSynchronizationManager.hasResource(lock)) {
+			return;
+		}
+		lock.lock();
+		TransactionSynchronizationManager.bindResource(lock, Boolean.TRUE);
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				TransactionSynchronizationManager.unbindResource(lock);
+				lock.unlock();
+			}
+		});
+	}
+
+	/**
+	 * Builds the reward summary of a customer from the transactions and ledger
+	 * entries of the date range, and records the number of transactions loaded
+	 * for it if it includes them.
+	 *
+	 * @param customer              the customer of the summary.
+	 * @param transactions          the transactions of the customer within the
+	 *                              range.
+	 * @param ledgerPointsPerMonth  the ledger points of the customer per month of
+	 *                              the range, used for the months fully covered by
+	 *                              the range.
+	 * @param partialPointsPerMonth the points of the customer within the range per
+	 *                              month of the range, used for the partially
+	 *                              covered months.
+	 * @param startDate             the start date of the range.
+	 * @param endDate               the end date of the range.
+	 * @return the reward summary of the customer.
+	 */
+	private RewardSummaryResponse buildRewardsSummary(Long customerId, String customerName,
+			List<TransactionDetails> transactions, int[] ledgerPointsPerMonth, int[] partialPointsPerMonth,
+			LocalDate startDate, LocalDate endDate) {
+		if (transactions != null) {
+			meterRegistry.summary("rewards.summary.transactions.loaded").record(transactions.size());
+		}
+
+		// Take the points of every month in the range from the ledger or the partial
+		// points
+		YearMonth firstMonth = YearMonth.from(startDate);
+		int[] pointsPerMonth = new int[ledgerPointsPerMonth.length];
+		YearMonth currentMonth = firstMonth;
+		for (int i = 0; i < pointsPerMonth.length; i++) {
+			pointsPerMonth[i] = isFullyCovered(currentMonth, startDate, endDate) ? ledgerPointsPerMonth[i]
+					: partialPointsPerMonth[i];
 			currentMonth = currentMonth.plusMonths(1);
 		}
 
-		// Calculate total reward points across all transactions
-		int totalPoints = monthRewardSummaryList.stream().mapToInt(MonthRewardSummary::getPoints).sum();
+		return RewardSummaryAccumulator.buildRewardsSummary(customerId, customerName, transactions,
+				firstMonth, pointsPerMonth);
+	}
 
-		return new RewardSummaryResponse(customer.getId(), customer.getName(), transactions, monthRewardSummaryList,
-				totalPoints);
+	/**
+	 * Sums the reward points of the months at the edges of a date range that are
+	 * only partially covered by it, with at most one query per edge.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param startDate  the start date of the range.
+	 * @param endDate    the end date of the range.
+	 * @return the reward points within the range per month of the range, only set
+	 *         for the partially covered months.
+	 */
+	private int[] sumPartialMonthPoints(Long customerId, LocalDate startDate, LocalDate endDate) {
+		YearMonth firstMonth = YearMonth.from(startDate);
+		YearMonth lastMonth = YearMonth.from(endDate);
+		int[] pointsPerMonth = new int[RewardSummaryAccumulator.countMonths(startDate, endDate)];
+		if (!isFullyCovered(firstMonth, startDate, endDate)) {
+			LocalDate firstMonthEnd = firstMonth.equals(lastMonth) ? endDate : firstMonth.atEndOfMonth();
+			addPoints(pointsPerMonth, firstMonth, customerId, startDate, firstMonthEnd);
+		}
+		if (!lastMonth.equals(firstMonth) && !isFullyCovered(lastMonth, startDate, endDate)) {
+			addPoints(pointsPerMonth, firstMonth, customerId, lastMonth.atDay(1), endDate);
+		}
+		return pointsPerMonth;
 	}
 
 	/**
-	 * Finds a customer by their unique ID.
+	 * Adds the reward points of a customer within a date range to an array of
+	 * points per month. With the default rules the points are aggregated by the
+	 * database, otherwise they are calculated from the transactions, as the
+	 * database only knows the default rules.
+	 *
+	 * @param pointsPerMonth the points per month, indexed from the first month.
+	 * @param firstMonth     the first month of the array.
+	 * @param customerId     the ID of the customer.
+	 * @param startDate      the start date of the range.
+	 * @param endDate        the end date of the range.
+	 */
+	private void addPoints(int[] pointsPerMonth, YearMonth firstMonth, Long customerId, LocalDate startDate,
+			LocalDate endDate) {
+		if (rewardRules.isDefault()) {
+			addPoints(pointsPerMonth, firstMonth,
+					transactionRepository.sumRewardPointsPerMonth(customerId, startDate, endDate));
+			return;
+		}
+		int[] points = rewardRules.calculateRewardPointsPerMonth(
+				transactionRepository.findDetailsByCustomerIdAndDateBetween(customerId, startDate, endDate),
+				firstMonth, pointsPerMonth.length);
+		for (int i = 0; i < points.length; i++) {
+			pointsPerMonth[i] += points[i];
+		}
+	}
+
+	/**
+	 * Adds aggregated reward points to an array of points per month.
+	 *
+	 * @param pointsPerMonth the points per month, indexed from the first month.
+	 * @param firstMonth     the first month of the array.
+	 * @param points         the aggregated reward points to add.
+	 */
+	private void addPoints(int[] pointsPerMonth, YearMonth firstMonth, List<MonthlyRewardPoints> points) {
+		int firstEpochMonth = RewardCalculator.epochMonth(firstMonth.getYear(), firstMonth.getMonthValue());
+		for (MonthlyRewardPoints entry : points) {
+			int index = RewardCalculator.epochMonth(entry.getYear(), entry.getMonth()) - firstEpochMonth;
+			if (index >= 0 && index < pointsPerMonth.length) {
+				pointsPerMonth[index] += Math.toIntExact(entry.getPoints());
+			}
+		}
+	}
+
+	/**
+	 * Converts ledger entries to reward points per month of a date range.
+	 *
+	 * @param ledger    the ledger entries of a customer.
+	 * @param startDate the start date of the range.
+	 * @param endDate   the end date of the range.
+	 * @return the reward points per month of the range, indexed from the month of
+	 *         the start date. Entries outside of the range are ignored.
+	 */
+	private int[] toPointsPerMonth(List<MonthlyRewardLedger> ledger, LocalDate startDate, LocalDate endDate) {
+		int[] pointsPerMonth = new int[RewardSummaryAccumulator.countMonths(startDate, endDate)];
+		int firstEpochMonth = RewardCalculator.epochMonth(startDate.getYear(), startDate.getMonthValue());
+		for (MonthlyRewardLedger entry : ledger) {
+			int index = RewardCalculator.epochMonth(entry.getYear(), entry.getMonth()) - firstEpochMonth;
+			if (index >= 0 && index < pointsPerMonth.length) {
+				pointsPerMonth[index] = entry.getPoints();
+			}
+		}
+		return pointsPerMonth;
+	}
+
+	/**
+	 * Checks whether a month lies completely within the given date range.
+	 *
+	 * @param month     the month to check.
+	 * @param startDate the start date of the range.
+	 * @param endDate   the end date of the range.
+	 * @return true if every day of the month is within the range.
+	 */
+	private boolean isFullyCovered(YearMonth month, LocalDate startDate, LocalDate endDate) {
+		return !month.atDay(1).isBefore(startDate) && !month.atEndOfMonth().isAfter(endDate);
+	}
+
+	/**
+	 * Finds the name of a customer by their unique ID, from the customer cache if
+	 * it is cached. IDs the customer ID index knows not to exist are rejected
+	 * without querying the database.
 	 *
 	 * @param customerId the ID of the customer to find.
-	 * @return the customer with the given ID.
+	 * @return the name of the customer with the given ID.
 	 * @throws CustomerNotFoundException if no customer is found with the given ID.
 	 */
-	private Customer findCustomerById(Long customerId) {
-		if (customerId == null) {
-			throw new IllegalArgumentException("Customer ID cannot be null.");
+	private String findCustomerName(Long customerId) {
+		RewardValidator.validateCustomerId(customerId);
+
+		rejectUnknownCustomer(customerId);
+		String name = customerCache.getName(customerId,
+				id -> customerRepository.findById(id).map(Customer::getName).orElse(null));
+		if (name == null) {
+			throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
+		}
+		customerIdIndex.add(customerId);
+		return name;
+	}
+
+	/**
+	 * Rejects a customer ID the customer ID index knows not to exist.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @throws CustomerNotFoundException if there is no customer with the given ID.
+	 */
+	private void rejectUnknownCustomer(Long customerId) {
+		if (!customerIdIndex.mightExist(customerId)) {
+			meterRegistry.counter("rewards.customer.lookups.rejected").increment();
+			throw new CustomerNotFoundException("Customer not found with ID: " + customerId);
 		}
+	}
 
-		return customerRepository.findById(customerId)
-				.orElseThrow(() -> new CustomerNotFoundException("Customer not found with ID: " + customerId));
+	/**
+	 * Checks whether a data integrity violation is the violation of the foreign
+	 * key from a transaction to its customer. The constraint is matched by the
+	 * name reported by the database, as Hibernate extracts a truncated constraint
+	 * name from the H2 message.
+	 *
+	 * @param e the data integrity violation.
+	 * @return true if the customer of the transaction does not exist.
+	 */
+	private static boolean isCustomerForeignKeyViolation(DataIntegrityViolationException e) {
+		return e.getCause() instanceof ConstraintViolationException violation
+				&& violation.getSQLException().getMessage().toLowerCase(Locale.ROOT)
+						.contains(Transaction.CUSTOMER_FOREIGN_KEY);
 	}
 }
@@ -0,0 +1,122 @@
+package com.retailer.rewards.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+/**
+ * Accumulates the reward points of a customer per month of a date range, one
+ * transaction at a time, so that a summary can be reduced from a stream of
+ * transactions without holding them. The transactions are only kept when they
+ * are part of the summary.
+ *
+ * An accumulator is not thread safe, it is meant to be the mutable container
+ * of a single reduction.
+ */
+public class RewardSummaryAccumulator {
+
+	private final RewardRuleSet rewardRules;
+
+	private final YearMonth firstMonth;
+
+	private final int firstEpochMonth;
+
+	private final int[] pointsPerMonth;
+
+	private final List<TransactionDetails> transactions;
+
+	/**
+	 * Creates an accumulator for a date range.
+	 *
+	 * @param rewardRules         the rules to calculate the reward points with.
+	 * @param startDate           the start date of the range.
+	 * @param endDate             the end date of the range.
+	 * @param includeTransactions whether to keep the transactions for the
+	 *                            summary.
+	 */
+	public RewardSummaryAccumulator(RewardRuleSet rewardRules, LocalDate startDate, LocalDate endDate,
+			boolean includeTransactions) {
+		this.rewardRules = rewardRules;
+		this.firstMonth = YearMonth.from(startDate);
+		this.firstEpochMonth = RewardCalculator.epochMonth(startDate.getYear(), startDate.getMonthValue());
+		this.pointsPerMonth = new int[countMonths(startDate, endDate)];
+		this.transactions = includeTransactions ? new ArrayList<>() : null;
+	}
+
+	/**
+	 * Adds the reward points of a transaction to its month. Transactions outside
+	 * of the months of the range are ignored.
+	 *
+	 * @param transaction the transaction to add.
+	 */
+	public void add(TransactionDetails transaction) {
+		LocalDate date = transaction.getDate();
+		int index = RewardCalculator.epochMonth(date.getYear(), date.getMonthValue()) - firstEpochMonth;
+		if (index < 0 || index >= pointsPerMonth.length) {
+			return;
+		}
+		pointsPerMonth[index] += rewardRules.calculateRewardPointsFromCents(transaction.getAmountCents(), date);
+		if (transactions != null) {
+			transactions.add(transaction);
+		}
+	}
+
+	/**
+	 * Builds the reward summary of the accumulated transactions.
+	 *
+	 * @param customerId   the ID of the customer.
+	 * @param customerName the name of the customer.
+	 * @return the reward summary of the customer.
+	 */
+	public RewardSummaryResponse toSummary(Long customerId, String customerName) {
+		return buildRewardsSummary(customerId, customerName, transactions, firstMonth, pointsPerMonth);
+	}
+
+	/**
+	 * Builds a reward summary from the reward points per month of a date range.
+	 *
+	 * @param customerId     the ID of the customer.
+	 * @param customerName   the name of the customer.
+	 * @param transactions   the transactions of the summary, or null to leave
+	 *                       them out.
+	 * @param firstMonth     the month of the start date of the range.
+	 * @param pointsPerMonth the reward points per month of the range, indexed
+	 *                       from the first month.
+	 * @return the reward summary of the customer.
+	 */
+	static RewardSummaryResponse buildRewardsSummary(Long customerId, String customerName,
+			List<TransactionDetails> transactions, YearMonth firstMonth, int[] pointsPerMonth) {
+		List<MonthRewardSummary> monthRewardSummaryList = new ArrayList<>(pointsPerMonth.length);
+		int totalPoints = 0;
+		YearMonth currentMonth = firstMonth;
+		for (int points : pointsPerMonth) {
+			monthRewardSummaryList
+					.add(new MonthRewardSummary(currentMonth.getYear(), currentMonth.getMonth(), points));
+			totalPoints += points;
+			currentMonth = currentMonth.plusMonths(1);
+		}
+		return new RewardSummaryResponse(customerId, customerName, transactions, monthRewardSummaryList,
+				totalPoints);
+	}
+
+	/**
+	 * Counts the months touched by a date range.
+	 *
+	 * @param startDate the start date of the range.
+	 * @param endDate   the end date of the range.
+	 * @return the number of months from the month of the start date to the month
+	 *         of the end date, both included.
+	 */
+	static int countMonths(LocalDate startDate, LocalDate endDate) {
+		return RewardCalculator.epochMonth(endDate.getYear(), endDate.getMonthValue())
+				- RewardCalculator.epochMonth(startDate.getYear(), startDate.getMonthValue()) + 1;
+	}
+
+}
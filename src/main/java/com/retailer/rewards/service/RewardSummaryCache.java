@@ -0,0 +1,290 @@
+package com.retailer.rewards.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.retailer.rewards.model.RewardSummaryCacheStats;
+import com.retailer.rewards.model.RewardSummaryResponse;
+
+/**
+ * Read-through cache of reward summaries, keyed by customer and date range.
+ *
+ * The cache is bounded by size. Summaries of ranges ending before the current
+ * month can only change through a transaction written for that range, which
+ * invalidates them, so they are kept until evicted by size. Summaries of ranges
+ * reaching into the current month expire after the configured time to live, as
+ * they may also change through writes this instance does not see.
+ *
+ * Summaries are loaded outside of the cache rather than inside its atomic
+ * compute, which holds a monitor of the backing map and would pin the carrier
+ * thread of a virtual thread for as long as the database is queried. A
+ * generation per stripe of customers, bumped before every invalidation, keeps
+ * a summary loaded concurrently with an invalidation from staying cached.
+ *
+ * The cached keys are indexed by customer, so that invalidating the summaries
+ * of a customer only looks at the summaries of that customer rather than at
+ * the whole cache. A key is indexed once its summary is cached and removed from
+ * the index when it is invalidated or evicted. A key may briefly stay indexed
+ * after its summary was evicted, which at worst invalidates nothing.
+ *
+ * The cache also keeps the versions the ETags of the summaries are derived
+ * from, a write counter per stripe of 65536 customers bumped once the
+ * summaries of a customer were invalidated, whether or not the cache is
+ * enabled. The versions of an instance never match the ones of a previous run
+ * or of another instance, and the versions of ranges reaching into the current
+ * month change at least every time to live, like the cached summaries.
+ */
+@Component
+public class RewardSummaryCache {
+
+	private static final int GENERATION_STRIPES = 1024;
+
+	private static final int VERSION_STRIPES = 1 << 16;
+
+	private final Cache<SummaryKey, RewardSummaryResponse> cache;
+
+	private final Map<Long, Set<SummaryKey>> keysPerCustomer = new ConcurrentHashMap<>();
+
+	private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+	private final AtomicLongArray versions = new AtomicLongArray(VERSION_STRIPES);
+
+	private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+	private final long ttlNanos;
+
+	private final boolean enabled;
+
+	/**
+	 * Creates the cache.
+	 *
+	 * @param maximumSize the maximum number of summaries to keep, 0 disables the
+	 *                    cache.
+	 * @param ttl         the time to live of the summaries of ranges reaching
+	 *                    into the current month.
+	 */
+	public RewardSummaryCache(@Value("${rewards.cache.summary.maximum-size}") long maximumSize,
+			@Value("${rewards.cache.summary.ttl}") Duration ttl) {
+		this.enabled = maximumSize > 0;
+		this.ttlNanos = Math.max(ttl.toNanos(), 1);
+		this.cache = Caffeine.newBuilder().maximumSize(maximumSize).expireAfter(new SummaryExpiry(ttl))
+				.evictionListener((SummaryKey key, RewardSummaryResponse summary, RemovalCause cause) -> unindex(key))
+				.recordStats().build();
+	}
+
+	/**
+	 * Returns the cached summary of a customer for a date range, loading and
+	 * caching it if it is not cached. Concurrent misses of the same summary may
+	 * each load it. Exceptions thrown by the loader are propagated and nothing is
+	 * cached.
+	 *
+	 * @param customerId          the ID of the customer.
+	 * @param startDate           the start date of the range.
+	 * @param endDate             the end date of the range.
+	 * @param includeTransactions whether the summary includes the transactions.
+	 * @param loader              loads the summary if it is not cached.
+	 * @return the summary of the customer for the date range.
+	 */
+	public RewardSummaryResponse get(Long customerId, LocalDate startDate, LocalDate endDate,
+			boolean includeTransactions, Supplier<RewardSummaryResponse> loader) {
+		if (!enabled) {
+			return loader.get();
+		}
+		SummaryKey key = new SummaryKey(customerId, startDate, endDate, includeTransactions);
+		RewardSummaryResponse summary = cache.getIfPresent(key);
+		if (summary == null) {
+			long generation = generations.get(stripe(customerId));
+			summary = loader.get();
+			cache.put(key, summary);
+			index(key);
+			// An invalidation may have missed the summary while it was loading
+			if (generations.get(stripe(customerId)) != generation) {
+				cache.invalidate(key);
+			}
+		}
+		return summary;
+	}
+
+	/**
+	 * Returns the version of the summaries of a customer for a date range, which
+	 * changes whenever one of them may have changed. Versions may also change
+	 * while the summaries did not, never the other way around.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @param endDate    the end date of the range.
+	 * @return the version of the summaries.
+	 */
+	public String version(Long customerId, LocalDate endDate) {
+		String version = epoch + "-" + versions.get(versionStripe(customerId));
+		if (!endDate.isBefore(LocalDate.now().withDayOfMonth(1))) {
+			// Writes of other instances are only seen once the time to live elapsed
+			version += "-" + System.nanoTime() / ttlNanos;
+		}
+		return version;
+	}
+
+	/**
+	 * Invalidates the cached summaries whose date range contains one of the dates
+	 * of a customer, and bumps the versions of the customers. Within a
+	 * transaction, the summaries are invalidated once it has committed, so that
+	 * they are not reloaded from the uncommitted state.
+	 *
+	 * @param datesPerCustomer the dates of the written transactions per customer
+	 *                         ID.
+	 */
+	public void invalidate(Map<Long, ? extends Collection<LocalDate>> datesPerCustomer) {
+		if (datesPerCustomer.isEmpty()) {
+			return;
+		}
+		runAfterCommit(() -> {
+			if (enabled) {
+				datesPerCustomer.keySet().forEach(customerId -> generations.incrementAndGet(stripe(customerId)));
+				datesPerCustomer.forEach((customerId, dates) -> cache.invalidateAll(unindex(customerId, dates)));
+			}
+			// Bumped last, so that a summary read with the new version is not stale
+			datesPerCustomer.keySet().forEach(customerId -> versions.incrementAndGet(versionStripe(customerId)));
+		});
+	}
+
+	/**
+	 * Invalidates all cached summaries and bumps the versions of all customers,
+	 * once the current transaction has committed if there is one.
+	 */
+	public void invalidateAll() {
+		runAfterCommit(() -> {
+			for (int i = 0; i < GENERATION_STRIPES; i++) {
+				generations.incrementAndGet(i);
+			}
+			cache.invalidateAll();
+			keysPerCustomer.clear();
+			for (int i = 0; i < VERSION_STRIPES; i++) {
+				versions.incrementAndGet(i);
+			}
+		});
+	}
+
+	/**
+	 * Returns the counters of the cache.
+	 *
+	 * @return the hit, miss and eviction counts and the number of entries.
+	 */
+	public RewardSummaryCacheStats stats() {
+		CacheStats stats = cache.stats();
+		return new RewardSummaryCacheStats(stats.hitCount(), stats.missCount(), stats.evictionCount(),
+				cache.estimatedSize());
+	}
+
+	private void index(SummaryKey key) {
+		keysPerCustomer.compute(key.customerId(), (customerId, keys) -> {
+			Set<SummaryKey> indexedKeys = keys == null ? new HashSet<>() : keys;
+			indexedKeys.add(key);
+			return indexedKeys;
+		});
+	}
+
+	private void unindex(SummaryKey key) {
+		keysPerCustomer.computeIfPresent(key.customerId(), (customerId, keys) -> {
+			keys.remove(key);
+			return keys.isEmpty() ? null : keys;
+		});
+	}
+
+	/**
+	 * Removes the keys of the summaries of a customer whose date range contains
+	 * one of the dates from the index. The summaries are invalidated by the
+	 * caller, outside of the atomic compute of the index.
+	 *
+	 * @return the removed keys.
+	 */
+	private List<SummaryKey> unindex(Long customerId, Collection<LocalDate> dates) {
+		List<SummaryKey> removedKeys = new ArrayList<>();
+		keysPerCustomer.computeIfPresent(customerId, (id, keys) -> {
+			keys.removeIf(key -> {
+				if (dates.stream().noneMatch(key::contains)) {
+					return false;
+				}
+				removedKeys.add(key);
+				return true;
+			});
+			return keys.isEmpty() ? null : keys;
+		});
+		return removedKeys;
+	}
+
+	private static int stripe(Long customerId) {
+		return Long.hashCode(customerId) & (GENERATION_STRIPES - 1);
+	}
+
+	private static int versionStripe(Long customerId) {
+		return Long.hashCode(customerId) & (VERSION_STRIPES - 1);
+	}
+
+	private void runAfterCommit(Runnable action) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			action.run();
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				action.run();
+			}
+		});
+	}
+
+	private record SummaryKey(Long customerId, LocalDate startDate, LocalDate endDate, boolean includeTransactions) {
+
+		boolean contains(LocalDate date) {
+			return !date.isBefore(startDate) && !date.isAfter(endDate);
+		}
+	}
+
+	/**
+	 * Keeps summaries of closed ranges until evicted by size and expires the
+	 * others after the time to live, counted from when they were loaded.
+	 */
+	private static class SummaryExpiry implements Expiry<SummaryKey, RewardSummaryResponse> {
+
+		private final long ttlNanos;
+
+		SummaryExpiry(Duration ttl) {
+			this.ttlNanos = ttl.toNanos();
+		}
+
+		@Override
+		public long expireAfterCreate(SummaryKey key, RewardSummaryResponse value, long currentTime) {
+			return key.endDate().isBefore(LocalDate.now().withDayOfMonth(1)) ? Long.MAX_VALUE : ttlNanos;
+		}
+
+		@Override
+		public long expireAfterUpdate(SummaryKey key, RewardSummaryResponse value, long currentTime,
+				long currentDuration) {
+			return expireAfterCreate(key, value, currentTime);
+		}
+
+		@Override
+		public long expireAfterRead(SummaryKey key, RewardSummaryResponse value, long currentTime,
+				long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -0,0 +1,118 @@
+package com.retailer.rewards.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.model.TransactionRequest;
+
+/**
+ * Validation of the rewards requests, shared by the servlet and the reactive
+ * rewards services so that both reject the same requests with the same
+ * messages.
+ */
+public final class RewardValidator {
+
+	/**
+	 * The highest amount of a transaction, $10,000,000, in cents. Its reward
+	 * points fit an int with room to spare for custom reward rules.
+	 */
+	public static final long MAX_AMOUNT_CENTS = 1_000_000_000L;
+
+	private RewardValidator() {
+	}
+
+	/**
+	 * Validates the name of a new customer.
+	 *
+	 * @param name the name of the customer.
+	 * @throws IllegalArgumentException if the name is missing.
+	 */
+	public static void validateCustomerName(String name) {
+		if (name == null || name.trim().isEmpty() || "null".equals(name.trim())) {
+			throw new IllegalArgumentException("Customer name is required.");
+		}
+	}
+
+	/**
+	 * Validates the ID of a customer to look up.
+	 *
+	 * @param customerId the ID of the customer.
+	 * @throws IllegalArgumentException if the ID is null.
+	 */
+	public static void validateCustomerId(Long customerId) {
+		if (customerId == null) {
+			throw new IllegalArgumentException("Customer ID cannot be null.");
+		}
+	}
+
+	/**
+	 * Validates the amount of a new transaction.
+	 *
+	 * @param amount the amount in dollars.
+	 * @return the amount in cents.
+	 * @throws IllegalArgumentException if the amount is not positive in whole
+	 *                                  cents, is not finite or is above the
+	 *                                  maximum amount.
+	 */
+	public static long validateAmount(double amount) {
+		String rejection = rejectAmount(amount);
+		if (rejection != null) {
+			throw new IllegalArgumentException(rejection);
+		}
+		return Money.toCents(amount);
+	}
+
+	/**
+	 * Validates a date range.
+	 *
+	 * @param startDate the start date of the range.
+	 * @param endDate   the end date of the range.
+	 * @throws IllegalArgumentException if the end date is before the start date.
+	 */
+	public static void validateDateRange(LocalDate startDate, LocalDate endDate) {
+		if (endDate.isBefore(startDate)) {
+			throw new IllegalArgumentException("End date cannot be before start date.");
+		}
+	}
+
+	/**
+	 * Validates a row of a bulk transaction ingestion. Invalid rows are rejected
+	 * without failing the ingestion, so the reason is returned rather than
+	 * thrown.
+	 *
+	 * @param request          the transaction of the row.
+	 * @param knownCustomerIds the IDs of the existing customers among the
+	 *                         customers of the ingestion.
+	 * @return the reason the row is rejected for, or null if it is valid.
+	 */
+	public static String validateTransactionRequest(TransactionRequest request, Set<Long> knownCustomerIds) {
+		if (request.getCustomerId() == null) {
+			return "Customer ID cannot be null.";
+		}
+		String amountRejection = rejectAmount(request.getAmount());
+		if (amountRejection != null) {
+			return amountRejection;
+		}
+		if (!knownCustomerIds.contains(request.getCustomerId())) {
+			return "Customer not found with ID: " + request.getCustomerId();
+		}
+		return null;
+	}
+
+	private static String rejectAmount(double amount) {
+		if (!Double.isFinite(amount)) {
+			return "Amount must be a finite number.";
+		}
+		long amountCents = Money.toCents(amount);
+		if (amountCents <= 0) {
+			return "Amount must be greater than 0.";
+		}
+		if (amountCents > MAX_AMOUNT_CENTS) {
+			return "Amount cannot be greater than " + BigDecimal.valueOf(MAX_AMOUNT_CENTS, 2).toPlainString() + ".";
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,297 @@
+package com.retailer.rewards.service;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.model.MonthlyPointsTotal;
+import com.retailer.rewards.model.TopEarner;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+import com.retailer.rewards.service.TransactionColumnStore.CustomerPoints;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Service class to answer analytics queries over the transactions of all
+ * customers from a {@link TransactionColumnStore}, without loading any
+ * transaction entity.
+ *
+ * The store is refreshed before a query if it is older than
+ * {@code rewards.analytics.refresh-interval}, by appending the transactions
+ * with an ID above the highest one loaded so far. Transactions reversed since
+ * they were loaded, and transactions committed after a transaction with a
+ * higher ID was loaded, are only accounted for by the next full rebuild, done
+ * every {@code rewards.analytics.rebuild-interval}. A rebuild loads a new store
+ * while the queries keep reading the current one.
+ *
+ * One refresh runs at a time, under a lock that queries only wait for while
+ * the first store is loaded. Afterwards a query finding a refresh in progress
+ * reads the current store rather than waiting for it, so that no query is
+ * blocked for as long as the transactions are read, nor holds a monitor that
+ * would pin the carrier thread of a virtual thread.
+ */
+@Service
+@Slf4j
+public class TransactionAnalyticsService {
+
+	private static final int MAX_TOP_EARNERS = 1000;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private RewardRuleSet rewardRules;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Value("${rewards.analytics.segment-rows}")
+	private int segmentRows;
+
+	@Value("${rewards.analytics.refresh-interval}")
+	private Duration refreshInterval;
+
+	@Value("${rewards.analytics.rebuild-interval}")
+	private Duration rebuildInterval;
+
+	private final ReentrantLock refreshLock = new ReentrantLock();
+
+	private volatile TransactionColumnStore store;
+
+	private volatile long refreshedNanos;
+
+	private long rebuiltNanos;
+
+	private long loadedToId;
+
+	/**
+	 * Sums the reward points earned and the transactions made per month across a
+	 * cohort of customers, the customers within a range of IDs.
+	 *
+	 * @param startMonth     the first month.
+	 * @param endMonth       the last month.
+	 * @param fromCustomerId the first customer ID of the cohort, or null for no
+	 *                       lower bound.
+	 * @param toCustomerId   the last customer ID of the cohort, or null for no
+	 *                       upper bound.
+	 * @return the totals of every month of the range, in order.
+	 * @throws IllegalArgumentException if the end month is before the start month
+	 *                                  or the cohort is empty.
+	 */
+	public List<MonthlyPointsTotal> getPointsPerMonth(YearMonth startMonth, YearMonth endMonth, Long fromCustomerId,
+			Long toCustomerId) {
+		RewardValidator.validateDateRange(startMonth.atDay(1), endMonth.atDay(1));
+		long fromId = fromCustomerId == null ? Long.MIN_VALUE : fromCustomerId;
+		long toId = toCustomerId == null ? Long.MAX_VALUE : toCustomerId;
+		if (fromId > toId) {
+			throw new IllegalArgumentException("To customer ID cannot be below from customer ID.");
+		}
+
+		int firstMonth = RewardCalculator.epochMonth(startMonth.getYear(), startMonth.getMonthValue());
+		int months = RewardCalculator.epochMonth(endMonth.getYear(), endMonth.getMonthValue()) - firstMonth + 1;
+		long[] points = new long[months];
+		long[] amountCents = new long[months];
+		long[] transactions = new long[months];
+		refreshedStore().sumPointsPerMonth(firstMonth, months, fromId, toId, points, amountCents, transactions);
+
+		List<MonthlyPointsTotal> totals = new ArrayList<>(months);
+		YearMonth month = startMonth;
+		for (int i = 0; i < months; i++) {
+			totals.add(new MonthlyPointsTotal(month.getYear(), month.getMonth(), points[i],
+					Money.toAmount(amountCents[i]), transactions[i]));
+			month = month.plusMonths(1);
+		}
+		return totals;
+	}
+
+	/**
+	 * Ranks the customers who earned the most reward points within a date range.
+	 * The points are summed per customer in an array allocated per call, of 8
+	 * bytes per customer ID of the store, or per customer with points in the
+	 * range when the IDs span too wide a range.
+	 *
+	 * @param startDate the start date of the range.
+	 * @param endDate   the end date of the range.
+	 * @param limit     the number of customers to rank.
+	 * @return the top earners, by points descending then customer ID ascending.
+	 * @throws IllegalArgumentException if the end date is before the start date
+	 *                                  or the limit is not between 1 and 1000.
+	 */
+	public List<TopEarner> getTopEarners(LocalDate startDate, LocalDate endDate, int limit) {
+		RewardValidator.validateDateRange(startDate, endDate);
+		if (limit < 1 || limit > MAX_TOP_EARNERS) {
+			throw new IllegalArgumentException("Limit must be between 1 and " + MAX_TOP_EARNERS + ".");
+		}
+		TransactionColumnStore current = refreshedStore();
+		CustomerPoints customerPoints = current.sumPointsPerCustomer(Math.toIntExact(startDate.toEpochDay()),
+				Math.toIntExact(endDate.toEpochDay()));
+		long[] points = customerPoints.points();
+		int[] top = selectTop(points, limit);
+		List<TopEarner> earners = new ArrayList<>(top.length);
+		for (int i = 0; i < top.length; i++) {
+			earners.add(new TopEarner(i + 1, customerPoints.customerId(top[i]), points[top[i]]));
+		}
+		return earners;
+	}
+
+	/**
+	 * Returns the store, refreshing it first if it is older than the refresh
+	 * interval.
+	 */
+	private TransactionColumnStore refreshedStore() {
+		if (store == null || System.nanoTime() - refreshedNanos >= refreshInterval.toNanos()) {
+			refresh();
+		}
+		return store;
+	}
+
+	/**
+	 * Appends the transactions written since the last refresh to the store, or
+	 * rebuilds it when the rebuild interval has elapsed. Returns at once if
+	 * another refresh is in progress and a store was already loaded.
+	 */
+	void refresh() {
+		if (store == null) {
+			refreshLock.lock();
+		} else if (!refreshLock.tryLock()) {
+			return;
+		}
+		try {
+			load();
+		} finally {
+			refreshLock.unlock();
+		}
+	}
+
+	/**
+	 * Loads the transactions into the store, holding the refresh lock.
+	 */
+	private void load() {
+		long now = System.nanoTime();
+		if (store != null && now - refreshedNanos < refreshInterval.toNanos()) {
+			// Refreshed by a concurrent query
+			return;
+		}
+		boolean rebuild = store == null || now - rebuiltNanos >= rebuildInterval.toNanos();
+		TransactionColumnStore target = rebuild ? new TransactionColumnStore(segmentRows) : store;
+		long fromId = rebuild ? 0 : loadedToId;
+
+		long startTime = System.nanoTime();
+		TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		long toId = readOnly.execute(status -> {
+			Long maxId = transactionRepository.findMaxId();
+			if (maxId == null || maxId <= fromId) {
+				return fromId;
+			}
+			try (Stream<TransactionAmount> amounts = transactionRepository.streamAmountsByIdBetween(fromId, maxId)) {
+				Iterator<TransactionAmount> iterator = amounts.iterator();
+				while (iterator.hasNext()) {
+					TransactionAmount amount = iterator.next();
+					LocalDate date = amount.getDate();
+					target.append(amount.getCustomerId(), Math.toIntExact(date.toEpochDay()),
+							RewardCalculator.epochMonth(date.getYear(), date.getMonthValue()),
+							amount.getAmountCents(),
+							rewardRules.calculateRewardPointsFromCents(amount.getAmountCents(), date));
+				}
+			}
+			return maxId;
+		});
+
+		if (rebuild) {
+			log.info("Loaded {} transactions into the analytics store in {} ms", target.size(),
+					(System.nanoTime() - startTime) / 1_000_000);
+			rebuiltNanos = now;
+		}
+		loadedToId = toId;
+		store = target;
+		refreshedNanos = now;
+	}
+
+	/**
+	 * Selects the indexes of the highest values with a bounded min-heap, in
+	 * descending order of value then ascending order of index. Zero values are
+	 * never selected.
+	 */
+	static int[] selectTop(long[] values, int limit) {
+		int[] heap = new int[Math.min(limit, values.length)];
+		int size = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] <= 0) {
+				continue;
+			}
+			if (size < heap.length) {
+				heap[size] = i;
+				siftUp(heap, size++, values);
+			} else if (ranksBefore(i, heap[0], values)) {
+				heap[0] = i;
+				siftDown(heap, size, values);
+			}
+		}
+		// Popping the lowest ranked first fills the array from its end
+		int[] top = new int[size];
+		for (int n = size; n > 0; n--) {
+			top[n - 1] = heap[0];
+			heap[0] = heap[n - 1];
+			siftDown(heap, n - 1, values);
+		}
+		return top;
+	}
+
+	private static boolean ranksBefore(int a, int b, long[] values) {
+		return values[a] > values[b] || (values[a] == values[b] && a < b);
+	}
+
+	private static void siftUp(int[] heap, int index, long[] values) {
+		while (index > 0) {
+			int parent = (index - 1) >>> 1;
+			if (!ranksBefore(heap[parent], heap[index], values)) {
+				return;
+			}
+			swap(heap, parent, index);
+			index = parent;
+		}
+	}
+
+	private static void siftDown(int[] heap, int size, long[] values) {
+		int index = 0;
+		while (true) {
+			int lowest = index;
+			int left = 2 * index + 1;
+			int right = left + 1;
+			if (left < size && ranksBefore(heap[lowest], heap[left], values)) {
+				lowest = left;
+			}
+			if (right < size && ranksBefore(heap[lowest], heap[right], values)) {
+				lowest = right;
+			}
+			if (lowest == index) {
+				return;
+			}
+			swap(heap, index, lowest);
+			index = lowest;
+		}
+	}
+
+	private static void swap(int[] heap, int a, int b) {
+		int value = heap[a];
+		heap[a] = heap[b];
+		heap[b] = value;
+	}
+
+}
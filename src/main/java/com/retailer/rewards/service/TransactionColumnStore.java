@@ -0,0 +1,309 @@
+package com.retailer.rewards.service;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Append-only columnar store of transactions, held off-heap in direct buffers
+ * so that millions of rows cost neither heap objects nor garbage collection
+ * work.
+ *
+ * The rows are stored in segments of a fixed number of rows, one buffer per
+ * column: the customer ID, the epoch day, the epoch month (see
+ * {@link com.retailer.rewards.RewardCalculator#epochMonth}), the amount in
+ * cents and the reward points of the transaction. The aggregations scan the
+ * columns in tight loops over primitive values, without allocating anything
+ * per row.
+ *
+ * Rows are appended by a single writer, while any number of readers aggregate
+ * the rows appended before they started.
+ */
+public class TransactionColumnStore {
+
+	/**
+	 * The widest range of customer IDs whose points are summed into an array
+	 * spanning the range, 32 MB of points.
+	 */
+	static final long MAX_DENSE_CUSTOMER_IDS = 1 << 22;
+
+	private final int segmentRows;
+
+	private final List<Segment> segments = new CopyOnWriteArrayList<>();
+
+	private long minCustomerId = Long.MAX_VALUE;
+
+	private long maxCustomerId = Long.MIN_VALUE;
+
+	// Written last by every append, publishing the row and the customer ID range
+	private volatile long size;
+
+	/**
+	 * Creates an empty store.
+	 *
+	 * @param segmentRows the number of rows of a segment.
+	 */
+	public TransactionColumnStore(int segmentRows) {
+		this.segmentRows = segmentRows;
+	}
+
+	/**
+	 * Appends a transaction. Only one thread may append at a time.
+	 *
+	 * @param customerId  the ID of the customer of the transaction.
+	 * @param epochDay    the date of the transaction as an epoch day.
+	 * @param month       the epoch month of the transaction.
+	 * @param amountCents the amount in cents.
+	 * @param points      the reward points of the transaction.
+	 */
+	public void append(long customerId, int epochDay, int month, long amountCents, int points) {
+		long row = size;
+		int index = (int) (row % segmentRows);
+		if (index == 0) {
+			segments.add(new Segment(segmentRows));
+		}
+		Segment segment = segments.get((int) (row / segmentRows));
+		segment.customerIds.put(index, customerId);
+		segment.epochDays.put(index, epochDay);
+		segment.months.put(index, month);
+		segment.amountCents.put(index, amountCents);
+		segment.points.put(index, points);
+		minCustomerId = Math.min(minCustomerId, customerId);
+		maxCustomerId = Math.max(maxCustomerId, customerId);
+		size = row + 1;
+	}
+
+	/**
+	 * Returns the number of rows of the store.
+	 *
+	 * @return the number of appended rows.
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * Sums the reward points and amounts and counts the transactions per month of
+	 * a range of months, for the customers within a range of IDs.
+	 *
+	 * @param firstMonth     the first epoch month of the range.
+	 * @param months         the number of months of the range.
+	 * @param fromCustomerId the first customer ID of the range.
+	 * @param toCustomerId   the last customer ID of the range.
+	 * @param points         the points per month of the range, added to.
+	 * @param amountCents    the amounts in cents per month of the range, added
+	 *                       to.
+	 * @param transactions   the transactions per month of the range, added to.
+	 */
+	public void sumPointsPerMonth(int firstMonth, int months, long fromCustomerId, long toCustomerId, long[] points,
+			long[] amountCents, long[] transactions) {
+		long rows = size;
+		for (int s = 0; s < segmentCount(rows); s++) {
+			Segment segment = segments.get(s);
+			int segmentSize = segmentSize(s, rows);
+			for (int i = 0; i < segmentSize; i++) {
+				int month = segment.months.get(i) - firstMonth;
+				long customerId = segment.customerIds.get(i);
+				if (month >= 0 && month < months && customerId >= fromCustomerId && customerId <= toCustomerId) {
+					points[month] += segment.points.get(i);
+					amountCents[month] += segment.amountCents.get(i);
+					transactions[month]++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Sums the reward points per customer of a range of days.
+	 *
+	 * When the customer IDs of the store span at most
+	 * {@link #MAX_DENSE_CUSTOMER_IDS} IDs, the points are summed into an array
+	 * spanning them, so every call allocates 8 bytes per ID between the lowest and
+	 * the highest one, e.g. 8 MB for a million customers. Wider ranges are summed
+	 * into a hash table of the customers with rows in the range of days instead.
+	 *
+	 * @param fromEpochDay the first day of the range.
+	 * @param toEpochDay   the last day of the range.
+	 * @return the points of every customer, in ascending order of customer ID.
+	 */
+	public CustomerPoints sumPointsPerCustomer(int fromEpochDay, int toEpochDay) {
+		long rows = size;
+		if (rows == 0) {
+			return new CustomerPoints(0, new long[0], null);
+		}
+		// Rows appended concurrently may widen the range, which is read once
+		long minId = minCustomerId;
+		long maxId = maxCustomerId;
+		if (maxId - minId >= MAX_DENSE_CUSTOMER_IDS || maxId - minId < 0) {
+			return sumPointsPerCustomerSparse(rows, fromEpochDay, toEpochDay);
+		}
+		long[] points = new long[(int) (maxId - minId + 1)];
+		for (int s = 0; s < segmentCount(rows); s++) {
+			Segment segment = segments.get(s);
+			int segmentSize = segmentSize(s, rows);
+			for (int i = 0; i < segmentSize; i++) {
+				int epochDay = segment.epochDays.get(i);
+				if (epochDay >= fromEpochDay && epochDay <= toEpochDay) {
+					points[(int) (segment.customerIds.get(i) - minId)] += segment.points.get(i);
+				}
+			}
+		}
+		return new CustomerPoints(minId, points, null);
+	}
+
+	private CustomerPoints sumPointsPerCustomerSparse(long rows, int fromEpochDay, int toEpochDay) {
+		PointsTable table = new PointsTable();
+		for (int s = 0; s < segmentCount(rows); s++) {
+			Segment segment = segments.get(s);
+			int segmentSize = segmentSize(s, rows);
+			for (int i = 0; i < segmentSize; i++) {
+				int epochDay = segment.epochDays.get(i);
+				if (epochDay >= fromEpochDay && epochDay <= toEpochDay) {
+					table.add(segment.customerIds.get(i), segment.points.get(i));
+				}
+			}
+		}
+		return table.toCustomerPoints();
+	}
+
+	private int segmentCount(long rows) {
+		return (int) ((rows + segmentRows - 1) / segmentRows);
+	}
+
+	private int segmentSize(int segment, long rows) {
+		return (int) Math.min(segmentRows, rows - (long) segment * segmentRows);
+	}
+
+	/**
+	 * The reward points per customer, in ascending order of customer ID. The
+	 * points at index {@code i} are the ones of customer
+	 * {@code customerIds[i]}, or of customer {@code firstCustomerId + i} when
+	 * there are no customer IDs.
+	 *
+	 * @param firstCustomerId the customer ID of the first points, when there are
+	 *                        no customer IDs.
+	 * @param points          the points per customer.
+	 * @param customerIds     the customer ID of every points, or null if the
+	 *                        points span a range of IDs.
+	 */
+	public record CustomerPoints(long firstCustomerId, long[] points, long[] customerIds) {
+
+		/**
+		 * Returns the customer ID of the points at an index.
+		 *
+		 * @param index the index of the points.
+		 * @return the ID of the customer.
+		 */
+		public long customerId(int index) {
+			return customerIds == null ? firstCustomerId + index : customerIds[index];
+		}
+	}
+
+	/**
+	 * Open addressing hash table of the points per customer ID, growing once
+	 * half full.
+	 */
+	private static class PointsTable {
+
+		private long[] customerIds = new long[1024];
+
+		private long[] points = new long[1024];
+
+		private boolean[] used = new boolean[1024];
+
+		private int size;
+
+		void add(long customerId, long customerPoints) {
+			int slot = slot(customerId);
+			if (!used[slot]) {
+				if (2 * (size + 1) > used.length) {
+					grow();
+					slot = slot(customerId);
+				}
+				used[slot] = true;
+				customerIds[slot] = customerId;
+				size++;
+			}
+			points[slot] += customerPoints;
+		}
+
+		CustomerPoints toCustomerPoints() {
+			long[] sortedIds = new long[size];
+			int n = 0;
+			for (int slot = 0; slot < used.length; slot++) {
+				if (used[slot]) {
+					sortedIds[n++] = customerIds[slot];
+				}
+			}
+			Arrays.sort(sortedIds);
+			long[] sortedPoints = new long[size];
+			for (int i = 0; i < size; i++) {
+				sortedPoints[i] = points[slot(sortedIds[i])];
+			}
+			return new CustomerPoints(0, sortedPoints, sortedIds);
+		}
+
+		/**
+		 * Returns the slot of a customer ID, or the free slot it would take.
+		 */
+		private int slot(long customerId) {
+			int mask = used.length - 1;
+			int slot = Long.hashCode(customerId * 0x9E3779B97F4A7C15L) & mask;
+			while (used[slot] && customerIds[slot] != customerId) {
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void grow() {
+			long[] oldIds = customerIds;
+			long[] oldPoints = points;
+			boolean[] oldUsed = used;
+			customerIds = new long[oldIds.length * 2];
+			points = new long[oldIds.length * 2];
+			used = new boolean[oldIds.length * 2];
+			for (int slot = 0; slot < oldUsed.length; slot++) {
+				if (oldUsed[slot]) {
+					int newSlot = slot(oldIds[slot]);
+					used[newSlot] = true;
+					customerIds[newSlot] = oldIds[slot];
+					points[newSlot] = oldPoints[slot];
+				}
+			}
+		}
+	}
+
+	/**
+	 * The columns of a segment of rows.
+	 */
+	private static class Segment {
+
+		private final LongBuffer customerIds;
+
+		private final IntBuffer epochDays;
+
+		private final IntBuffer months;
+
+		private final LongBuffer amountCents;
+
+		private final IntBuffer points;
+
+		Segment(int rows) {
+			customerIds = allocate(rows * Long.BYTES).asLongBuffer();
+			epochDays = allocate(rows * Integer.BYTES).asIntBuffer();
+			months = allocate(rows * Integer.BYTES).asIntBuffer();
+			amountCents = allocate(rows * Long.BYTES).asLongBuffer();
+			points = allocate(rows * Integer.BYTES).asIntBuffer();
+		}
+
+		private static ByteBuffer allocate(int bytes) {
+			return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+		}
+
+	}
+
+}
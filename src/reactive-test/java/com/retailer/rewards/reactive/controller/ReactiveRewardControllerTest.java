@@ -0,0 +1,92 @@
+package com.retailer.rewards.reactive.controller;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+import com.retailer.rewards.reactive.service.ReactiveRewardService;
+
+import reactor.core.publisher.Mono;
+
+@WebFluxTest(controllers = ReactiveRewardController.class, properties = "rewards.ingestion.batch-size=2")
+@ActiveProfiles(ReactiveRewardsApplication.PROFILE)
+public class ReactiveRewardControllerTest {
+
+	@Autowired
+	private WebTestClient webTestClient;
+
+	@MockitoBean
+	private ReactiveRewardService rewardService;
+
+	@Test
+	void testGetRewardsSummary() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+		when(rewardService.getRewardsSummary(1L, startDate, endDate, false)).thenReturn(Mono.just(
+				new RewardSummaryResponse(1L, "Test Name", null, List.of(new MonthRewardSummary(2024, Month.JANUARY, 90)),
+						90)));
+
+		webTestClient.get()
+				.uri("/api/rewards/reward-summary/1?startDate=2024-01-01&endDate=2024-01-31&includeTransactions=false")
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$.customerName").isEqualTo("Test Name")
+				.jsonPath("$.transactions").doesNotExist().jsonPath("$.totalRewardPoints").isEqualTo(90);
+	}
+
+	@Test
+	void testGetRewardsSummary_customerNotFound() {
+		when(rewardService.getRewardsSummary(9L, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), true))
+				.thenReturn(Mono.error(new CustomerNotFoundException("Customer not found with ID: 9")));
+
+		webTestClient.get().uri("/api/rewards/reward-summary/9?startDate=2024-01-01&endDate=2024-01-31").exchange()
+				.expectStatus().isNotFound().expectBody().jsonPath("$.message")
+				.isEqualTo("Customer not found with ID: 9");
+	}
+
+	@Test
+	void testGetRewardsSummary_missingParameter() {
+		webTestClient.get().uri("/api/rewards/reward-summary/1?endDate=2024-01-31").exchange().expectStatus()
+				.isBadRequest().expectBody().jsonPath("$.message").isEqualTo("Missing required parameter: startDate");
+	}
+
+	@Test
+	void testGetRewardsSummary_invalidDate() {
+		webTestClient.get().uri("/api/rewards/reward-summary/1?startDate=2024-13-01&endDate=2024-01-31").exchange()
+				.expectStatus().isBadRequest().expectBody().jsonPath("$.message")
+				.isEqualTo("Date value should be in yyyy-mm-dd format.");
+	}
+
+	@Test
+	void testIngestTransactions() {
+		when(rewardService.ingestTransactions(anyList(), anyLong())).thenAnswer(invocation -> {
+			List<TransactionRequest> requests = invocation.getArgument(0);
+			long firstRow = invocation.getArgument(1);
+			return Mono.just(requests.stream().map(request -> TransactionIngestionResult.accepted(firstRow, 1L))
+					.toList());
+		});
+
+		webTestClient.post().uri("/api/rewards/transactions/bulk").contentType(MediaType.APPLICATION_JSON)
+				.bodyValue("[{\"customerId\":1,\"amount\":120.0},{\"customerId\":1,\"amount\":60.0},"
+						+ "{\"customerId\":1,\"amount\":30.0}]")
+				.exchange().expectStatus().isOk().expectBody().jsonPath("$.accepted").isEqualTo(3)
+				.jsonPath("$.results[2].row").isEqualTo(2);
+	}
+
+}
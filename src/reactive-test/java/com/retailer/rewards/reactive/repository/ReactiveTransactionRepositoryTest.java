@@ -0,0 +1,51 @@
+package com.retailer.rewards.reactive.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+
+@DataR2dbcTest
+@ActiveProfiles(ReactiveRewardsApplication.PROFILE)
+@Import({ ReactiveCustomerRepository.class, ReactiveTransactionRepository.class })
+public class ReactiveTransactionRepositoryTest {
+
+	@Autowired
+	private ReactiveCustomerRepository customerRepository;
+
+	@Autowired
+	private ReactiveTransactionRepository transactionRepository;
+
+	@Test
+	void testFindByCustomerIdAndDateBetween() {
+		Customer customer = customerRepository.save("Test Name").block();
+		Customer otherCustomer = customerRepository.save("Other Name").block();
+		transactionRepository.save(customer.getId(), 12_000, LocalDate.of(2024, 2, 1)).block();
+		transactionRepository.save(customer.getId(), 7_550, LocalDate.of(2024, 1, 15)).block();
+		transactionRepository.save(customer.getId(), 5_000, LocalDate.of(2024, 4, 1)).block();
+		transactionRepository.save(otherCustomer.getId(), 10_000, LocalDate.of(2024, 1, 20)).block();
+
+		List<TransactionDetails> transactions = transactionRepository
+				.findByCustomerIdAndDateBetween(customer.getId(), LocalDate.of(2024, 1, 1), LocalDate.of(2024, 3, 31))
+				.collectList().block();
+
+		assertEquals(2, transactions.size());
+		assertEquals(LocalDate.of(2024, 1, 15), transactions.get(0).getDate());
+		assertEquals(7_550, transactions.get(0).getAmountCents());
+		assertEquals(customer.getId(), transactions.get(0).getCustomerId());
+		assertEquals(LocalDate.of(2024, 2, 1), transactions.get(1).getDate());
+		assertEquals(List.of(customer.getId()), customerRepository
+				.findAllById(List.of(customer.getId(), -1L)).map(Customer::getId).collectList().block());
+	}
+
+}
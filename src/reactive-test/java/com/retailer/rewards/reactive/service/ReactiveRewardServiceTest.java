@@ -0,0 +1,154 @@
+package com.retailer.rewards.reactive.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.reactive.repository.ReactiveCustomerRepository;
+import com.retailer.rewards.reactive.repository.ReactiveTransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+public class ReactiveRewardServiceTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+	private static final LocalDate END_DATE = LocalDate.of(2024, 3, 31);
+
+	@Mock
+	private ReactiveCustomerRepository customerRepository;
+
+	@Mock
+	private ReactiveTransactionRepository transactionRepository;
+
+	@Spy
+	private RewardRuleSet rewardRules = RewardRuleSet.DEFAULT;
+
+	@InjectMocks
+	private ReactiveRewardService rewardService;
+
+	private Customer customer;
+
+	@BeforeEach
+	void setUp() {
+		customer = new Customer(1L, "Test Name", null);
+	}
+
+	@Test
+	void testGetRewardsSummary() {
+		when(customerRepository.findById(1L)).thenReturn(Mono.just(customer));
+		when(transactionRepository.findByCustomerIdAndDateBetween(1L, START_DATE, END_DATE))
+				.thenReturn(Flux.just(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10)),
+						new TransactionDetails(2L, 1L, 7550, LocalDate.of(2024, 3, 5))));
+
+		StepVerifier.create(rewardService.getRewardsSummary(1L, START_DATE, END_DATE, true)).assertNext(summary -> {
+			assertEquals("Test Name", summary.getCustomerName());
+			assertEquals(2, summary.getTransactions().size());
+			assertEquals(90, summary.getRewardPointsPerMonth().get(0).getPoints());
+			assertEquals(0, summary.getRewardPointsPerMonth().get(1).getPoints());
+			assertEquals(25, summary.getRewardPointsPerMonth().get(2).getPoints());
+			assertEquals(115, summary.getTotalRewardPoints());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testGetRewardsSummary_withoutTransactions() {
+		when(customerRepository.findById(1L)).thenReturn(Mono.just(customer));
+		when(transactionRepository.findByCustomerIdAndDateBetween(1L, START_DATE, END_DATE))
+				.thenReturn(Flux.just(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10))));
+
+		StepVerifier.create(rewardService.getRewardsSummary(1L, START_DATE, END_DATE, false)).assertNext(summary -> {
+			assertNull(summary.getTransactions());
+			assertEquals(90, summary.getTotalRewardPoints());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testGetRewardsSummary_customerNotFound() {
+		when(customerRepository.findById(1L)).thenReturn(Mono.empty());
+
+		StepVerifier.create(rewardService.getRewardsSummary(1L, START_DATE, END_DATE, true))
+				.expectErrorMatches(ex -> ex instanceof CustomerNotFoundException
+						&& "Customer not found with ID: 1".equals(ex.getMessage()))
+				.verify();
+	}
+
+	@Test
+	void testGetRewardsSummary_invalidDateRange() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.getRewardsSummary(1L, END_DATE, START_DATE, true));
+
+		assertEquals("End date cannot be before start date.", exception.getMessage());
+		verify(customerRepository, never()).findById(anyLong());
+	}
+
+	@Test
+	void testCreateTransaction() {
+		LocalDate date = LocalDate.of(2024, 2, 1);
+		Transaction saved = new Transaction(5L, 120.0, date, null);
+		when(customerRepository.findById(1L)).thenReturn(Mono.just(customer));
+		when(transactionRepository.save(1L, 12_000, date)).thenReturn(Mono.just(saved));
+
+		StepVerifier.create(rewardService.createTransaction(1L, 120.0, date)).assertNext(transaction -> {
+			assertEquals(5L, transaction.getId());
+			assertEquals(customer, transaction.getCustomer());
+		}).verifyComplete();
+	}
+
+	@Test
+	void testCreateTransaction_invalidAmount() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.createTransaction(1L, 0.001, null));
+
+		assertEquals("Amount must be greater than 0.", exception.getMessage());
+	}
+
+	@Test
+	void testIngestTransactions() {
+		LocalDate date = LocalDate.of(2024, 2, 1);
+		when(customerRepository.findAllById(Set.of(1L, 2L))).thenReturn(Flux.just(customer));
+		when(transactionRepository.save(eq(1L), eq(12_000L), any(LocalDate.class)))
+				.thenReturn(Mono.just(new Transaction(7L, 120.0, date, null)));
+
+		List<TransactionRequest> requests = List.of(new TransactionRequest(1L, 120.0, date),
+				new TransactionRequest(2L, 120.0, date), new TransactionRequest(null, 120.0, date),
+				new TransactionRequest(1L, -1.0, date));
+
+		StepVerifier.create(rewardService.ingestTransactions(requests, 10)).assertNext(results -> {
+			assertEquals(4, results.size());
+			assertEquals(10, results.get(0).getRow());
+			assertEquals(7L, results.get(0).getTransactionId());
+			assertEquals("Customer not found with ID: 2", results.get(1).getMessage());
+			assertEquals("Customer ID cannot be null.", results.get(2).getMessage());
+			assertEquals("Amount must be greater than 0.", results.get(3).getMessage());
+		}).verifyComplete();
+	}
+
+}
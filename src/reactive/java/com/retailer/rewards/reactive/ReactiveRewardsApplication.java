@@ -0,0 +1,46 @@
+package com.retailer.rewards.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+
+import com.retailer.rewards.rules.RewardRulesConfiguration;
+
+/**
+ * Main application class to run the non-blocking variant of the Rewards
+ * Program, on WebFlux and R2DBC. It runs with the {@code reactive} profile,
+ * which keeps its beans out of the servlet application scanning the same
+ * packages, and shares the reward rules and the validation of the servlet
+ * application.
+ */
+@SpringBootApplication
+@Import(RewardRulesConfiguration.class)
+@Profile(ReactiveRewardsApplication.PROFILE)
+public class ReactiveRewardsApplication {
+
+	/**
+	 * The profile of the reactive application and its beans.
+	 */
+	public static final String PROFILE = "reactive";
+
+	public static void main(String[] args) {
+		new SpringApplicationBuilder(ReactiveRewardsApplication.class).profiles(PROFILE)
+				.web(WebApplicationType.REACTIVE).run(args);
+	}
+
+	/**
+	 * Serves the application with Netty, Tomcat being on the classpath for the
+	 * servlet application would be preferred otherwise.
+	 *
+	 * @return the factory of the Netty server.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+
+}
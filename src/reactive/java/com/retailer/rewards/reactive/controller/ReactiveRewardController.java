@@ -0,0 +1,141 @@
+package com.retailer.rewards.reactive.controller;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.retailer.rewards.model.BulkIngestionResponse;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+import com.retailer.rewards.reactive.service.ReactiveRewardService;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking controller class to handle requests for customers and
+ * transactions, with the same paths, parameters and responses as
+ * {@link com.retailer.rewards.controller.RewardController}.
+ */
+@RestController
+@RequestMapping("/api/rewards")
+@Profile(ReactiveRewardsApplication.PROFILE)
+@Slf4j
+public class ReactiveRewardController {
+
+	@Autowired
+	private ReactiveRewardService rewardService;
+
+	@Value("${rewards.ingestion.batch-size}")
+	private int ingestionBatchSize;
+
+	/**
+	 * Creates a new customer with the given name.
+	 *
+	 * @param name The name of the customer to be created.
+	 * @return The created Customer object.
+	 */
+	@PostMapping("/create-customer")
+	public Mono<Customer> createCustomer(@RequestParam String name) {
+		log.info("Creating customer with name: {}", name);
+		return rewardService.createCustomer(name)
+				.doOnNext(customer -> log.info("Customer created successfully with ID: {}", customer.getId()));
+	}
+
+	/**
+	 * Creates a transaction for the specified customer with the given amount and
+	 * date.
+	 *
+	 * @param customerId The unique ID of the customer for whom the transaction is
+	 *                   being created.
+	 * @param amount     The amount of the transaction.
+	 * @param date       The date of the transaction, it will take current date if
+	 *                   date not given.
+	 * @return The created Transaction object.
+	 */
+	@PostMapping("/create-transaction")
+	public Mono<Transaction> createTransaction(@RequestParam Long customerId, @RequestParam double amount,
+			@RequestParam(required = false) LocalDate date) {
+		log.info("Creating transaction for customer ID: {} with amount: {} and date: {}", customerId, amount, date);
+		return rewardService.createTransaction(customerId, amount, date)
+				.doOnNext(transaction -> log.info("Transaction created successfully with ID: {} for Customer: {} on "
+						+ "date: {}", transaction.getId(), transaction.getCustomer().getName(),
+						transaction.getDate()));
+	}
+
+	/**
+	 * Ingests a JSON array of transactions. The transactions are validated and
+	 * inserted in batches of {@code rewards.ingestion.batch-size} rows, one batch
+	 * after the other.
+	 *
+	 * @param requests The transactions to ingest.
+	 * @return The number of accepted and rejected rows and the result of every
+	 *         row.
+	 */
+	@PostMapping(value = "/transactions/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public Mono<BulkIngestionResponse> ingestTransactions(@RequestBody List<TransactionRequest> requests) {
+		log.info("Ingesting {} transactions", requests.size());
+		return Flux.range(0, (requests.size() + ingestionBatchSize - 1) / ingestionBatchSize)
+				.map(batch -> batch * ingestionBatchSize)
+				.concatMap(from -> rewardService.ingestTransactions(
+						requests.subList(from, Math.min(from + ingestionBatchSize, requests.size())), from))
+				.flatMapIterable(Function.identity()).collectList().map(BulkIngestionResponse::new)
+				.doOnNext(response -> log.info("Ingested transactions, accepted: {}, rejected: {}",
+						response.getAccepted(), response.getRejected()));
+	}
+
+	/**
+	 * Retrieves the details of a customer.
+	 *
+	 * @param customerId The unique ID of the customer.
+	 * @return The Customer object containing details of the requested customer.
+	 */
+	@GetMapping("/customers/{customerId}")
+	public Mono<Customer> getCustomer(@PathVariable Long customerId) {
+		log.info("Fetching customer details for customer ID: {}", customerId);
+		return rewardService.getCustomer(customerId);
+	}
+
+	/**
+	 * Retrieves a summary of reward points for a given customer within a specified
+	 * date range.
+	 *
+	 * @param customerId          the unique ID of the customer.
+	 * @param startDate           the start date of the period to consider for
+	 *                            transactions
+	 * @param endDate             the end date of the period to consider for
+	 *                            transactions
+	 * @param includeTransactions whether to include the transactions in the
+	 *                            response, true if not given.
+	 * @return a RewardSummaryResponse containing the customer's details,
+	 *         transactions, reward points per month, and the total reward points
+	 *         earned in the specified period
+	 */
+	@GetMapping("reward-summary/{customerId}")
+	public Mono<ResponseEntity<RewardSummaryResponse>> getRewardsSummary(@PathVariable Long customerId,
+			@RequestParam LocalDate startDate, @RequestParam LocalDate endDate,
+			@RequestParam(defaultValue = "true") boolean includeTransactions) {
+		log.info("Fetching rewards summary for customer ID: {} between period {} and {}", customerId, startDate,
+				endDate);
+		return rewardService.getRewardsSummary(customerId, startDate, endDate, includeTransactions)
+				.map(ResponseEntity::ok);
+	}
+
+}
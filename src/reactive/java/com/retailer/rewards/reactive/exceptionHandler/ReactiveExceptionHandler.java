@@ -0,0 +1,78 @@
+package com.retailer.rewards.reactive.exceptionHandler;
+
+import org.springframework.beans.TypeMismatchException;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.resource.NoResourceFoundException;
+import org.springframework.web.server.MissingRequestValueException;
+import org.springframework.web.server.ServerWebInputException;
+
+import com.retailer.rewards.exceptionHandler.ErrorResponse;
+import com.retailer.rewards.exceptionHandler.GlobalExceptionHandler;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Exception handler class of the reactive application. It handles the
+ * exceptions of the application like {@link GlobalExceptionHandler}, and the
+ * exceptions WebFlux throws for invalid requests like the ones Spring MVC
+ * throws, so that both stacks answer with the same errors. It takes precedence
+ * over {@link GlobalExceptionHandler}, whose catch-all handler would otherwise
+ * answer the WebFlux exceptions.
+ */
+@Slf4j
+@RestControllerAdvice
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@Profile(ReactiveRewardsApplication.PROFILE)
+public class ReactiveExceptionHandler extends GlobalExceptionHandler {
+
+	/**
+	 * Handles ServerWebInputException thrown by WebFlux for missing or malformed
+	 * request parameters.
+	 *
+	 * @param ex the exception that was thrown, providing the message and details
+	 * @return a ResponseEntity containing an ErrorResponse with status BAD_REQUEST
+	 *         (400)
+	 */
+	@ExceptionHandler(ServerWebInputException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<ErrorResponse> handleServerWebInputException(ServerWebInputException ex) {
+		String errorMessage;
+		if (ex instanceof MissingRequestValueException missingValue) {
+			errorMessage = "Missing required parameter: " + missingValue.getName();
+		} else if (ex.getCause() instanceof TypeMismatchException mismatch
+				&& ("date".equals(mismatch.getPropertyName()) || "startDate".equals(mismatch.getPropertyName())
+						|| "endDate".equals(mismatch.getPropertyName()))) {
+			errorMessage = "Date value should be in yyyy-mm-dd format.";
+		} else if (ex.getCause() instanceof TypeMismatchException mismatch) {
+			errorMessage = mismatch.getPropertyName() + " is required. Its value can not be null or empty.";
+		} else {
+			errorMessage = ex.getReason();
+		}
+		log.error(errorMessage);
+		return new ResponseEntity<>(new ErrorResponse("Bad Request", errorMessage), HttpStatus.BAD_REQUEST);
+	}
+
+	/**
+	 * Handles NoResourceFoundException thrown by WebFlux for unknown paths.
+	 *
+	 * @param ex the exception that was thrown, providing the message and details
+	 * @return a ResponseEntity containing an ErrorResponse with status BAD_REQUEST
+	 *         (400)
+	 */
+	@ExceptionHandler(NoResourceFoundException.class)
+	@ResponseStatus(HttpStatus.BAD_REQUEST)
+	public ResponseEntity<ErrorResponse> handleReactiveNoResourceFoundException(NoResourceFoundException ex) {
+		log.error("Invalid Request.");
+		ErrorResponse errorResponse = new ErrorResponse("Bad Request", "Invalid Request.");
+		return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
+	}
+
+}
@@ -0,0 +1,61 @@
+package com.retailer.rewards.reactive.repository;
+
+import java.util.Collection;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking repository of the customers, reading and writing the customer
+ * table through R2DBC.
+ */
+@Repository
+@Profile(ReactiveRewardsApplication.PROFILE)
+public class ReactiveCustomerRepository {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	/**
+	 * Inserts a new customer.
+	 *
+	 * @param name The name of the customer.
+	 * @return The inserted customer with its generated ID.
+	 */
+	public Mono<Customer> save(String name) {
+		return databaseClient.sql("insert into customer (name) values (:name)").bind("name", name)
+				.filter(statement -> statement.returnGeneratedValues("id")).map(row -> row.get("id", Long.class))
+				.one().map(id -> new Customer(id, name, null));
+	}
+
+	/**
+	 * Fetches a customer by ID.
+	 *
+	 * @param id The ID of the customer.
+	 * @return The customer, or empty if there is no customer with the ID.
+	 */
+	public Mono<Customer> findById(Long id) {
+		return databaseClient.sql("select id, name from customer where id = :id").bind("id", id)
+				.map(row -> new Customer(row.get("id", Long.class), row.get("name", String.class), null)).one();
+	}
+
+	/**
+	 * Fetches the customers with the given IDs.
+	 *
+	 * @param ids The IDs of the customers, not empty.
+	 * @return The existing customers among them.
+	 */
+	public Flux<Customer> findAllById(Collection<Long> ids) {
+		return databaseClient.sql("select id, name from customer where id in (:ids)").bind("ids", ids)
+				.map(row -> new Customer(row.get("id", Long.class), row.get("name", String.class), null)).all();
+	}
+
+}
@@ -0,0 +1,70 @@
+package com.retailer.rewards.reactive.repository;
+
+import java.time.LocalDate;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking repository of the transactions, reading and writing the
+ * transaction table through R2DBC.
+ */
+@Repository
+@Profile(ReactiveRewardsApplication.PROFILE)
+public class ReactiveTransactionRepository {
+
+	@Autowired
+	private DatabaseClient databaseClient;
+
+	/**
+	 * Inserts a new transaction.
+	 *
+	 * @param customerId  The ID of the customer of the transaction.
+	 * @param amountCents The amount in cents.
+	 * @param date        The date of the transaction.
+	 * @return The inserted transaction with its generated ID, without the
+	 *         customer.
+	 */
+	public Mono<Transaction> save(Long customerId, long amountCents, LocalDate date) {
+		return databaseClient.sql("insert into transaction (customer_id, amount_cents, date) "
+				+ "values (:customerId, :amountCents, :date)").bind("customerId", customerId)
+				.bind("amountCents", amountCents).bind("date", date)
+				.filter(statement -> statement.returnGeneratedValues("id")).map(row -> row.get("id", Long.class))
+				.one().map(id -> {
+					Transaction transaction = new Transaction();
+					transaction.setId(id);
+					transaction.setAmountCents(amountCents);
+					transaction.setDate(date);
+					return transaction;
+				});
+	}
+
+	/**
+	 * Streams the details of the transactions of a customer within a date range,
+	 * ordered by date and ID. The rows are emitted as they are read.
+	 *
+	 * @param customerId The ID of the customer.
+	 * @param startDate  The start date of the range.
+	 * @param endDate    The end date of the range.
+	 * @return The details of the transactions of the customer within the range.
+	 */
+	public Flux<TransactionDetails> findByCustomerIdAndDateBetween(Long customerId, LocalDate startDate,
+			LocalDate endDate) {
+		return databaseClient.sql("select id, amount_cents, date from transaction where customer_id = :customerId "
+				+ "and date between :startDate and :endDate order by date, id").bind("customerId", customerId)
+				.bind("startDate", startDate).bind("endDate", endDate)
+				.map(row -> new TransactionDetails(row.get("id", Long.class), customerId,
+						row.get("amount_cents", Long.class), row.get("date", LocalDate.class)))
+				.all();
+	}
+
+}
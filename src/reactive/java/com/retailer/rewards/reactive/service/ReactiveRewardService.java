@@ -0,0 +1,165 @@
+package com.retailer.rewards.reactive.service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.retailer.rewards.Money;
+import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.reactive.ReactiveRewardsApplication;
+import com.retailer.rewards.reactive.repository.ReactiveCustomerRepository;
+import com.retailer.rewards.reactive.repository.ReactiveTransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+import com.retailer.rewards.service.RewardSummaryAccumulator;
+import com.retailer.rewards.service.RewardValidator;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of
+ * {@link com.retailer.rewards.service.RewardService}. The requests are
+ * validated by the shared {@link RewardValidator} and the reward points are
+ * calculated with the shared {@link RewardRuleSet}, so both services accept the
+ * same requests and return the same summaries.
+ *
+ * As in the servlet service, invalid arguments throw an
+ * IllegalArgumentException as soon as a method is called, while a missing
+ * customer is signalled by the returned publisher.
+ */
+@Service
+@Profile(ReactiveRewardsApplication.PROFILE)
+public class ReactiveRewardService {
+
+	@Autowired
+	private ReactiveCustomerRepository customerRepository;
+
+	@Autowired
+	private ReactiveTransactionRepository transactionRepository;
+
+	@Autowired
+	private RewardRuleSet rewardRules;
+
+	/**
+	 * Creates a new customer with the given name.
+	 *
+	 * @param name the name of the customer to be created.
+	 * @return the newly created customer.
+	 */
+	public Mono<Customer> createCustomer(String name) {
+		RewardValidator.validateCustomerName(name);
+		return customerRepository.save(name);
+	}
+
+	/**
+	 * Retrieves a customer by their unique ID.
+	 *
+	 * @param customerId the ID of the customer to retrieve.
+	 * @return the customer with the given ID, or a CustomerNotFoundException.
+	 */
+	public Mono<Customer> getCustomer(Long customerId) {
+		return findCustomerById(customerId);
+	}
+
+	/**
+	 * Creates a new transaction for a customer.
+	 *
+	 * @param customerId the ID of the customer making the transaction.
+	 * @param amount     the transaction amount.
+	 * @param date       the transaction date (defaults to the current date if
+	 *                   null).
+	 * @return the newly created transaction.
+	 */
+	public Mono<Transaction> createTransaction(Long customerId, double amount, LocalDate date) {
+		long amountCents = RewardValidator.validateAmount(amount);
+		LocalDate transactionDate = Optional.ofNullable(date).orElse(LocalDate.now());
+		return findCustomerById(customerId)
+				.flatMap(customer -> transactionRepository.save(customerId, amountCents, transactionDate)
+						.doOnNext(transaction -> transaction.setCustomer(customer)));
+	}
+
+	/**
+	 * Ingests a batch of transactions in a single database transaction. The
+	 * customers of the batch are looked up with a single query and the rows are
+	 * validated like {@link com.retailer.rewards.service.RewardService} does.
+	 * Rows that fail validation are rejected without affecting the rest of the
+	 * batch.
+	 *
+	 * @param requests the transactions to ingest.
+	 * @param firstRow the row number of the first transaction of the batch.
+	 * @return the result of every row, in the order of the requests.
+	 */
+	@Transactional
+	public Mono<List<TransactionIngestionResult>> ingestTransactions(List<TransactionRequest> requests,
+			long firstRow) {
+		Set<Long> customerIds = requests.stream().map(TransactionRequest::getCustomerId).filter(Objects::nonNull)
+				.collect(Collectors.toSet());
+		Mono<Set<Long>> knownCustomerIds = customerIds.isEmpty() ? Mono.just(Set.of())
+				: customerRepository.findAllById(customerIds).map(Customer::getId).collect(Collectors.toSet());
+		return knownCustomerIds.flatMap(known -> Flux.range(0, requests.size()).concatMap(i -> {
+			TransactionRequest request = requests.get(i);
+			long row = firstRow + i;
+			String rejection = RewardValidator.validateTransactionRequest(request, known);
+			if (rejection != null) {
+				return Mono.just(TransactionIngestionResult.rejected(row, rejection));
+			}
+			return transactionRepository
+					.save(request.getCustomerId(), Money.toCents(request.getAmount()),
+							Optional.ofNullable(request.getDate()).orElse(LocalDate.now()))
+					.map(transaction -> TransactionIngestionResult.accepted(row, transaction.getId()));
+		}).collectList());
+	}
+
+	/**
+	 * Retrieves a summary of reward points for a given customer within a specified
+	 * date range. The summary is reduced from the stream of the transactions of
+	 * the range as they are read, the transactions are only held when they are
+	 * included in the summary.
+	 *
+	 * @param customerId          the unique ID of the customer
+	 * @param startDate           the start date of the period to consider for
+	 *                            transactions
+	 * @param endDate             the end date of the period to consider for
+	 *                            transactions
+	 * @param includeTransactions whether to include the transactions in the
+	 *                            summary
+	 * @return the reward summary of the customer, or a CustomerNotFoundException.
+	 * @throws IllegalArgumentException if the endDate is before the startDate
+	 */
+	public Mono<RewardSummaryResponse> getRewardsSummary(Long customerId, LocalDate startDate, LocalDate endDate,
+			boolean includeTransactions) {
+		RewardValidator.validateDateRange(startDate, endDate);
+		return findCustomerById(customerId).flatMap(customer -> transactionRepository
+				.findByCustomerIdAndDateBetween(customerId, startDate, endDate)
+				.collect(() -> new RewardSummaryAccumulator(rewardRules, startDate, endDate, includeTransactions),
+						RewardSummaryAccumulator::add)
+				.map(accumulator -> accumulator.toSummary(customer.getId(), customer.getName())));
+	}
+
+	/**
+	 * Finds a customer by their unique ID.
+	 *
+	 * @param customerId the ID of the customer to find.
+	 * @return the customer with the given ID, or a CustomerNotFoundException if no
+	 *         customer is found with the given ID.
+	 */
+	private Mono<Customer> findCustomerById(Long customerId) {
+		RewardValidator.validateCustomerId(customerId);
+		return customerRepository.findById(customerId).switchIfEmpty(
+				Mono.error(() -> new CustomerNotFoundException("Customer not found with ID: " + customerId)));
+	}
+
+}
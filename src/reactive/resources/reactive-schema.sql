@@ -0,0 +1,13 @@
+create table if not exists customer (
+	id bigint generated by default as identity primary key,
+	name varchar(255)
+);
+
+create table if not exists transaction (
+	id bigint generated by default as identity primary key,
+	amount_cents bigint not null,
+	date date,
+	customer_id bigint references customer (id)
+);
+
+create index if not exists idx_transaction_customer_date on transaction (customer_id, date, amount_cents);
@@ -0,0 +1,81 @@
+package com.retailer.rewards;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the reward points calculation against a {@link BigDecimal} reference
+ * of the rules, over random amounts and every amount around the tier
+ * boundaries.
+ */
+public class RewardCalculatorTest {
+
+	private static final BigDecimal FIFTY = BigDecimal.valueOf(50);
+
+	private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+	@Test
+	void testCalculateRewardPointsFromCents_matchesReference() {
+		Random random = new Random(20240229L);
+		for (int i = 0; i < 1_000_000; i++) {
+			long amountCents = i < 20_000 ? i : random.nextLong(100_000_000_000L);
+			assertEquals(referencePoints(amountCents), RewardCalculator.calculateRewardPointsFromCents(amountCents),
+					"cents " + amountCents);
+		}
+	}
+
+	@Test
+	void testCalculateRewardPoints_exactForDecimalAmounts() {
+		Random random = new Random(20240301L);
+		for (int i = 0; i < 1_000_000; i++) {
+			long amountCents = i < 20_000 ? i : random.nextLong(100_000_000_000L);
+			// Amounts arrive as decimal text, as in JSON requests and CSV imports
+			double amount = Double.parseDouble(BigDecimal.valueOf(amountCents, 2).toPlainString());
+			assertEquals(amountCents, Money.toCents(amount), "amount " + amount);
+			assertEquals(referencePoints(amountCents), RewardCalculator.calculateRewardPoints(amount),
+					"amount " + amount);
+		}
+	}
+
+	@Test
+	void testCalculateRewardPoints() {
+		assertEquals(0, RewardCalculator.calculateRewardPoints(50.0));
+		assertEquals(49, RewardCalculator.calculateRewardPoints(99.99));
+		assertEquals(50, RewardCalculator.calculateRewardPoints(100.29));
+		assertEquals(51, RewardCalculator.calculateRewardPoints(100.5));
+		assertEquals(90, RewardCalculator.calculateRewardPoints(120.0));
+	}
+
+	@Test
+	void testCalculateRewardPointsFromCents_overflow() {
+		assertEquals(Integer.MAX_VALUE,
+				RewardCalculator.calculateRewardPointsFromCents((Integer.MAX_VALUE - 50L) * 50 + 10_000));
+		assertThrows(ArithmeticException.class,
+				() -> RewardCalculator.calculateRewardPointsFromCents((Integer.MAX_VALUE - 49L) * 50 + 10_000));
+		assertThrows(ArithmeticException.class, () -> RewardCalculator.calculateRewardPointsFromCents(Long.MAX_VALUE));
+	}
+
+	/**
+	 * The rules in decimal arithmetic: 2 points for every dollar above $100 and
+	 * 1 point for every dollar between $50 and $100, each tier truncated.
+	 */
+	private static int referencePoints(long amountCents) {
+		BigDecimal amount = BigDecimal.valueOf(amountCents, 2);
+		BigDecimal points = BigDecimal.ZERO;
+		if (amount.compareTo(HUNDRED) > 0) {
+			points = points.add(amount.subtract(HUNDRED).multiply(BigDecimal.valueOf(2)).setScale(0,
+					RoundingMode.DOWN));
+			amount = HUNDRED;
+		}
+		if (amount.compareTo(FIFTY) > 0) {
+			points = points.add(amount.subtract(FIFTY).setScale(0, RoundingMode.DOWN));
+		}
+		return points.intValueExact();
+	}
+}
@@ -0,0 +1,83 @@
+package com.retailer.rewards.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+
+@ExtendWith(MockitoExtension.class)
+public class BinaryEncodingConfigurationTest {
+
+	@Mock
+	private ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilder;
+
+	@InjectMocks
+	private BinaryEncodingConfiguration configuration;
+
+	@BeforeEach
+	void setUp() {
+		when(objectMapperBuilder.getObject()).thenAnswer(invocation -> Jackson2ObjectMapperBuilder.json()
+				.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+	}
+
+	@Test
+	void testExtendMessageConverters_afterJson() {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new StringHttpMessageConverter(),
+				new MappingJackson2HttpMessageConverter(), new MappingJackson2SmileHttpMessageConverter(),
+				new MappingJackson2CborHttpMessageConverter()));
+		HttpMessageConverter<?> defaultCbor = converters.get(3);
+
+		configuration.extendMessageConverters(converters);
+
+		assertEquals(4, converters.size());
+		assertInstanceOf(MappingJackson2HttpMessageConverter.class, converters.get(1));
+		assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(2));
+		assertInstanceOf(MappingJackson2SmileHttpMessageConverter.class, converters.get(3));
+		assertFalse(converters.contains(defaultCbor));
+	}
+
+	@Test
+	void testExtendMessageConverters_cborRoundTrip() throws Exception {
+		List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter()));
+		configuration.extendMessageConverters(converters);
+		ObjectMapper cborMapper = ((MappingJackson2CborHttpMessageConverter) converters.get(1)).getObjectMapper();
+		RewardSummaryResponse response = new RewardSummaryResponse(1L, "Test Name",
+				List.of(new TransactionDetails(7L, 1L, 12050, LocalDate.of(2024, 1, 15))),
+				List.of(new MonthRewardSummary(2024, Month.JANUARY, 90)), 90);
+
+		byte[] payload = cborMapper.writeValueAsBytes(response);
+		RewardSummaryResponse read = cborMapper.readValue(payload, RewardSummaryResponse.class);
+
+		assertEquals("2024-01-15", cborMapper.readTree(payload).get("transactions").get(0).get("date").asText());
+		assertEquals(1L, read.getCustomerId());
+		assertEquals(LocalDate.of(2024, 1, 15), read.getTransactions().get(0).getDate());
+		assertEquals(12050, read.getTransactions().get(0).getAmountCents());
+		assertEquals(Month.JANUARY, read.getRewardPointsPerMonth().get(0).getMonth());
+	}
+
+}
@@ -1,30 +1,61 @@
 package com.retailer.rewards.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import java.time.LocalDate;
 import java.time.Month;
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.LongStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
 import com.retailer.rewards.model.Customer;
 import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.PointsBalanceResponse;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.PointsEventType;
+import com.retailer.rewards.model.RewardSummaryBatchRequest;
+import com.retailer.rewards.model.RewardSummaryCacheStats;
 import com.retailer.rewards.model.RewardSummaryResponse;
 import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.model.TransactionPage;
 import com.retailer.rewards.service.RewardService;
 
 @ExtendWith(MockitoExtension.class)
@@ -36,6 +67,9 @@ public class RewardControllerTest {
 	@Mock
 	private RewardService rewardService;
 
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
 	private MockMvc mockMvc;
 
 	private Customer customer;
@@ -43,6 +77,7 @@ public class RewardControllerTest {
 
 	@BeforeEach
 	void setUp() {
+		ReflectionTestUtils.setField(rewardController, "ingestionBatchSize", 2);
 		mockMvc = MockMvcBuilders.standaloneSetup(rewardController).build();
 		customer = new Customer(1L, "Test Name", Arrays.asList(transaction));
 		transaction = new Transaction(1L, 120.0, LocalDate.now(), customer);
@@ -70,6 +105,26 @@ public class RewardControllerTest {
 		verify(rewardService, times(1)).getCustomer(1L);
 	}
 
+	@Test
+	void testReverseTransaction() throws Exception {
+		when(rewardService.reverseTransaction(1L)).thenReturn(
+				new PointsEvent(7L, 1L, 1L, PointsEventType.REVERSED, -90, LocalDate.of(2024, 1, 10), 2));
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/transactions/{transactionId}/reverse", 1L))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.type").value("REVERSED"))
+				.andExpect(jsonPath("$.points").value(-90));
+	}
+
+	@Test
+	void testGetPointsBalance() throws Exception {
+		when(rewardService.getPointsBalance(1L, 2024, null))
+				.thenReturn(new PointsBalanceResponse(1L, 905, 22L, 2024, null, 405));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/customers/{customerId}/points-balance", 1L)
+				.param("year", "2024")).andExpect(status().isOk()).andExpect(jsonPath("$.lifetimePoints").value(905))
+				.andExpect(jsonPath("$.periodPoints").value(405));
+	}
+
 	@Test
 	void testCreateTransaction() throws Exception {
 		when(rewardService.createTransaction(1L, 120.0, null)).thenReturn(transaction);
@@ -82,19 +137,62 @@ public class RewardControllerTest {
 		verify(rewardService, times(1)).createTransaction(1L, 120.0, null);
 	}
 
+	@Test
+	void testIngestTransactions() throws Exception {
+		when(rewardService.ingestTransactions(anyList(), anyLong())).thenAnswer(invocation -> {
+			List<?> requests = invocation.getArgument(0);
+			long firstRow = invocation.getArgument(1);
+			return LongStream.range(firstRow, firstRow + requests.size())
+					.mapToObj(row -> TransactionIngestionResult.accepted(row, row + 1)).toList();
+		});
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/transactions/bulk")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("[{\"customerId\":1,\"amount\":120.0,\"date\":\"2024-01-10\"},"
+						+ "{\"customerId\":1,\"amount\":70.0},{\"customerId\":2,\"amount\":220.0}]"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.accepted").value(3))
+				.andExpect(jsonPath("$.rejected").value(0)).andExpect(jsonPath("$.results[2].row").value(2))
+				.andExpect(jsonPath("$.results[2].transactionId").value(3));
+
+		verify(rewardService, times(1)).ingestTransactions(anyList(), eq(0L));
+		verify(rewardService, times(1)).ingestTransactions(anyList(), eq(2L));
+	}
+
+	@Test
+	void testIngestTransactions_ndjson() throws Exception {
+		when(rewardService.ingestTransactions(anyList(), anyLong())).thenAnswer(invocation -> {
+			List<?> requests = invocation.getArgument(0);
+			long firstRow = invocation.getArgument(1);
+			return LongStream.range(firstRow, firstRow + requests.size())
+					.mapToObj(row -> TransactionIngestionResult.accepted(row, row + 1)).toList();
+		});
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/transactions/bulk")
+				.contentType("application/x-ndjson")
+				.content("{\"customerId\":1,\"amount\":120.0,\"date\":\"2024-01-10\"}\n" + "not json\n\n"
+						+ "{\"customerId\":1,\"amount\":70.0}\n"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.accepted").value(2))
+				.andExpect(jsonPath("$.rejected").value(1))
+				.andExpect(jsonPath("$.results[1].message").value("Malformed row."))
+				.andExpect(jsonPath("$.results[2].row").value(2));
+
+		verify(rewardService, times(1)).ingestTransactions(anyList(), eq(0L));
+		verify(rewardService, times(1)).ingestTransactions(anyList(), eq(2L));
+	}
+
 	@Test
 	void testGetRewardsSummary() throws Exception {
 		LocalDate startDate = LocalDate.of(2024, 1, 1);
 		LocalDate endDate = LocalDate.of(2024, 1, 31);
 
-		Transaction t1 = new Transaction(1L, 120.0, LocalDate.of(2024, 1, 10), customer);
-		Transaction t2 = new Transaction(2L, 220.0, LocalDate.of(2024, 1, 15), customer);
-		List<Transaction> transactions = Arrays.asList(t1, t2);
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 22000, LocalDate.of(2024, 1, 15));
+		List<TransactionDetails> transactions = Arrays.asList(t1, t2);
 
 		MonthRewardSummary m1 = new MonthRewardSummary(2024, Month.JANUARY, 380);
 		List<MonthRewardSummary> monthRewardSummary = Arrays.asList(m1);
 
-		when(rewardService.getRewardsSummary(1L, startDate, endDate))
+		when(rewardService.getRewardsSummary(1L, startDate, endDate, true))
 				.thenReturn(new RewardSummaryResponse(1L, "Test Name", transactions, monthRewardSummary, 380));
 
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
@@ -102,10 +200,185 @@ public class RewardControllerTest {
 				.andExpect(status().isOk()).andExpect(jsonPath("$.customerId").value(1L))
 				.andExpect(jsonPath("$.customerName").value("Test Name"))
 				.andExpect(jsonPath("$.totalRewardPoints").value(380))
+				.andExpect(jsonPath("$.transactions[1].amount").value(220.0))
+				.andExpect(jsonPath("$.transactions[1].amountCents").doesNotExist())
+				.andExpect(jsonPath("$.transactions[1].customerId").doesNotExist())
 				.andExpect(jsonPath("$.rewardPointsPerMonth[0].year").value(2024))
 	            .andExpect(jsonPath("$.rewardPointsPerMonth[0].month").value("JANUARY"))
 	            .andExpect(jsonPath("$.rewardPointsPerMonth[0].points").value(380));
 
-		verify(rewardService, times(1)).getRewardsSummary(1L, startDate, endDate);
+		verify(rewardService, times(1)).getRewardsSummary(1L, startDate, endDate, true);
+	}
+
+	@Test
+	void testGetRewardsSummary_withoutTransactions() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		MonthRewardSummary m1 = new MonthRewardSummary(2024, Month.JANUARY, 380);
+		when(rewardService.getRewardsSummary(1L, startDate, endDate, false))
+				.thenReturn(new RewardSummaryResponse(1L, "Test Name", null, Arrays.asList(m1), 380));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.param("includeTransactions", "false")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.transactions").doesNotExist())
+				.andExpect(jsonPath("$.totalRewardPoints").value(380));
+
+		verify(rewardService, times(1)).getRewardsSummary(1L, startDate, endDate, false);
+	}
+
+	@Test
+	void testGetRewardsSummary_etag() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		MonthRewardSummary m1 = new MonthRewardSummary(2024, Month.JANUARY, 380);
+		when(rewardService.getRewardsSummaryVersion(1L, startDate, endDate)).thenReturn("abc-3");
+		when(rewardService.getRewardsSummary(1L, startDate, endDate, true))
+				.thenReturn(new RewardSummaryResponse(1L, "Test Name", List.of(), Arrays.asList(m1), 380));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.header(HttpHeaders.IF_NONE_MATCH, "W/\"abc-2\"")).andExpect(status().isOk())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"abc-3\""))
+				.andExpect(jsonPath("$.totalRewardPoints").value(380));
+	}
+
+	@Test
+	void testGetRewardsSummary_notModified() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(rewardService.getRewardsSummaryVersion(1L, startDate, endDate)).thenReturn("abc-3");
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.header(HttpHeaders.IF_NONE_MATCH, "W/\"abc-3\"")).andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"abc-3\""))
+				.andExpect(content().string(""));
+
+		verify(rewardService, never()).getRewardsSummary(anyLong(), any(), any(), anyBoolean());
+	}
+
+	@Test
+	void testGetRewardsSummary_wildcardNotModified() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(rewardService.getRewardsSummaryVersion(1L, startDate, endDate)).thenReturn("abc-3");
+		when(rewardService.getCustomerName(1L)).thenReturn("Test Name");
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.header(HttpHeaders.IF_NONE_MATCH, "*")).andExpect(status().isNotModified())
+				.andExpect(header().string(HttpHeaders.ETAG, "W/\"abc-3\""));
+
+		verify(rewardService, never()).getRewardsSummary(anyLong(), any(), any(), anyBoolean());
+	}
+
+	@Test
+	void testGetRewardsSummary_wildcardUnknownCustomer() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		// The customer ID index says the customer might exist, but it does not, so
+		// the request goes on to the summary, which reports the missing customer
+		when(rewardService.getRewardsSummaryVersion(1L, startDate, endDate)).thenReturn("abc-3");
+		when(rewardService.getCustomerName(1L))
+				.thenThrow(new CustomerNotFoundException("Customer not found with ID: 1"));
+		when(rewardService.getRewardsSummary(1L, startDate, endDate, true))
+				.thenReturn(new RewardSummaryResponse(1L, "Test Name", List.of(), List.of(), 0));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary/{customerId}", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.header(HttpHeaders.IF_NONE_MATCH, "*")).andExpect(status().isOk());
+
+		verify(rewardService, times(1)).getRewardsSummary(1L, startDate, endDate, true);
+	}
+
+	@Test
+	void testGetTransactions() throws Exception {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+		LocalDate afterDate = LocalDate.of(2024, 1, 10);
+
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 22000, LocalDate.of(2024, 1, 15));
+		when(rewardService.getTransactions(1L, startDate, endDate, afterDate, 1L, 1))
+				.thenReturn(new TransactionPage(Arrays.asList(t2), t2.getDate(), 2L));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/customers/{customerId}/transactions", 1L)
+				.param("startDate", startDate.toString()).param("endDate", endDate.toString())
+				.param("afterDate", afterDate.toString()).param("afterId", "1").param("limit", "1"))
+				.andExpect(status().isOk()).andExpect(jsonPath("$.transactions[0].id").value(2L))
+				.andExpect(jsonPath("$.nextAfterDate").exists())
+				.andExpect(jsonPath("$.nextAfterId").value(2L));
+
+		verify(rewardService, times(1)).getTransactions(1L, startDate, endDate, afterDate, 1L, 1);
+	}
+
+	@Test
+	void testRebuildRewardLedger() throws Exception {
+		when(rewardService.rebuildRewardLedger()).thenReturn(3);
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/rebuild-ledger")).andExpect(status().isOk())
+				.andExpect(jsonPath("$").value(3));
+
+		verify(rewardService, times(1)).rebuildRewardLedger();
+	}
+
+	@Test
+	void testGetRewardsSummaryCacheStats() throws Exception {
+		when(rewardService.getRewardsSummaryCacheStats()).thenReturn(new RewardSummaryCacheStats(5, 2, 1, 1));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/rewards/reward-summary-cache")).andExpect(status().isOk())
+				.andExpect(jsonPath("$.hitCount").value(5)).andExpect(jsonPath("$.missCount").value(2))
+				.andExpect(jsonPath("$.evictionCount").value(1)).andExpect(jsonPath("$.size").value(1));
+	}
+
+	@Test
+	void testGetRewardsSummaries() throws Exception {
+		MonthRewardSummary m1 = new MonthRewardSummary(2024, Month.JANUARY, 90);
+		doAnswer(invocation -> {
+			Consumer<RewardSummaryResponse> consumer = invocation.getArgument(1);
+			consumer.accept(new RewardSummaryResponse(1L, "Test Name", List.of(), Arrays.asList(m1), 90));
+			consumer.accept(new RewardSummaryResponse(2L, "Other Name", List.of(), Arrays.asList(m1), 90));
+			return null;
+		}).when(rewardService).streamRewardsSummaries(any(RewardSummaryBatchRequest.class), any());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/reward-summaries")
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"customerIds\":[1,2],\"startDate\":\"2024-01-01\",\"endDate\":\"2024-01-31\"}"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].customerId").value(1L)).andExpect(jsonPath("$[1].customerId").value(2L))
+				.andExpect(jsonPath("$[1].customerName").value("Other Name"))
+				.andExpect(jsonPath("$[1].rewardPointsPerMonth[0].points").value(90));
+
+		verify(rewardService, times(1)).validateRewardsSummaryBatch(any(RewardSummaryBatchRequest.class));
+	}
+
+	@Test
+	void testGetRewardsSummaries_cbor() throws Exception {
+		MonthRewardSummary m1 = new MonthRewardSummary(2024, Month.JANUARY, 90);
+		doAnswer(invocation -> {
+			Consumer<RewardSummaryResponse> consumer = invocation.getArgument(1);
+			consumer.accept(new RewardSummaryResponse(1L, "Test Name", List.of(), Arrays.asList(m1), 90));
+			return null;
+		}).when(rewardService).streamRewardsSummaries(any(RewardSummaryBatchRequest.class), any());
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.post("/api/rewards/reward-summaries")
+				.contentType(MediaType.APPLICATION_JSON).accept("application/json;q=0.5", "application/cbor")
+				.content("{\"customerIds\":[1],\"startDate\":\"2024-01-01\",\"endDate\":\"2024-01-31\"}"))
+				.andExpect(request().asyncStarted()).andReturn();
+
+		byte[] body = mockMvc.perform(asyncDispatch(result)).andExpect(status().isOk())
+				.andExpect(content().contentType(MediaType.APPLICATION_CBOR)).andReturn().getResponse()
+				.getContentAsByteArray();
+		JsonNode summaries = new ObjectMapper(new CBORFactory()).readTree(body);
+		assertEquals(1L, summaries.get(0).get("customerId").asLong());
+		assertEquals("Test Name", summaries.get(0).get("customerName").asText());
+		assertEquals(90, summaries.get(0).get("rewardPointsPerMonth").get(0).get("points").asInt());
 	}
 }
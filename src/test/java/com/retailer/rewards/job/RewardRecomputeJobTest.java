@@ -0,0 +1,183 @@
+package com.retailer.rewards.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.retailer.rewards.exceptionHandler.RecomputeInProgressException;
+import com.retailer.rewards.model.PartitionTiming;
+import com.retailer.rewards.model.RecomputeProgress;
+import com.retailer.rewards.model.RewardRecomputeResult;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.RewardRecomputeResultRepository;
+import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+@ExtendWith(MockitoExtension.class)
+public class RewardRecomputeJobTest {
+
+	private static final LocalDate DATE = LocalDate.of(2024, 1, 10);
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Mock
+	private RewardRecomputeResultRepository resultRepository;
+
+	@Spy
+	private RewardRuleSet rewardRules = RewardRuleSet.DEFAULT;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private RewardRecomputeJob rewardRecomputeJob;
+
+	private List<RewardRecomputeResult> saved;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(rewardRecomputeJob, "partitionSize", 2L);
+		ReflectionTestUtils.setField(rewardRecomputeJob, "parallelism", 2);
+		ReflectionTestUtils.setField(rewardRecomputeJob, "batchSize", 1);
+		saved = Collections.synchronizedList(new ArrayList<>());
+	}
+
+	private void mockTransactions() {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+	}
+
+	private void mockSaves() {
+		when(resultRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<RewardRecomputeResult> batch = invocation.getArgument(0);
+			saved.addAll(batch);
+			return batch;
+		});
+	}
+
+	@Test
+	void testRecompute_scoresEveryPartition() throws InterruptedException {
+		when(customerRepository.findMinId()).thenReturn(1L);
+		when(customerRepository.findMaxId()).thenReturn(5L);
+		mockTransactions();
+		mockSaves();
+		when(transactionRepository.streamAmountsByCustomerIdBetween(1L, 2L))
+				.thenAnswer(invocation -> Stream.of(new TransactionAmount(1L, 12000, DATE),
+						new TransactionAmount(1L, 7550, DATE), new TransactionAmount(2L, 22000, DATE)));
+		when(transactionRepository.streamAmountsByCustomerIdBetween(3L, 4L)).thenAnswer(invocation -> Stream.of());
+		when(transactionRepository.streamAmountsByCustomerIdBetween(5L, 5L))
+				.thenAnswer(invocation -> Stream.of(new TransactionAmount(5L, 4000, DATE)));
+
+		RecomputeProgress started = rewardRecomputeJob.start();
+		rewardRecomputeJob.awaitCompletion();
+		RecomputeProgress progress = rewardRecomputeJob.progress();
+
+		assertEquals(3, started.getPartitions());
+		assertEquals(2, started.getParallelism());
+		assertEquals("COMPLETED", progress.getStatus());
+		assertEquals(3, progress.getCompletedPartitions());
+		assertEquals(3, progress.getCustomers());
+		assertEquals(4, progress.getTransactions());
+		assertNull(progress.getError());
+		List<PartitionTiming> timings = new ArrayList<>(progress.getPartitionTimings());
+		timings.sort(Comparator.comparing(PartitionTiming::getFromCustomerId));
+		assertEquals(3, timings.size());
+		assertEquals(5L, timings.get(2).getFromCustomerId());
+		assertEquals(5L, timings.get(2).getToCustomerId());
+		assertEquals(3, timings.get(0).getTransactions());
+
+		saved.sort(Comparator.comparing(RewardRecomputeResult::getCustomerId));
+		assertEquals(3, saved.size());
+		assertEquals(2, saved.get(0).getTransactions());
+		assertEquals(115, saved.get(0).getPoints());
+		assertEquals(290, saved.get(1).getPoints());
+		assertEquals(0, saved.get(2).getPoints());
+		assertEquals(started.getRunId(), saved.get(2).getRunId());
+	}
+
+	@Test
+	void testRecompute_withoutCustomers() throws InterruptedException {
+		when(customerRepository.findMinId()).thenReturn(null);
+		when(customerRepository.findMaxId()).thenReturn(null);
+
+		rewardRecomputeJob.start();
+		rewardRecomputeJob.awaitCompletion();
+
+		RecomputeProgress progress = rewardRecomputeJob.progress();
+		assertEquals("COMPLETED", progress.getStatus());
+		assertEquals(0, progress.getPartitions());
+		assertEquals(0, progress.getCustomers());
+	}
+
+	@Test
+	void testRecompute_failedPartition() throws InterruptedException {
+		when(customerRepository.findMinId()).thenReturn(1L);
+		when(customerRepository.findMaxId()).thenReturn(2L);
+		mockTransactions();
+		when(transactionRepository.streamAmountsByCustomerIdBetween(1L, 2L))
+				.thenThrow(new IllegalStateException("Connection lost"));
+
+		rewardRecomputeJob.start();
+		rewardRecomputeJob.awaitCompletion();
+
+		RecomputeProgress progress = rewardRecomputeJob.progress();
+		assertEquals("FAILED", progress.getStatus());
+		// The fork-join pool rethrows the exception of the partition wrapped in a new one
+		assertTrue(progress.getError().contains("Connection lost"));
+		assertEquals(0, progress.getCompletedPartitions());
+	}
+
+	@Test
+	void testStart_whileRunning() throws InterruptedException {
+		CountDownLatch release = new CountDownLatch(1);
+		when(customerRepository.findMinId()).thenReturn(1L);
+		when(customerRepository.findMaxId()).thenReturn(2L);
+		mockTransactions();
+		when(transactionRepository.streamAmountsByCustomerIdBetween(anyLong(), anyLong())).thenAnswer(invocation -> {
+			release.await();
+			return Stream.of();
+		});
+
+		rewardRecomputeJob.start();
+		assertThrows(RecomputeInProgressException.class, () -> rewardRecomputeJob.start());
+		assertEquals("RUNNING", rewardRecomputeJob.progress().getStatus());
+
+		release.countDown();
+		rewardRecomputeJob.awaitCompletion();
+		assertEquals("COMPLETED", rewardRecomputeJob.progress().getStatus());
+	}
+
+	@Test
+	void testProgress_beforeFirstRun() {
+		assertNull(rewardRecomputeJob.progress());
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.retailer.rewards.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class TransactionAmountMigrationTest {
+
+	private EmbeddedDatabase database;
+
+	private JdbcTemplate jdbcTemplate;
+
+	private TransactionAmountMigration migration;
+
+	@BeforeEach
+	void setUp() {
+		database = new EmbeddedDatabaseBuilder().setType(EmbeddedDatabaseType.H2).generateUniqueName(true).build();
+		jdbcTemplate = new JdbcTemplate(database);
+		migration = new TransactionAmountMigration();
+		ReflectionTestUtils.setField(migration, "dataSource", database);
+	}
+
+	@AfterEach
+	void tearDown() {
+		database.shutdown();
+	}
+
+	@Test
+	void testMigrate_legacyAmounts() throws Exception {
+		jdbcTemplate.execute("create table transaction (id bigint primary key, amount float(53) not null, "
+				+ "date date, customer_id bigint)");
+		jdbcTemplate.execute("create index idx_transaction_customer_date on transaction (customer_id, date, amount)");
+		jdbcTemplate.update("insert into transaction values (1, 100.29, date '2024-01-01', 1), "
+				+ "(2, 0.01, date '2024-01-02', 1), (3, 1234567.89, date '2024-01-03', 1), (4, 50, null, 1)");
+
+		migration.migrate();
+		// Migrating again does nothing
+		migration.migrate();
+
+		assertEquals(List.of(10029L, 1L, 123456789L, 5000L),
+				jdbcTemplate.queryForList("select amount_cents from transaction order by id", Long.class));
+		assertFalse(jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.columns where table_name = 'TRANSACTION' "
+						+ "and column_name = 'AMOUNT'",
+				Integer.class) > 0);
+		assertEquals("NO", jdbcTemplate.queryForObject("select is_nullable from information_schema.columns "
+				+ "where table_name = 'TRANSACTION' and column_name = 'AMOUNT_CENTS'", String.class));
+	}
+
+	@Test
+	void testMigrate_newDatabase() throws Exception {
+		migration.migrate();
+
+		assertEquals(0, jdbcTemplate.queryForObject(
+				"select count(*) from information_schema.tables where table_name = 'TRANSACTION'", Integer.class));
+	}
+}
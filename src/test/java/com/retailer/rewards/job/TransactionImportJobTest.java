@@ -0,0 +1,138 @@
+package com.retailer.rewards.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.ImportCheckpoint;
+import com.retailer.rewards.model.ImportReport;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.ImportCheckpointRepository;
+import com.retailer.rewards.service.RewardService;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionImportJobTest {
+
+	@Mock
+	private RewardService rewardService;
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@Mock
+	private ImportCheckpointRepository checkpointRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@Spy
+	private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+	@InjectMocks
+	private TransactionImportJob transactionImportJob;
+
+	@TempDir
+	private Path tempDir;
+
+	private List<TransactionRequest> ingested;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		ReflectionTestUtils.setField(transactionImportJob, "batchSize", 2);
+		ingested = new ArrayList<>();
+		doAnswer(invocation -> {
+			((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		when(rewardService.ingestValidatedTransactions(anyList(), any(long[].class))).thenAnswer(invocation -> {
+			List<TransactionRequest> requests = invocation.getArgument(0);
+			long[] rows = invocation.getArgument(1);
+			ingested.addAll(requests);
+			return Arrays.stream(rows).mapToObj(row -> TransactionIngestionResult.accepted(row, row)).toList();
+		});
+	}
+
+	@Test
+	void testImportFile_csv() throws Exception {
+		Path file = tempDir.resolve("history.csv");
+		Files.writeString(file, "customerId,amount,date\n" + "1,120.0,2024-01-10\n" + "not,a,row,at all\n"
+				+ "2,70.0,2024-01-11\n" + "\n" + "1,220.0\n", StandardCharsets.UTF_8);
+		when(checkpointRepository.findById(file.toAbsolutePath().normalize().toString()))
+				.thenReturn(Optional.empty());
+		when(customerRepository.findAllById(anySet())).thenReturn(Arrays.asList(new Customer(1L, "Test Name", null)));
+
+		ImportReport report = transactionImportJob.importFile(file);
+
+		assertEquals(4, report.getRowsRead());
+		assertEquals(2, report.getAccepted());
+		assertEquals(2, report.getRejected());
+		assertEquals(2, ingested.size());
+		assertEquals(120.0, ingested.get(0).getAmount());
+		assertEquals(220.0, ingested.get(1).getAmount());
+
+		// The rows of the accepted requests keep their numbers in the file
+		verify(rewardService, times(1)).ingestValidatedTransactions(anyList(), aryEq(new long[] { 0 }));
+		verify(rewardService, times(1)).ingestValidatedTransactions(anyList(), aryEq(new long[] { 3 }));
+		verify(rewardService, never()).ingestTransactions(anyList(), anyLong());
+
+		ArgumentCaptor<ImportCheckpoint> checkpoint = ArgumentCaptor.forClass(ImportCheckpoint.class);
+		verify(checkpointRepository, times(2)).save(checkpoint.capture());
+		assertEquals(Files.size(file), checkpoint.getValue().getOffset());
+	}
+
+	@Test
+	void testImportFile_resumeFromCheckpoint() throws Exception {
+		Path file = tempDir.resolve("history.ndjson");
+		String firstLine = "{\"customerId\":1,\"amount\":120.0,\"date\":\"2024-01-10\"}\n";
+		Files.writeString(file, firstLine + "{\"customerId\":1,\"amount\":70.0,\"date\":\"2024-01-11\"}\n"
+				+ "{\"customerId\":1,\"amount\":220.0}", StandardCharsets.UTF_8);
+		String source = file.toAbsolutePath().normalize().toString();
+		when(checkpointRepository.findById(source))
+				.thenReturn(Optional.of(new ImportCheckpoint(source, firstLine.length(), 1, 1, 0)));
+		when(customerRepository.findAllById(anySet())).thenReturn(Arrays.asList(new Customer(1L, "Test Name", null)));
+
+		ImportReport report = transactionImportJob.importFile(file);
+
+		assertEquals(firstLine.length(), report.getResumedFromOffset());
+		assertEquals(3, report.getRowsRead());
+		assertEquals(3, report.getAccepted());
+		assertEquals(2, ingested.size());
+		assertEquals(70.0, ingested.get(0).getAmount());
+		verify(rewardService, times(1)).ingestValidatedTransactions(anyList(), aryEq(new long[] { 1, 2 }));
+	}
+}
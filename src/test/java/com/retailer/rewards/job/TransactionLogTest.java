@@ -0,0 +1,99 @@
+package com.retailer.rewards.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.retailer.rewards.job.TransactionLog.LoggedTransaction;
+
+public class TransactionLogTest {
+
+	private static final LocalDate DATE = LocalDate.of(2024, 1, 10);
+
+	@TempDir
+	private Path tempDir;
+
+	@Test
+	void testAppendAndRead_acrossSegments() throws IOException {
+		TransactionLog transactionLog = TransactionLog.open(tempDir, 2, false, 0);
+		for (int i = 0; i < 5; i++) {
+			assertEquals(i, transactionLog.append(1L, 1_000 + i, DATE.plusDays(i)));
+		}
+
+		List<LoggedTransaction> records = transactionLog.read(1, 10);
+
+		assertEquals(4, records.size());
+		assertEquals(new LoggedTransaction(1, 1L, 1_001, DATE.plusDays(1)), records.get(0));
+		assertEquals(new LoggedTransaction(4, 1L, 1_004, DATE.plusDays(4)), records.get(3));
+		assertEquals(3, Files.list(tempDir).count());
+	}
+
+	@Test
+	void testOpen_recoversAppendedRecords() throws IOException {
+		TransactionLog transactionLog = TransactionLog.open(tempDir, 4, false, 0);
+		transactionLog.append(1L, 12_000, DATE);
+		transactionLog.append(2L, 7_550, DATE);
+		transactionLog.append(3L, 5_000, DATE);
+		transactionLog.close();
+
+		TransactionLog reopened = TransactionLog.open(tempDir, 4, false, 1);
+
+		assertEquals(3, reopened.getAppendPosition());
+		assertEquals(List.of(new LoggedTransaction(1, 2L, 7_550, DATE), new LoggedTransaction(2, 3L, 5_000, DATE)),
+				reopened.read(1, 10));
+		assertEquals(3, reopened.append(4L, 100, DATE));
+	}
+
+	@Test
+	void testOpen_stopsAtTornRecord() throws IOException {
+		TransactionLog transactionLog = TransactionLog.open(tempDir, 4, false, 0);
+		transactionLog.append(1L, 12_000, DATE);
+		transactionLog.append(2L, 7_550, DATE);
+		transactionLog.close();
+		// Corrupt the amount of the second record, as a crash in the middle of the
+		// append would
+		try (FileChannel channel = FileChannel.open(Files.list(tempDir).findFirst().get(),
+				StandardOpenOption.WRITE)) {
+			channel.write(ByteBuffer.allocate(8).putLong(0, 1L), TransactionLog.RECORD_SIZE + 8);
+		}
+
+		TransactionLog reopened = TransactionLog.open(tempDir, 4, false, 0);
+
+		assertEquals(1, reopened.getAppendPosition());
+		assertEquals(1, reopened.append(3L, 5_000, DATE));
+		assertEquals(new LoggedTransaction(1, 3L, 5_000, DATE), reopened.read(1, 1).get(0));
+	}
+
+	@Test
+	void testRelease_deletesDrainedSegments() throws IOException {
+		TransactionLog transactionLog = TransactionLog.open(tempDir, 2, false, 0);
+		for (int i = 0; i < 5; i++) {
+			transactionLog.append(1L, 1_000, DATE);
+		}
+
+		transactionLog.release(3);
+
+		assertFalse(Files.exists(tempDir.resolve(String.format("%020d.log", 0))));
+		assertTrue(Files.exists(tempDir.resolve(String.format("%020d.log", 2))));
+		assertEquals(2, transactionLog.read(3, 10).size());
+
+		TransactionLog reopened = TransactionLog.open(tempDir, 2, false, 5);
+
+		assertEquals(5, reopened.getAppendPosition());
+		// The tail segment is kept, as it covers the next append position
+		assertEquals(List.of(tempDir.resolve(String.format("%020d.log", 4))), Files.list(tempDir).toList());
+	}
+
+}
@@ -0,0 +1,168 @@
+package com.retailer.rewards.job;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.retailer.rewards.model.AcceptedTransaction;
+import com.retailer.rewards.model.ImportCheckpoint;
+import com.retailer.rewards.model.IngestionLag;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionRequest;
+import com.retailer.rewards.repository.ImportCheckpointRepository;
+import com.retailer.rewards.service.RewardService;
+
+@ExtendWith(MockitoExtension.class)
+public class WriteBehindIngestionJobTest {
+
+	private static final LocalDate DATE = LocalDate.of(2024, 1, 10);
+
+	@Mock
+	private RewardService rewardService;
+
+	@Mock
+	private ImportCheckpointRepository checkpointRepository;
+
+	@Mock
+	private TransactionTemplate transactionTemplate;
+
+	@InjectMocks
+	private WriteBehindIngestionJob writeBehindIngestionJob;
+
+	@TempDir
+	private Path tempDir;
+
+	private List<TransactionRequest> ingested;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(writeBehindIngestionJob, "batchSize", 2);
+		ReflectionTestUtils.setField(writeBehindIngestionJob, "directory", tempDir);
+		ReflectionTestUtils.setField(writeBehindIngestionJob, "segmentRecords", 16);
+		ingested = new ArrayList<>();
+	}
+
+	@SuppressWarnings("unchecked")
+	private void mockIngestion() {
+		doAnswer(invocation -> {
+			((Consumer<TransactionStatus>) invocation.getArgument(0)).accept(null);
+			return null;
+		}).when(transactionTemplate).executeWithoutResult(any());
+		when(rewardService.ingestTransactions(anyList(), anyLong())).thenAnswer(invocation -> {
+			List<TransactionRequest> requests = invocation.getArgument(0);
+			long firstRow = invocation.getArgument(1);
+			List<TransactionIngestionResult> results = new ArrayList<>();
+			for (TransactionRequest request : requests) {
+				ingested.add(request);
+				long row = firstRow + results.size();
+				results.add(request.getCustomerId() == 1L ? TransactionIngestionResult.accepted(row, row)
+						: TransactionIngestionResult.rejected(row, "Customer not found with ID: 2"));
+			}
+			return results;
+		});
+	}
+
+	@Test
+	void testDrainBatch() throws Exception {
+		when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+		mockIngestion();
+		writeBehindIngestionJob.recover();
+
+		AcceptedTransaction accepted = writeBehindIngestionJob.accept(1L, 120.0, DATE);
+		writeBehindIngestionJob.accept(2L, 70.0, DATE);
+		writeBehindIngestionJob.accept(1L, 75.5, null);
+
+		assertEquals(0, accepted.getPosition());
+		assertEquals(3, writeBehindIngestionJob.lag().getPending());
+		assertEquals(2, writeBehindIngestionJob.drainBatch());
+		assertEquals(1, writeBehindIngestionJob.drainBatch());
+		assertEquals(0, writeBehindIngestionJob.drainBatch());
+
+		assertEquals(3, ingested.size());
+		assertEquals(120.0, ingested.get(0).getAmount());
+		assertEquals(DATE, ingested.get(0).getDate());
+		assertEquals(LocalDate.now(), ingested.get(2).getDate());
+		IngestionLag lag = writeBehindIngestionJob.lag();
+		assertEquals(3, lag.getDrainedPosition());
+		assertEquals(0, lag.getPending());
+		assertEquals(2, lag.getAccepted());
+		assertEquals(1, lag.getRejected());
+		verify(rewardService).ingestTransactions(anyList(), eq(2L));
+	}
+
+	@Test
+	void testRecover_resumesFromCheckpoint() throws Exception {
+		when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+		writeBehindIngestionJob.recover();
+		writeBehindIngestionJob.accept(1L, 120.0, DATE);
+		writeBehindIngestionJob.accept(1L, 70.0, DATE);
+		String source = "write-behind:" + tempDir.toAbsolutePath().normalize();
+		when(checkpointRepository.findById(source)).thenReturn(Optional.of(new ImportCheckpoint(source, 1, 1, 1, 0)));
+		mockIngestion();
+
+		writeBehindIngestionJob.recover();
+
+		assertEquals(1, writeBehindIngestionJob.lag().getPending());
+		assertEquals(1, writeBehindIngestionJob.drainBatch());
+		assertEquals(1, ingested.size());
+		assertEquals(70.0, ingested.get(0).getAmount());
+		ArgumentCaptor<ImportCheckpoint> checkpoint = ArgumentCaptor.forClass(ImportCheckpoint.class);
+		verify(checkpointRepository).save(checkpoint.capture());
+		assertEquals(2, checkpoint.getValue().getOffset());
+		assertEquals(2, checkpoint.getValue().getAccepted());
+	}
+
+	@Test
+	void testDrainBatch_failedBatchIsNotCheckpointed() throws Exception {
+		when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+		writeBehindIngestionJob.recover();
+		writeBehindIngestionJob.accept(1L, 120.0, DATE);
+		doAnswer(invocation -> {
+			throw new IllegalStateException("Database unavailable.");
+		}).when(transactionTemplate).executeWithoutResult(any());
+
+		assertThrows(IllegalStateException.class, () -> writeBehindIngestionJob.drainBatch());
+
+		assertEquals(0, writeBehindIngestionJob.lag().getDrainedPosition());
+		assertEquals(1, writeBehindIngestionJob.lag().getPending());
+	}
+
+	@Test
+	void testAccept_invalidAmount() throws Exception {
+		when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+		writeBehindIngestionJob.recover();
+
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> writeBehindIngestionJob.accept(1L, 0, DATE));
+
+		assertEquals("Amount must be greater than 0.", exception.getMessage());
+		assertEquals(0, writeBehindIngestionJob.lag().getAppendedPosition());
+	}
+
+}
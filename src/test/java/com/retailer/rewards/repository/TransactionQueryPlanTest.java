@@ -0,0 +1,131 @@
+package com.retailer.rewards.repository;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks with the H2 query plans that the customer and date range lookups of
+ * {@link TransactionRepository} are served by the transaction index instead
+ * of scanning the full history of the customer, and that the index covers
+ * the amount so the rows are never read. The plans are taken for the SQL
+ * Hibernate generates for the repository queries, captured by
+ * {@link CapturingStatementInspector}.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "com.retailer.rewards.repository.TransactionQueryPlanTest$CapturingStatementInspector")
+public class TransactionQueryPlanTest {
+
+	private static final String INDEX = "IDX_TRANSACTION_CUSTOMER_DATE";
+
+	private static final LocalDate START_DATE = LocalDate.of(2024, 1, 1);
+
+	private static final LocalDate END_DATE = LocalDate.of(2024, 3, 31);
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		CapturingStatementInspector.STATEMENTS.clear();
+	}
+
+	@Test
+	void testFindDetailsByCustomerIdAndDateBetween_usesIndex() {
+		transactionRepository.findDetailsByCustomerIdAndDateBetween(1L, START_DATE, END_DATE);
+
+		String sql = capturedQuery();
+		String plan = explain(sql);
+
+		// Both the customer and the date range are part of the index condition
+		assertTrue(plan.contains(INDEX + ": CUSTOMER_ID = "), plan);
+		assertTrue(plan.contains("AND DATE >= "), plan);
+		assertCoveredByIndex(sql);
+	}
+
+	@Test
+	void testSumRewardPointsPerMonth_usesIndex() {
+		transactionRepository.sumRewardPointsPerMonth(1L, START_DATE, END_DATE);
+
+		String sql = capturedQuery();
+		String plan = explain(sql);
+
+		assertTrue(plan.contains(INDEX + ": CUSTOMER_ID = "), plan);
+		assertTrue(plan.contains("AND DATE >= "), plan);
+		assertCoveredByIndex(sql);
+	}
+
+	/**
+	 * Returns the last statement Hibernate prepared.
+	 */
+	private String capturedQuery() {
+		List<String> statements = CapturingStatementInspector.STATEMENTS;
+		assertFalse(statements.isEmpty(), "No statement was captured");
+		return statements.get(statements.size() - 1);
+	}
+
+	/**
+	 * Explains a captured statement, binding the customer ID and the date range
+	 * of the test to its parameters.
+	 */
+	private String explain(String sql) {
+		return jdbcTemplate.queryForObject("explain " + sql, String.class, 1L, START_DATE, END_DATE);
+	}
+
+	/**
+	 * Asserts that every transaction column read by a statement, the amount
+	 * included, is stored in the index, so that H2 answers it from the index
+	 * without looking up the rows. H2 does not report covering indexes in its
+	 * plans, so the columns are checked against the index definition instead.
+	 * The primary key is appended to every secondary index and is always
+	 * covered.
+	 */
+	private void assertCoveredByIndex(String sql) {
+		Set<String> indexColumns = new HashSet<>(jdbcTemplate.queryForList(
+				"select column_name from information_schema.index_columns where index_name = ?", String.class,
+				INDEX));
+		indexColumns.add("ID");
+		assertTrue(indexColumns.contains("AMOUNT_CENTS"), indexColumns::toString);
+		assertTrue(sql.contains("t1_0.amount_cents"), sql);
+
+		Matcher columns = Pattern.compile("\\bt1_0\\.(\\w+)").matcher(sql);
+		while (columns.find()) {
+			String column = columns.group(1).toUpperCase(Locale.ROOT);
+			assertTrue(indexColumns.contains(column), () -> column + " is not covered by " + indexColumns);
+		}
+	}
+
+	/**
+	 * Records the SQL of every statement prepared by Hibernate, unchanged.
+	 */
+	public static class CapturingStatementInspector implements StatementInspector {
+
+		private static final long serialVersionUID = 1L;
+
+		static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+		@Override
+		public String inspect(String sql) {
+			STATEMENTS.add(sql);
+			return sql;
+		}
+	}
+}
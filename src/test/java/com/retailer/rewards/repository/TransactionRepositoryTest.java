@@ -0,0 +1,159 @@
+package com.retailer.rewards.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+@DataJpaTest
+public class TransactionRepositoryTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2023, 11, 1);
+
+	private static final LocalDate END_DATE = LocalDate.of(2024, 2, 29);
+
+	@Autowired
+	private CustomerRepository customerRepository;
+
+	@Autowired
+	private TransactionRepository transactionRepository;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	private Customer customer;
+
+	@BeforeEach
+	void setUp() {
+		customer = customerRepository.save(new Customer(null, "Test Name", null));
+	}
+
+	@Test
+	void testSumRewardPointsPerMonth_matchesRewardRules() {
+		Random random = new Random(20240101L);
+		List<Transaction> transactions = new ArrayList<>();
+		// Tier boundaries and amounts that are not exact in binary floating point
+		for (double amount : new double[] { 0.01, 50.0, 50.01, 50.99, 99.99, 100.0, 100.01, 100.29, 100.5, 150.0 }) {
+			transactions.add(new Transaction(null, amount, START_DATE, customer));
+		}
+		for (int i = 0; i < 2000; i++) {
+			double amount = random.nextInt(50_000) / 100.0 + 0.01;
+			LocalDate date = START_DATE.plusDays(random.nextInt(120));
+			transactions.add(new Transaction(null, amount, date, customer));
+		}
+		transactionRepository.saveAll(transactions);
+
+		List<TransactionDetails> details = transactions.stream().map(transaction -> new TransactionDetails(
+				transaction.getId(), customer.getId(), transaction.getAmountCents(), transaction.getDate())).toList();
+		int[] expected = RewardRuleSet.DEFAULT.calculateRewardPointsPerMonth(details, YearMonth.from(START_DATE), 4);
+		int[] actual = new int[4];
+		for (MonthlyRewardPoints points : transactionRepository.sumRewardPointsPerMonth(customer.getId(), START_DATE,
+				END_DATE)) {
+			actual[(int) YearMonth.from(START_DATE).until(YearMonth.of(points.getYear(), points.getMonth()),
+					ChronoUnit.MONTHS)] = Math.toIntExact(points.getPoints());
+		}
+
+		assertArrayEquals(expected, actual);
+	}
+
+	@Test
+	void testSumRewardPointsPerMonth_dateRange() {
+		transactionRepository.saveAll(List.of(new Transaction(null, 120.0, LocalDate.of(2024, 1, 9), customer),
+				new Transaction(null, 220.0, LocalDate.of(2024, 1, 10), customer),
+				new Transaction(null, 70.0, LocalDate.of(2024, 1, 20), customer),
+				new Transaction(null, 70.0, LocalDate.of(2024, 1, 21), customer)));
+
+		List<MonthlyRewardPoints> points = transactionRepository.sumRewardPointsPerMonth(customer.getId(),
+				LocalDate.of(2024, 1, 10), LocalDate.of(2024, 1, 20));
+
+		assertEquals(1, points.size());
+		assertEquals(2024, points.get(0).getYear());
+		assertEquals(1, points.get(0).getMonth());
+		assertEquals(310L, points.get(0).getPoints());
+	}
+
+	@Test
+	void testSumRewardPointsPerCustomerAndMonth() {
+		Customer other = customerRepository.save(new Customer(null, "Other Name", null));
+		transactionRepository.saveAll(List.of(new Transaction(null, 120.0, LocalDate.of(2024, 1, 10), customer),
+				new Transaction(null, 220.0, LocalDate.of(2024, 1, 15), customer),
+				new Transaction(null, 70.0, LocalDate.of(2025, 1, 5), customer),
+				new Transaction(null, 120.0, LocalDate.of(2024, 1, 10), other)));
+
+		List<MonthlyRewardPoints> points;
+		try (Stream<MonthlyRewardPoints> stream = transactionRepository.sumRewardPointsPerCustomerAndMonth()) {
+			points = stream.toList();
+		}
+
+		assertEquals(3, points.size());
+		assertEquals(380L, points.stream().filter(p -> p.getCustomerId().equals(customer.getId()) && p.getYear() == 2024)
+				.findFirst().orElseThrow().getPoints());
+		assertEquals(90L, points.stream().filter(p -> p.getCustomerId().equals(other.getId())).findFirst()
+				.orElseThrow().getPoints());
+	}
+
+	@Test
+	void testFindPageAfter_keysetOrderedByDateAndId() {
+		List<Transaction> saved = transactionRepository.saveAll(List.of(
+				new Transaction(null, 10.0, LocalDate.of(2024, 1, 2), customer),
+				new Transaction(null, 20.0, LocalDate.of(2024, 1, 1), customer),
+				new Transaction(null, 30.0, LocalDate.of(2024, 1, 2), customer),
+				new Transaction(null, 40.0, LocalDate.of(2024, 1, 3), customer)));
+
+		List<TransactionDetails> first = transactionRepository.findFirstPage(customer.getId(), START_DATE, END_DATE,
+				Limit.of(2));
+		TransactionDetails last = first.get(1);
+		List<TransactionDetails> second = transactionRepository.findPageAfter(customer.getId(), START_DATE,
+				END_DATE, last.getDate(), last.getId(), Limit.of(2));
+
+		assertEquals(List.of(saved.get(1).getId(), saved.get(0).getId()),
+				first.stream().map(TransactionDetails::getId).toList());
+		assertEquals(List.of(saved.get(2).getId(), saved.get(3).getId()),
+				second.stream().map(TransactionDetails::getId).toList());
+	}
+
+	@Test
+	void testStreamDetailsByCustomerIdBetweenAndDateBetween_withoutEntities() {
+		Customer other = customerRepository.save(new Customer(null, "Other Name", null));
+		transactionRepository.saveAll(List.of(new Transaction(null, 70.0, LocalDate.of(2024, 1, 20), other),
+				new Transaction(null, 120.0, LocalDate.of(2024, 1, 15), customer),
+				new Transaction(null, 220.0, LocalDate.of(2024, 1, 10), customer),
+				new Transaction(null, 10.0, LocalDate.of(2024, 3, 1), customer)));
+		entityManager.flush();
+		entityManager.clear();
+
+		List<TransactionDetails> details;
+		try (Stream<TransactionDetails> stream = transactionRepository.streamDetailsByCustomerIdBetweenAndDateBetween(
+				customer.getId(), other.getId(), START_DATE, LocalDate.of(2024, 1, 31))) {
+			details = stream.toList();
+		}
+
+		assertEquals(List.of(customer.getId(), customer.getId(), other.getId()),
+				details.stream().map(TransactionDetails::getCustomerId).toList());
+		assertEquals(LocalDate.of(2024, 1, 10), details.get(0).getDate());
+		assertEquals(22000, details.get(0).getAmountCents());
+		assertEquals(120.0, details.get(1).getAmount());
+		// The projection does not load the transactions into the persistence context
+		assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+	}
+}
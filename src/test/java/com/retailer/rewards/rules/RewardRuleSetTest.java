@@ -0,0 +1,89 @@
+package com.retailer.rewards.rules;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.rules.RewardRuleProperties.Promotion;
+import com.retailer.rewards.rules.RewardRuleProperties.Tier;
+
+public class RewardRuleSetTest {
+
+	private static final LocalDate DATE = LocalDate.of(2024, 1, 15);
+
+	@Test
+	void testDefault_matchesRewardCalculator() {
+		Random random = new Random(20240115L);
+		RewardRuleSet compiledDefault = RewardRuleSet.compile(List.of(new Tier(100, 2), new Tier(50, 1)),
+				List.of(new Promotion("none", DATE.minusDays(1), DATE.minusDays(1), 1, List.of())));
+		for (int i = 0; i < 100_000; i++) {
+			long amountCents = i < 20_000 ? i : random.nextInt(10_000_000);
+			int expected = RewardCalculator.calculateRewardPointsFromCents(amountCents);
+			assertEquals(expected, RewardRuleSet.DEFAULT.calculateRewardPointsFromCents(amountCents, DATE),
+					"cents " + amountCents);
+			// The compiled tiers, used as soon as there are promotions
+			assertEquals(expected, compiledDefault.calculateRewardPointsFromCents(amountCents, DATE),
+					"cents " + amountCents);
+		}
+		assertTrue(RewardRuleSet.DEFAULT.isDefault());
+		assertTrue(RewardRuleSet.compile(List.of(new Tier(100, 2), new Tier(50, 1)), List.of()).isDefault());
+	}
+
+	@Test
+	void testCompile_customTiers() {
+		RewardRuleSet rules = RewardRuleSet
+				.compile(List.of(new Tier(200, 3), new Tier(25, 0.5), new Tier(100, 2)), List.of());
+
+		assertFalse(rules.isDefault());
+		assertEquals(0, rules.calculateRewardPointsFromCents(25_00L, DATE));
+		assertEquals(12, rules.calculateRewardPointsFromCents(50_00L, DATE));
+		// 37 points up to $100, then 2 points per dollar
+		assertEquals(77, rules.calculateRewardPointsFromCents(120_00L, DATE));
+		// 237 points up to $200, then 3 points per dollar
+		assertEquals(252, rules.calculateRewardPointsFromCents(205_00L, DATE));
+	}
+
+	@Test
+	void testCompile_promotions() {
+		List<Promotion> promotions = List.of(
+				new Promotion("double", LocalDate.of(2024, 12, 1), LocalDate.of(2024, 12, 31), 2, List.of()),
+				new Promotion("flat", LocalDate.of(2024, 6, 1), LocalDate.of(2024, 6, 1), 1,
+						List.of(new Tier(0, 1))));
+		RewardRuleSet rules = RewardRuleSet.compile(List.of(), promotions);
+
+		assertFalse(rules.isDefault());
+		assertEquals(90, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 11, 30)));
+		assertEquals(180, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 12, 1)));
+		assertEquals(180, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 12, 31)));
+		assertEquals(90, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2025, 1, 1)));
+		assertEquals(120, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 6, 1)));
+		assertEquals(90, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 6, 2)));
+		assertEquals(90, rules.calculateRewardPointsFromCents(120_00L, LocalDate.of(2024, 1, 1)));
+	}
+
+	@Test
+	void testCompile_invalidRules() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> RewardRuleSet.compile(List.of(),
+						List.of(new Promotion("a", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 2, List.of()),
+								new Promotion("b", LocalDate.of(2024, 1, 31), LocalDate.of(2024, 2, 5), 2,
+										List.of()))));
+		assertEquals("Promotion b overlaps promotion a.", exception.getMessage());
+
+		exception = assertThrows(IllegalArgumentException.class, () -> RewardRuleSet.compile(List.of(),
+				List.of(new Promotion("a", LocalDate.of(2024, 2, 1), LocalDate.of(2024, 1, 1), 2, List.of()))));
+		assertEquals("Promotion a requires a start date not after its end date.", exception.getMessage());
+
+		exception = assertThrows(IllegalArgumentException.class,
+				() -> RewardRuleSet.compile(List.of(new Tier(50, 1), new Tier(50, 2)), List.of()));
+		assertEquals("Tier thresholds must be distinct.", exception.getMessage());
+	}
+}
@@ -0,0 +1,110 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.retailer.rewards.repository.CustomerRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class CustomerIdIndexTest {
+
+	@Mock
+	private CustomerRepository customerRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private CustomerIdIndex customerIdIndex;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(customerIdIndex, "refreshInterval", Duration.ofHours(1));
+		ReflectionTestUtils.setField(customerIdIndex, "refreshedNanos", System.nanoTime());
+	}
+
+	@Test
+	void testLoad_rejectsMissingIds() {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		when(customerRepository.streamIds()).thenReturn(Stream.of(1L, 2L, 4L));
+
+		customerIdIndex.load();
+
+		assertTrue(customerIdIndex.mightExist(1L));
+		assertTrue(customerIdIndex.mightExist(2L));
+		assertFalse(customerIdIndex.mightExist(3L));
+		assertTrue(customerIdIndex.mightExist(4L));
+		assertFalse(customerIdIndex.mightExist(0L));
+		assertFalse(customerIdIndex.mightExist(-1L));
+	}
+
+	@Test
+	void testMightExist_aboveLoadedIds() {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		when(customerRepository.streamIds()).thenReturn(Stream.of(1L, 2L, 4L));
+		customerIdIndex.load();
+
+		customerIdIndex.add(10L);
+
+		assertFalse(customerIdIndex.mightExist(3L));
+		// Customers created since the load, e.g. by another instance, are not
+		// rejected before they are added
+		assertTrue(customerIdIndex.mightExist(5L));
+		assertTrue(customerIdIndex.mightExist(9L));
+		assertTrue(customerIdIndex.mightExist(11L));
+	}
+
+	@Test
+	void testMightExist_refreshesAboveLoadedIds() {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		when(customerRepository.streamIds()).thenReturn(Stream.of(1L, 2L));
+		when(customerRepository.streamIdsAbove(2L)).thenReturn(Stream.of(3L, 5L));
+		customerIdIndex.load();
+
+		// Not due yet
+		assertTrue(customerIdIndex.mightExist(4L));
+		verify(customerRepository, never()).streamIdsAbove(2L);
+
+		ReflectionTestUtils.setField(customerIdIndex, "refreshInterval", Duration.ZERO);
+
+		assertFalse(customerIdIndex.mightExist(4L));
+		assertTrue(customerIdIndex.mightExist(5L));
+		verify(customerRepository, times(1)).streamIdsAbove(2L);
+	}
+
+	@Test
+	void testAdd_acrossPages() {
+		customerIdIndex.add(65_535L);
+		customerIdIndex.add(65_536L);
+		customerIdIndex.add(1_000_000L);
+		customerIdIndex.add(3L);
+		ReflectionTestUtils.setField(customerIdIndex, "loadedMaxId", 1_000_000L);
+
+		assertTrue(customerIdIndex.mightExist(65_535L));
+		assertTrue(customerIdIndex.mightExist(65_536L));
+		assertFalse(customerIdIndex.mightExist(65_537L));
+		assertFalse(customerIdIndex.mightExist(999_999L));
+		assertTrue(customerIdIndex.mightExist(1_000_000L));
+		assertTrue(customerIdIndex.mightExist(3L));
+		assertFalse(customerIdIndex.mightExist(131_072L));
+	}
+
+}
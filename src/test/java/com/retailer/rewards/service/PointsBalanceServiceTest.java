@@ -0,0 +1,199 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.retailer.rewards.model.Customer;
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.PointsBalance;
+import com.retailer.rewards.model.PointsBalanceResponse;
+import com.retailer.rewards.model.PointsBalanceSnapshot;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.PointsEventType;
+import com.retailer.rewards.model.PointsReplay;
+import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
+import com.retailer.rewards.repository.PointsBalanceRepository;
+import com.retailer.rewards.repository.PointsBalanceSnapshotRepository;
+import com.retailer.rewards.repository.PointsEventRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class PointsBalanceServiceTest {
+
+	private static final LocalDate DATE = LocalDate.of(2024, 1, 10);
+
+	@Mock
+	private PointsEventRepository eventRepository;
+
+	@Mock
+	private PointsBalanceRepository balanceRepository;
+
+	@Mock
+	private PointsBalanceSnapshotRepository snapshotRepository;
+
+	@Mock
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@InjectMocks
+	private PointsBalanceService pointsBalanceService;
+
+	private Customer customer;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(pointsBalanceService, "snapshotInterval", 3);
+		customer = new Customer(1L, "Test Name", null);
+	}
+
+	private void mockEventIds() {
+		// Events get their IDs when saved, in order
+		when(eventRepository.saveAll(anyList())).thenAnswer(invocation -> {
+			List<PointsEvent> events = invocation.getArgument(0);
+			for (int i = 0; i < events.size(); i++) {
+				events.get(i).setId(20L + i);
+			}
+			return events;
+		});
+	}
+
+	@Test
+	void testRecordEarned_appliesEventsAndSnapshots() {
+		PointsBalance balance = new PointsBalance(1L, 500, 10L, 4, 1);
+		when(balanceRepository.findForUpdate(1L)).thenReturn(Optional.of(balance));
+		mockEventIds();
+
+		pointsBalanceService.recordEarned(List.of(new Transaction(1L, 120.0, DATE, customer),
+				new Transaction(2L, 75.5, DATE, customer), new Transaction(3L, 220.0, DATE, customer)),
+				new int[] { 90, 25, 290 });
+
+		assertEquals(905, balance.getPoints());
+		assertEquals(22L, balance.getLastEventId());
+		assertEquals(7, balance.getLastSequence());
+		assertEquals(1, balance.getEventsSinceSnapshot());
+		ArgumentCaptor<PointsBalanceSnapshot> snapshot = ArgumentCaptor.forClass(PointsBalanceSnapshot.class);
+		verify(snapshotRepository).save(snapshot.capture());
+		assertEquals(21L, snapshot.getValue().getLastEventId());
+		assertEquals(6, snapshot.getValue().getLastSequence());
+		assertEquals(615, snapshot.getValue().getPoints());
+		ArgumentCaptor<Iterable<PointsBalance>> balances = captor();
+		verify(balanceRepository).saveAll(balances.capture());
+		assertEquals(balance, balances.getValue().iterator().next());
+	}
+
+	@Test
+	void testRecordEarned_replaysMissingBalanceFromSnapshot() {
+		when(balanceRepository.findForUpdate(1L)).thenReturn(Optional.empty());
+		when(snapshotRepository.findFirstByCustomerIdOrderByLastSequenceDesc(1L))
+				.thenReturn(Optional.of(new PointsBalanceSnapshot(4L, 1L, 15L, 6, 300)));
+		when(eventRepository.sumPointsAfter(1L, 6)).thenReturn(new PointsReplay(40L, 2L, 8L));
+		// Concurrent writers allocate event IDs from their own blocks, so the last
+		// event in sequence does not have the highest ID
+		when(eventRepository.findFirstByCustomerIdOrderBySequenceDesc(1L))
+				.thenReturn(Optional.of(new PointsEvent(12L, 1L, 9L, PointsEventType.EARNED, 10, DATE, 8)));
+		mockEventIds();
+		ArgumentCaptor<Iterable<PointsBalance>> balances = captor();
+
+		pointsBalanceService.recordEarned(List.of(new Transaction(1L, 120.0, DATE, customer)), new int[] { 90 });
+
+		verify(balanceRepository).saveAll(balances.capture());
+		PointsBalance balance = balances.getValue().iterator().next();
+		assertEquals(430, balance.getPoints());
+		assertEquals(20L, balance.getLastEventId());
+		assertEquals(9, balance.getLastSequence());
+		assertEquals(0, balance.getEventsSinceSnapshot());
+		verify(snapshotRepository).save(Mockito.any(PointsBalanceSnapshot.class));
+	}
+
+	@Test
+	void testRecordEarned_locksBalancesInCustomerIdOrder() {
+		Customer other = new Customer(2L, "Other Name", null);
+		PointsBalance balance = new PointsBalance(1L, 500, 10L, 4, 0);
+		PointsBalance otherBalance = new PointsBalance(2L, 100, 11L, 1, 0);
+		when(balanceRepository.findForUpdate(1L)).thenReturn(Optional.of(balance));
+		when(balanceRepository.findForUpdate(2L)).thenReturn(Optional.of(otherBalance));
+		mockEventIds();
+
+		pointsBalanceService.recordEarned(List.of(new Transaction(1L, 120.0, DATE, other),
+				new Transaction(2L, 75.5, DATE, customer), new Transaction(3L, 220.0, DATE, other)),
+				new int[] { 90, 25, 290 });
+
+		InOrder locks = inOrder(balanceRepository);
+		locks.verify(balanceRepository).findForUpdate(1L);
+		locks.verify(balanceRepository).findForUpdate(2L);
+		assertEquals(5, balance.getLastSequence());
+		assertEquals(3, otherBalance.getLastSequence());
+		assertEquals(480, otherBalance.getPoints());
+	}
+
+	@Test
+	void testRecordReversal_takesBackEarnedPoints() {
+		Transaction transaction = new Transaction(5L, 120.0, DATE, customer);
+		PointsBalance balance = new PointsBalance(1L, 500, 10L, 1, 0);
+		when(balanceRepository.findForUpdate(1L)).thenReturn(Optional.of(balance));
+		mockEventIds();
+		when(eventRepository.findFirstByTransactionIdAndType(5L, PointsEventType.EARNED))
+				.thenReturn(Optional.of(new PointsEvent(8L, 1L, 5L, PointsEventType.EARNED, 180, DATE, 1)));
+
+		PointsEvent reversal = pointsBalanceService.recordReversal(transaction, 90);
+
+		assertEquals(PointsEventType.REVERSED, reversal.getType());
+		assertEquals(-180, reversal.getPoints());
+		assertEquals(5L, reversal.getTransactionId());
+		assertEquals(320, balance.getPoints());
+		verify(snapshotRepository, never()).save(Mockito.any(PointsBalanceSnapshot.class));
+	}
+
+	@Test
+	void testGetBalance_withPeriod() {
+		when(balanceRepository.findById(1L)).thenReturn(Optional.of(new PointsBalance(1L, 905, 22L, 7, 1)));
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2024, 2024)).thenReturn(
+				List.of(new MonthlyRewardLedger(1L, 2024, 1, 115), new MonthlyRewardLedger(1L, 2024, 2, 290)));
+
+		PointsBalanceResponse year = pointsBalanceService.getBalance(1L, 2024, null);
+		PointsBalanceResponse month = pointsBalanceService.getBalance(1L, 2024, 2);
+
+		assertEquals(905, year.getLifetimePoints());
+		assertEquals(22L, year.getLastEventId());
+		assertEquals(405, year.getPeriodPoints());
+		assertEquals(290, month.getPeriodPoints());
+	}
+
+	@Test
+	void testGetBalance_withoutEvents() {
+		when(balanceRepository.findById(1L)).thenReturn(Optional.empty());
+		when(snapshotRepository.findFirstByCustomerIdOrderByLastSequenceDesc(1L)).thenReturn(Optional.empty());
+		when(eventRepository.sumPointsAfter(1L, 0)).thenReturn(new PointsReplay(0L, 0L, 0L));
+
+		PointsBalanceResponse balance = pointsBalanceService.getBalance(1L, null, null);
+
+		assertEquals(0, balance.getLifetimePoints());
+		assertNull(balance.getLastEventId());
+		assertNull(balance.getPeriodPoints());
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static ArgumentCaptor<Iterable<PointsBalance>> captor() {
+		return (ArgumentCaptor) ArgumentCaptor.forClass(Iterable.class);
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class RankTreeTest {
+
+	@Test
+	void testRankAndTop() {
+		RankTree tree = new RankTree();
+		tree.insert(1L, 90);
+		tree.insert(2L, 290);
+		tree.insert(3L, 90);
+		tree.insert(4L, 25);
+
+		assertEquals(4, tree.size());
+		assertEquals(1, tree.rank(2L, 290));
+		// Equal points are ranked by customer ID
+		assertEquals(2, tree.rank(1L, 90));
+		assertEquals(3, tree.rank(3L, 90));
+		assertEquals(4, tree.rank(4L, 25));
+
+		List<Long> top = new ArrayList<>();
+		tree.top(3, (customerId, points) -> top.add(customerId));
+		assertEquals(List.of(2L, 1L, 3L), top);
+
+		tree.remove(2L, 290);
+		assertEquals(3, tree.size());
+		assertEquals(1, tree.rank(1L, 90));
+	}
+
+	@Test
+	void testMatchesSortedOrder() {
+		Random random = new Random(42);
+		RankTree tree = new RankTree();
+		Map<Long, Long> points = new HashMap<>();
+		for (int i = 0; i < 5000; i++) {
+			long customerId = random.nextInt(500);
+			Long current = points.get(customerId);
+			if (current != null) {
+				tree.remove(customerId, current);
+			}
+			long updated = random.nextInt(1000);
+			tree.insert(customerId, updated);
+			points.put(customerId, updated);
+		}
+
+		List<Map.Entry<Long, Long>> sorted = new ArrayList<>(points.entrySet());
+		sorted.sort(Comparator.comparing((Map.Entry<Long, Long> entry) -> -entry.getValue())
+				.thenComparing(Map.Entry::getKey));
+		assertEquals(sorted.size(), tree.size());
+		for (int i = 0; i < sorted.size(); i++) {
+			assertEquals(i + 1, tree.rank(sorted.get(i).getKey(), sorted.get(i).getValue()));
+		}
+		List<Long> top = new ArrayList<>();
+		tree.top(sorted.size() + 10, (customerId, customerPoints) -> top.add(customerId));
+		assertEquals(sorted.stream().map(Map.Entry::getKey).toList(), top);
+	}
+
+}
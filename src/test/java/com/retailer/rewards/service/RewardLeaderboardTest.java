@@ -0,0 +1,154 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.retailer.rewards.model.LeaderboardEntry;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class RewardLeaderboardTest {
+
+	private static final int YEAR = LocalDate.now().getYear();
+
+	@Mock
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private RewardLeaderboard rewardLeaderboard;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(rewardLeaderboard, "retainedYears", 2);
+	}
+
+	private void loadLedger(MonthlyRewardPoints... entries) {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		when(ledgerRepository.streamPointsFromYear(YEAR - 1)).thenReturn(Stream.of(entries));
+		rewardLeaderboard.load();
+	}
+
+	@Test
+	void testLoad_ranksMonthsAndYears() {
+		loadLedger(new MonthlyRewardPoints(1L, YEAR, 1, 90L), new MonthlyRewardPoints(2L, YEAR, 1, 290L),
+				new MonthlyRewardPoints(1L, YEAR, 2, 250L), new MonthlyRewardPoints(3L, YEAR - 1, 12, 500L));
+
+		List<LeaderboardEntry> january = rewardLeaderboard.getTop(YEAR, 1, 10);
+		List<LeaderboardEntry> year = rewardLeaderboard.getTop(YEAR, null, 10);
+
+		assertEquals(2, january.size());
+		assertEquals(2L, january.get(0).getCustomerId());
+		assertEquals(1, january.get(0).getRank());
+		assertEquals(1L, year.get(0).getCustomerId());
+		assertEquals(340, year.get(0).getPoints());
+		assertEquals(2, rewardLeaderboard.getRank(2L, YEAR, null).getRank());
+		assertEquals(1, rewardLeaderboard.getRank(3L, YEAR - 1, 12).getRank());
+	}
+
+	@Test
+	void testAddPoints_updatesRanks() {
+		loadLedger(new MonthlyRewardPoints(1L, YEAR, 1, 90L), new MonthlyRewardPoints(2L, YEAR, 1, 290L));
+
+		rewardLeaderboard.addPoints(1L, YearMonth.of(YEAR, 1), 250);
+
+		LeaderboardEntry first = rewardLeaderboard.getRank(1L, YEAR, 1);
+		assertEquals(1, first.getRank());
+		assertEquals(340, first.getPoints());
+		assertEquals(2, rewardLeaderboard.getRank(2L, YEAR, null).getRank());
+
+		// Customers whose points are all taken back leave the leaderboard
+		rewardLeaderboard.addPoints(2L, YearMonth.of(YEAR, 1), -290);
+		LeaderboardEntry reversed = rewardLeaderboard.getRank(2L, YEAR, 1);
+		assertNull(reversed.getRank());
+		assertEquals(0, reversed.getPoints());
+		assertEquals(1, rewardLeaderboard.getTop(YEAR, 1, 10).size());
+	}
+
+	@Test
+	void testAddPoints_ignoresYearsNotRetained() {
+		loadLedger();
+
+		rewardLeaderboard.addPoints(1L, YearMonth.of(YEAR - 2, 1), 90);
+
+		assertTrue(rewardLeaderboard.getTop(YEAR, null, 10).isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> rewardLeaderboard.getTop(YEAR - 2, null, 10));
+	}
+
+	@Test
+	void testAddPoints_waitsForReload() throws Exception {
+		ReentrantReadWriteLock reloadLock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(rewardLeaderboard,
+				"reloadLock");
+		Thread adder = new Thread(() -> rewardLeaderboard.addPoints(1L, YearMonth.of(YEAR, 1), 250));
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+		when(ledgerRepository.streamPointsFromYear(YEAR - 1))
+				.thenReturn(Stream.of(new MonthlyRewardPoints(1L, YEAR, 1, 90L)).peek(entry -> {
+					// Points committed while the ledger is read wait for the new leaderboards
+					adder.start();
+					while (adder.isAlive() && !reloadLock.hasQueuedThread(adder)) {
+						Thread.onSpinWait();
+					}
+				}));
+
+		rewardLeaderboard.load();
+		adder.join();
+
+		assertEquals(340, rewardLeaderboard.getRank(1L, YEAR, 1).getPoints());
+		assertEquals(340, rewardLeaderboard.getRank(1L, YEAR, null).getPoints());
+	}
+
+	@Test
+	void testAddPoints_rolledBack() {
+		loadLedger(new MonthlyRewardPoints(1L, YEAR, 1, 90L));
+
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			rewardLeaderboard.addPoints(1L, YearMonth.of(YEAR, 1), 250);
+			List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager
+					.getSynchronizations();
+			synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+			synchronizations.forEach(
+					synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+		} finally {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+
+		assertEquals(90, rewardLeaderboard.getRank(1L, YEAR, 1).getPoints());
+		ReentrantReadWriteLock reloadLock = (ReentrantReadWriteLock) ReflectionTestUtils.getField(rewardLeaderboard,
+				"reloadLock");
+		assertEquals(0, reloadLock.getReadLockCount());
+	}
+
+	@Test
+	void testGetTop_invalidPeriod() {
+		assertThrows(IllegalArgumentException.class, () -> rewardLeaderboard.getTop(YEAR, 13, 10));
+		assertThrows(IllegalArgumentException.class, () -> rewardLeaderboard.getTop(YEAR + 1, null, 10));
+		assertThrows(IllegalArgumentException.class, () -> rewardLeaderboard.getTop(YEAR, null, 0));
+	}
+
+}
@@ -1,33 +1,74 @@
 package com.retailer.rewards.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.Month;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.retailer.rewards.exceptionHandler.CustomerNotFoundException;
+import com.retailer.rewards.exceptionHandler.TransactionNotFoundException;
 import com.retailer.rewards.model.Customer;
 import com.retailer.rewards.model.MonthRewardSummary;
+import com.retailer.rewards.model.MonthlyRewardLedger;
+import com.retailer.rewards.model.MonthlyRewardPoints;
+import com.retailer.rewards.model.PointsEvent;
+import com.retailer.rewards.model.PointsEventType;
+import com.retailer.rewards.model.RewardSummaryBatchRequest;
 import com.retailer.rewards.model.RewardSummaryResponse;
 import com.retailer.rewards.model.Transaction;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.model.TransactionIngestionResult;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.model.TransactionPage;
+import com.retailer.rewards.model.TransactionRequest;
 import com.retailer.rewards.repository.CustomerRepository;
+import com.retailer.rewards.repository.MonthlyRewardLedgerRepository;
 import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleProperties.Promotion;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 @ExtendWith(MockitoExtension.class)
 public class RewardServiceTest {
@@ -38,6 +79,30 @@ public class RewardServiceTest {
 	@Mock
 	private TransactionRepository transactionRepository;
 
+	@Mock
+	private MonthlyRewardLedgerRepository ledgerRepository;
+
+	@Spy
+	private RewardSummaryCache rewardSummaryCache = new RewardSummaryCache(100, Duration.ofMinutes(1));
+
+	@Spy
+	private RewardRuleSet rewardRules = RewardRuleSet.DEFAULT;
+
+	@Mock
+	private PointsBalanceService pointsBalanceService;
+
+	@Mock
+	private RewardLeaderboard rewardLeaderboard;
+
+	@Spy
+	private CustomerIdIndex customerIdIndex = new CustomerIdIndex();
+
+	@Spy
+	private CustomerCache customerCache = new CustomerCache(100);
+
+	@Spy
+	private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
 	@InjectMocks
 	private RewardService rewardService;
 
@@ -46,6 +111,9 @@ public class RewardServiceTest {
 
 	@BeforeEach
 	void setUp() {
+		// The index is never refreshed, as there is no database behind it
+		ReflectionTestUtils.setField(customerIdIndex, "refreshInterval", Duration.ofHours(1));
+		ReflectionTestUtils.setField(customerIdIndex, "refreshedNanos", System.nanoTime());
 		customer = new Customer(1L, "Test Name", Arrays.asList(transaction));
 		transaction = new Transaction(1L, 120.0, LocalDate.now(), customer);
 	}
@@ -71,12 +139,19 @@ public class RewardServiceTest {
 	@Test
 	void testGetCustomer() {
 		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(transactionRepository.findByCustomerId(1L)).thenReturn(List.of(transaction));
 
 		Customer result = rewardService.getCustomer(1L);
+		Customer cached = rewardService.getCustomer(1L);
 
 		assertNotNull(result);
 		assertEquals(1L, result.getId());
+		assertEquals("Test Name", cached.getName());
+		assertEquals(List.of(transaction), cached.getTransactions());
+		// The name is read through the customer cache, only the transactions are
+		// queried every time
 		verify(customerRepository, times(1)).findById(1L);
+		verify(transactionRepository, times(2)).findByCustomerId(1L);
 	}
 
 	@Test
@@ -90,23 +165,218 @@ public class RewardServiceTest {
 
 	@Test
 	void testCreateTransaction() {
-		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-		when(transactionRepository.save(Mockito.any(Transaction.class))).thenReturn(transaction);
+		when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenReturn(transaction);
 
 		Transaction result = rewardService.createTransaction(1L, 120.0, null);
 
 		assertNotNull(result);
 		assertEquals(120.0, result.getAmount());
-		verify(transactionRepository, times(1)).save(Mockito.any(Transaction.class));
+		verify(transactionRepository, times(1)).saveAndFlush(Mockito.any(Transaction.class));
+		verify(customerRepository, never()).findById(1L);
+		// The update is retried under the lock of the customer before inserting
+		verify(ledgerRepository, times(2)).addPoints(1L, transaction.getDate().getYear(),
+				transaction.getDate().getMonthValue(), 90);
+		verify(customerRepository, times(1)).findForUpdate(1L);
+		verify(ledgerRepository, times(1)).save(Mockito.any(MonthlyRewardLedger.class));
+		verify(pointsBalanceService, times(1)).recordEarned(List.of(transaction), new int[] { 90 });
+		verify(rewardLeaderboard, times(1)).addPoints(1L, YearMonth.from(transaction.getDate()), 90);
+	}
+
+	@Test
+	void testCreateTransaction_existingLedgerEntry() {
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenReturn(transaction);
+		when(ledgerRepository.addPoints(1L, transaction.getDate().getYear(), transaction.getDate().getMonthValue(),
+				90)).thenReturn(1);
+
+		rewardService.createTransaction(1L, 120.0, null);
+
+		verify(ledgerRepository, times(0)).save(Mockito.any(MonthlyRewardLedger.class));
+		verify(customerRepository, never()).findForUpdate(1L);
+	}
+
+	@Test
+	void testCreateTransaction_ledgerEntryCreatedConcurrently() {
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenReturn(transaction);
+		// Another transaction created the entry while this one waited for the lock
+		when(ledgerRepository.addPoints(1L, transaction.getDate().getYear(), transaction.getDate().getMonthValue(),
+				90)).thenReturn(0, 1);
+
+		rewardService.createTransaction(1L, 120.0, null);
+
+		verify(customerRepository, times(1)).findForUpdate(1L);
+		verify(ledgerRepository, never()).save(Mockito.any(MonthlyRewardLedger.class));
 	}
 
 	@Test
 	void testCreateTransaction_customerNotFound() {
-		when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
+				.thenThrow(new DataIntegrityViolationException("Referential integrity constraint violation",
+						new ConstraintViolationException("could not execute statement",
+								new SQLException("Referential integrity constraint violation: "
+										+ "\"FK_TRANSACTION_CUSTOMER: PUBLIC.TRANSACTION FOREIGN KEY(CUSTOMER_ID) "
+										+ "REFERENCES PUBLIC.CUSTOMER(ID) (CAST(1 AS BIGINT))\"", "23506"),
+								"insert into transaction", "K_TRANSACTION_CUSTOMER")));
 
 		CustomerNotFoundException exception = assertThrows(CustomerNotFoundException.class,
 				() -> rewardService.createTransaction(1L, 120.0, LocalDate.now()));
 		assertEquals("Customer not found with ID: 1", exception.getMessage());
+		verify(ledgerRepository, never()).addPoints(Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+				Mockito.anyInt());
+	}
+
+	@Test
+	void testCreateTransaction_invalidAmounts() {
+		assertEquals("Amount must be a finite number.", assertThrows(IllegalArgumentException.class,
+				() -> rewardService.createTransaction(1L, Double.POSITIVE_INFINITY, null)).getMessage());
+		assertEquals("Amount must be a finite number.", assertThrows(IllegalArgumentException.class,
+				() -> rewardService.createTransaction(1L, Double.NaN, null)).getMessage());
+		assertEquals("Amount cannot be greater than 10000000.00.", assertThrows(IllegalArgumentException.class,
+				() -> rewardService.createTransaction(1L, 10_000_000.01, null)).getMessage());
+		verify(transactionRepository, never()).saveAndFlush(Mockito.any(Transaction.class));
+	}
+
+	@Test
+	void testCreateTransaction_otherIntegrityViolationRethrown() {
+		DataIntegrityViolationException violation = new DataIntegrityViolationException("NULL not allowed",
+				new ConstraintViolationException("could not execute statement",
+						new SQLException("NULL not allowed for column \"DATE\"", "23502"), "insert into transaction",
+						null));
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenThrow(violation);
+
+		assertSame(violation, assertThrows(DataIntegrityViolationException.class,
+				() -> rewardService.createTransaction(1L, 120.0, LocalDate.now())));
+	}
+
+	@Test
+	void testGetCustomerName_cached() {
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+
+		assertEquals("Test Name", rewardService.getCustomerName(1L));
+		assertEquals("Test Name", rewardService.getCustomerName(1L));
+
+		verify(customerRepository, times(1)).findById(1L);
+	}
+
+	@Test
+	void testGetCustomerName_cachedByCreateCustomer() {
+		when(customerRepository.save(Mockito.any(Customer.class))).thenReturn(customer);
+
+		rewardService.createCustomer("Test Name");
+
+		assertEquals("Test Name", rewardService.getCustomerName(1L));
+		verify(customerRepository, never()).findById(1L);
+	}
+
+	@Test
+	void testReverseTransaction() {
+		PointsEvent reversal = new PointsEvent(7L, 1L, 1L, PointsEventType.REVERSED, -90, transaction.getDate(), 2);
+		when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+		when(pointsBalanceService.recordReversal(transaction, 90)).thenReturn(reversal);
+		when(ledgerRepository.addPoints(1L, transaction.getDate().getYear(), transaction.getDate().getMonthValue(),
+				-90)).thenReturn(1);
+
+		PointsEvent result = rewardService.reverseTransaction(1L);
+
+		assertSame(reversal, result);
+		verify(transactionRepository, times(1)).delete(transaction);
+		verify(ledgerRepository, never()).save(Mockito.any(MonthlyRewardLedger.class));
+		verify(rewardLeaderboard, times(1)).addPoints(1L, YearMonth.from(transaction.getDate()), -90);
+	}
+
+	@Test
+	void testReverseTransaction_takesRecordedPointsOffTheLedger() {
+		// The transaction earned 180 points under the rules it was created with
+		PointsEvent reversal = new PointsEvent(7L, 1L, 1L, PointsEventType.REVERSED, -180, transaction.getDate(), 2);
+		when(transactionRepository.findById(1L)).thenReturn(Optional.of(transaction));
+		when(pointsBalanceService.recordReversal(transaction, 90)).thenReturn(reversal);
+		when(ledgerRepository.addPoints(1L, transaction.getDate().getYear(), transaction.getDate().getMonthValue(),
+				-180)).thenReturn(1);
+
+		rewardService.reverseTransaction(1L);
+
+		verify(ledgerRepository, never()).addPoints(1L, transaction.getDate().getYear(),
+				transaction.getDate().getMonthValue(), -90);
+		verify(rewardLeaderboard, times(1)).addPoints(1L, YearMonth.from(transaction.getDate()), -180);
+	}
+
+	@Test
+	void testReverseTransaction_notFound() {
+		when(transactionRepository.findById(1L)).thenReturn(Optional.empty());
+
+		TransactionNotFoundException exception = assertThrows(TransactionNotFoundException.class,
+				() -> rewardService.reverseTransaction(1L));
+		assertEquals("Transaction not found with ID: 1", exception.getMessage());
+	}
+
+	@Test
+	void testGetPointsBalance_invalidMonth() {
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.getPointsBalance(1L, null, 3));
+		assertEquals("Month must be between 1 and 12 and given with a year.", exception.getMessage());
+		verify(pointsBalanceService, never()).getBalance(1L, null, 3);
+	}
+
+	@Test
+	void testIngestTransactions() {
+		List<TransactionRequest> requests = Arrays.asList(new TransactionRequest(1L, 120.0, LocalDate.of(2024, 1, 10)),
+				new TransactionRequest(2L, 120.0, LocalDate.of(2024, 1, 10)),
+				new TransactionRequest(1L, 0, LocalDate.of(2024, 1, 10)), new TransactionRequest(null, 120.0, null),
+				new TransactionRequest(1L, 220.0, LocalDate.of(2024, 1, 15)));
+
+		when(customerRepository.findAllById(Mockito.anySet())).thenReturn(Arrays.asList(customer));
+		when(transactionRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+			List<Transaction> transactions = invocation.getArgument(0);
+			for (int i = 0; i < transactions.size(); i++) {
+				transactions.get(i).setId(100L + i);
+			}
+			return transactions;
+		});
+
+		List<TransactionIngestionResult> results = rewardService.ingestTransactions(requests, 10);
+
+		assertEquals(5, results.size());
+		assertEquals(10, results.get(0).getRow());
+		assertEquals(true, results.get(0).isAccepted());
+		assertEquals(100L, results.get(0).getTransactionId());
+		assertEquals("Customer not found with ID: 2", results.get(1).getMessage());
+		assertEquals("Amount must be greater than 0.", results.get(2).getMessage());
+		assertEquals("Customer ID cannot be null.", results.get(3).getMessage());
+		assertEquals(14, results.get(4).getRow());
+		assertEquals(101L, results.get(4).getTransactionId());
+		verify(customerRepository, times(1)).findAllById(Mockito.anySet());
+		verify(transactionRepository, times(1)).saveAll(Mockito.anyList());
+		verify(ledgerRepository, times(2)).addPoints(1L, 2024, 1, 380);
+	}
+
+	@Test
+	void testIngestValidatedTransactions() {
+		List<TransactionRequest> requests = Arrays.asList(new TransactionRequest(1L, 120.0, LocalDate.of(2024, 1, 10)),
+				new TransactionRequest(1L, 0, LocalDate.of(2024, 1, 10)),
+				new TransactionRequest(1L, 220.0, LocalDate.of(2024, 1, 15)));
+
+		when(customerRepository.getReferenceById(1L)).thenReturn(customer);
+		when(transactionRepository.saveAll(Mockito.anyList())).thenAnswer(invocation -> {
+			List<Transaction> transactions = invocation.getArgument(0);
+			for (int i = 0; i < transactions.size(); i++) {
+				transactions.get(i).setId(100L + i);
+			}
+			return transactions;
+		});
+
+		List<TransactionIngestionResult> results = rewardService.ingestValidatedTransactions(requests,
+				new long[] { 3, 7, 12 });
+
+		assertEquals(3, results.size());
+		assertEquals(3, results.get(0).getRow());
+		assertEquals(100L, results.get(0).getTransactionId());
+		assertEquals(7, results.get(1).getRow());
+		assertEquals("Amount must be greater than 0.", results.get(1).getMessage());
+		assertEquals(12, results.get(2).getRow());
+		assertEquals(101L, results.get(2).getTransactionId());
+		verify(customerRepository, never()).findAllById(Mockito.anySet());
+		verify(customerRepository, times(1)).getReferenceById(1L);
+		verify(ledgerRepository, times(2)).addPoints(1L, 2024, 1, 380);
 	}
 
 	@Test
@@ -114,13 +384,15 @@ public class RewardServiceTest {
 		LocalDate startDate = LocalDate.of(2024, 1, 1);
 		LocalDate endDate = LocalDate.of(2024, 1, 31);
 
-		Transaction t1 = new Transaction(1L, 120.0, LocalDate.of(2024, 1, 10), customer);
-		Transaction t2 = new Transaction(2L, 220.0, LocalDate.of(2024, 1, 15), customer);
-		List<Transaction> transactions = Arrays.asList(t1, t2);
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 22000, LocalDate.of(2024, 1, 15));
+		List<TransactionDetails> transactions = Arrays.asList(t1, t2);
 
 		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
-		when(transactionRepository.findTransactionsByCustomerIdAndDateBetween(1L, startDate, endDate))
+		when(transactionRepository.findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate))
 				.thenReturn(transactions);
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2024, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2024, 1, 380)));
 
 		RewardSummaryResponse response = rewardService.getRewardsSummary(1L, startDate, endDate);
 
@@ -137,7 +409,332 @@ public class RewardServiceTest {
 		assertEquals(380, monthRewardSummary.getPoints());
 
 		verify(customerRepository, times(1)).findById(1L);
-		verify(transactionRepository, times(1)).findTransactionsByCustomerIdAndDateBetween(1L, startDate, endDate);
+		verify(transactionRepository, times(1)).findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate);
+		DistributionSummary loaded = meterRegistry.get("rewards.summary.transactions.loaded").summary();
+		assertEquals(1, loaded.count());
+		assertEquals(2, loaded.totalAmount());
+	}
+
+	@Test
+	void testGetRewardsSummary_partialMonths() {
+		LocalDate startDate = LocalDate.of(2023, 12, 15);
+		LocalDate endDate = LocalDate.of(2024, 2, 10);
+
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2023, 12, 20));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 7000, LocalDate.of(2024, 2, 5));
+		List<TransactionDetails> transactions = Arrays.asList(t1, t2);
+
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(transactionRepository.findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate))
+				.thenReturn(transactions);
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2023, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2023, 12, 500),
+						new MonthlyRewardLedger(1L, 2024, 1, 250), new MonthlyRewardLedger(1L, 2024, 2, 300)));
+		when(transactionRepository.sumRewardPointsPerMonth(1L, startDate, LocalDate.of(2023, 12, 31)))
+				.thenReturn(Arrays.asList(new MonthlyRewardPoints(1L, 2023, 12, 90L)));
+		when(transactionRepository.sumRewardPointsPerMonth(1L, LocalDate.of(2024, 2, 1), endDate))
+				.thenReturn(Arrays.asList(new MonthlyRewardPoints(1L, 2024, 2, 20L)));
+
+		RewardSummaryResponse response = rewardService.getRewardsSummary(1L, startDate, endDate);
+
+		assertEquals(3, response.getRewardPointsPerMonth().size());
+		assertEquals(90, response.getRewardPointsPerMonth().get(0).getPoints());
+		assertEquals(250, response.getRewardPointsPerMonth().get(1).getPoints());
+		assertEquals(20, response.getRewardPointsPerMonth().get(2).getPoints());
+		assertEquals(360, response.getTotalRewardPoints());
+	}
+
+	@Test
+	void testGetRewardsSummary_withoutTransactions() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2024, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2024, 1, 380)));
+
+		RewardSummaryResponse response = rewardService.getRewardsSummary(1L, startDate, endDate, false);
+
+		assertNull(response.getTransactions());
+		assertEquals(380, response.getTotalRewardPoints());
+		verify(transactionRepository, never()).findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate);
+		assertNull(meterRegistry.find("rewards.summary.transactions.loaded").summary());
+	}
+
+	@Test
+	void testGetRewardsSummary_cachedUntilTransactionInRange() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2024, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2024, 1, 380)));
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		when(ledgerRepository.addPoints(Mockito.eq(1L), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+				.thenReturn(1);
+
+		RewardSummaryResponse first = rewardService.getRewardsSummary(1L, startDate, endDate, false);
+		assertSame(first, rewardService.getRewardsSummary(1L, startDate, endDate, false));
+
+		// A transaction outside of the range keeps the summary cached
+		rewardService.createTransaction(1L, 120.0, LocalDate.of(2024, 2, 1));
+		assertSame(first, rewardService.getRewardsSummary(1L, startDate, endDate, false));
+
+		rewardService.createTransaction(1L, 120.0, LocalDate.of(2024, 1, 31));
+		assertNotSame(first, rewardService.getRewardsSummary(1L, startDate, endDate, false));
+
+		verify(ledgerRepository, times(2)).findByCustomerIdAndYearBetween(1L, 2024, 2024);
+		assertEquals(2, rewardService.getRewardsSummaryCacheStats().getHitCount());
+		assertEquals(2, rewardService.getRewardsSummaryCacheStats().getMissCount());
+	}
+
+	@Test
+	void testGetRewardsSummaryVersion_bumpedByTransaction() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+		when(ledgerRepository.addPoints(Mockito.eq(1L), Mockito.anyInt(), Mockito.anyInt(), Mockito.anyInt()))
+				.thenReturn(1);
+
+		String version = rewardService.getRewardsSummaryVersion(1L, startDate, endDate);
+		assertEquals(version, rewardService.getRewardsSummaryVersion(1L, startDate, endDate));
+		verify(customerRepository, never()).findById(1L);
+
+		rewardService.createTransaction(1L, 120.0, LocalDate.of(2024, 2, 1));
+		assertNotEquals(version, rewardService.getRewardsSummaryVersion(1L, startDate, endDate));
+	}
+
+	@Test
+	void testGetTransactions() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 22000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t3 = new TransactionDetails(3L, 1L, 7000, LocalDate.of(2024, 1, 15));
+
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(transactionRepository.findFirstPage(1L, startDate, endDate, Limit.of(3)))
+				.thenReturn(Arrays.asList(t1, t2, t3));
+		when(transactionRepository.findPageAfter(1L, startDate, endDate, t2.getDate(), 2L, Limit.of(3)))
+				.thenReturn(Arrays.asList(t3));
+
+		TransactionPage first = rewardService.getTransactions(1L, startDate, endDate, null, null, 2);
+		assertEquals(Arrays.asList(t1, t2), first.getTransactions());
+		assertEquals(t2.getDate(), first.getNextAfterDate());
+		assertEquals(2L, first.getNextAfterId());
+
+		TransactionPage last = rewardService.getTransactions(1L, startDate, endDate, first.getNextAfterDate(),
+				first.getNextAfterId(), 2);
+		assertEquals(Arrays.asList(t3), last.getTransactions());
+		assertNull(last.getNextAfterDate());
+		assertNull(last.getNextAfterId());
+	}
+
+	@Test
+	void testGetTransactions_invalidCursor() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.getTransactions(1L, startDate, endDate, startDate, null, 10));
+		assertEquals("afterDate and afterId must be given together.", exception.getMessage());
+
+		exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.getTransactions(1L, startDate, endDate, null, null, 0));
+		assertEquals("Limit must be between 1 and 1000.", exception.getMessage());
+	}
+
+	@Test
+	void testGetRewardsSummary_partialMonthsWithCustomRules() {
+		LocalDate startDate = LocalDate.of(2023, 12, 15);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+		ReflectionTestUtils.setField(rewardService, "rewardRules", RewardRuleSet.compile(List.of(),
+				List.of(new Promotion("holidays", LocalDate.of(2023, 12, 1), LocalDate.of(2023, 12, 31), 2, null))));
+
+		when(customerRepository.findById(1L)).thenReturn(Optional.of(customer));
+		when(ledgerRepository.findByCustomerIdAndYearBetween(1L, 2023, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2023, 12, 500),
+						new MonthlyRewardLedger(1L, 2024, 1, 250)));
+		when(transactionRepository.findDetailsByCustomerIdAndDateBetween(1L, startDate,
+				LocalDate.of(2023, 12, 31)))
+				.thenReturn(Arrays.asList(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2023, 12, 20))));
+
+		RewardSummaryResponse response = rewardService.getRewardsSummary(1L, startDate, endDate, false);
+
+		assertEquals(180, response.getRewardPointsPerMonth().get(0).getPoints());
+		assertEquals(250, response.getRewardPointsPerMonth().get(1).getPoints());
+		verify(transactionRepository, never()).sumRewardPointsPerMonth(Mockito.any(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	void testRebuildRewardLedger_customRules() {
+		ReflectionTestUtils.setField(rewardService, "rewardRules", RewardRuleSet.compile(List.of(),
+				List.of(new Promotion("holidays", LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 2, null))));
+		when(transactionRepository.streamAmountsOrderByCustomerId()).thenReturn(Stream.of(
+				new TransactionAmount(1L, 12_000, LocalDate.of(2024, 1, 10)),
+				new TransactionAmount(1L, 12_000, LocalDate.of(2024, 2, 10)),
+				new TransactionAmount(2L, 7_000, LocalDate.of(2024, 1, 10))));
+
+		assertEquals(3, rewardService.rebuildRewardLedger());
+		verify(rewardLeaderboard).reload();
+
+		verify(ledgerRepository).save(Mockito.argThat(entry -> entry.getCustomerId() == 1L && entry.getMonth() == 1
+				&& entry.getPoints() == 180));
+		verify(ledgerRepository).save(Mockito.argThat(entry -> entry.getCustomerId() == 1L && entry.getMonth() == 2
+				&& entry.getPoints() == 90));
+		verify(ledgerRepository).save(Mockito.argThat(entry -> entry.getCustomerId() == 2L && entry.getPoints() == 40));
+		verify(transactionRepository, never()).sumRewardPointsPerCustomerAndMonth();
+	}
+
+	@Test
+	void testRebuildRewardLedger() {
+		when(transactionRepository.sumRewardPointsPerCustomerAndMonth())
+				.thenReturn(Stream.of(new MonthlyRewardPoints(1L, 2024, 1, 380L),
+						new MonthlyRewardPoints(1L, 2025, 1, 20L), new MonthlyRewardPoints(2L, 2024, 3, 90L)));
+
+		int entries = rewardService.rebuildRewardLedger();
+
+		assertEquals(3, entries);
+		verify(ledgerRepository, times(1)).deleteAllInBatch();
+		verify(ledgerRepository, times(3)).save(Mockito.any(MonthlyRewardLedger.class));
+	}
+
+	@Test
+	void testRebuildRewardLedger_waitsForLedgerWriters() throws Exception {
+		when(transactionRepository.saveAndFlush(Mockito.any(Transaction.class))).thenReturn(transaction);
+		when(transactionRepository.sumRewardPointsPerCustomerAndMonth()).thenReturn(Stream.empty());
+
+		CompletableFuture<Integer> rebuild;
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			rewardService.createTransaction(1L, 120.0, null);
+			rebuild = CompletableFuture.supplyAsync(() -> inTransaction(rewardService::rebuildRewardLedger));
+
+			// The rebuild waits for the transaction that added points to the ledger
+			assertThrows(TimeoutException.class, () -> rebuild.get(200, TimeUnit.MILLISECONDS));
+			verify(ledgerRepository, never()).deleteAllInBatch();
+			TransactionSynchronizationManager.getSynchronizations().forEach(
+					synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+		} finally {
+			TransactionSynchronizationManager.clear();
+		}
+
+		assertEquals(0, rebuild.get(5, TimeUnit.SECONDS));
+		verify(ledgerRepository, times(1)).deleteAllInBatch();
+	}
+
+	private static <T> T inTransaction(Supplier<T> work) {
+		TransactionSynchronizationManager.initSynchronization();
+		try {
+			return work.get();
+		} finally {
+			TransactionSynchronizationManager.getSynchronizations().forEach(
+					synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+			TransactionSynchronizationManager.clear();
+		}
+	}
+
+	@Test
+	void testStreamRewardsSummaries() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 20);
+		Customer other = new Customer(2L, "Other Name", null);
+		Customer third = new Customer(3L, "Third Name", null);
+		List<Long> customerIds = Arrays.asList(3L, 1L, 2L);
+
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 22000, LocalDate.of(2024, 1, 15));
+		TransactionDetails t3 = new TransactionDetails(3L, 3L, 7000, LocalDate.of(2024, 1, 5));
+
+		when(customerRepository.findAllById(customerIds)).thenReturn(Arrays.asList(third, customer, other));
+		when(ledgerRepository.findByCustomerIdInAndYearBetween(customerIds, 2024, 2024)).thenReturn(List.of());
+		when(transactionRepository.streamDetailsByCustomerIdInAndDateBetween(customerIds, startDate,
+				endDate)).thenReturn(Stream.of(t1, t2, t3));
+
+		List<RewardSummaryResponse> summaries = new ArrayList<>();
+		rewardService.streamRewardsSummaries(
+				new RewardSummaryBatchRequest(customerIds, null, null, startDate, endDate), summaries::add);
+
+		assertEquals(3, summaries.size());
+		assertEquals(1L, summaries.get(0).getCustomerId());
+		assertEquals(2, summaries.get(0).getTransactions().size());
+		assertEquals(380, summaries.get(0).getTotalRewardPoints());
+		assertEquals(2L, summaries.get(1).getCustomerId());
+		assertEquals(0, summaries.get(1).getTransactions().size());
+		assertEquals(0, summaries.get(1).getTotalRewardPoints());
+		assertEquals(3L, summaries.get(2).getCustomerId());
+		assertEquals(20, summaries.get(2).getTotalRewardPoints());
+	}
+
+	@Test
+	void testStreamRewardsSummaries_multipleYears() {
+		LocalDate startDate = LocalDate.of(2024, 1, 10);
+		LocalDate endDate = LocalDate.of(2025, 1, 20);
+		List<Long> customerIds = Arrays.asList(1L);
+
+		TransactionDetails t1 = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 10));
+		TransactionDetails t2 = new TransactionDetails(2L, 1L, 7000, LocalDate.of(2025, 1, 5));
+
+		when(customerRepository.findAllById(customerIds)).thenReturn(Arrays.asList(customer));
+		when(ledgerRepository.findByCustomerIdInAndYearBetween(customerIds, 2024, 2025))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2024, 6, 45)));
+		when(transactionRepository.streamDetailsByCustomerIdInAndDateBetween(customerIds, startDate,
+				endDate)).thenReturn(Stream.of(t1, t2));
+
+		List<RewardSummaryResponse> summaries = new ArrayList<>();
+		rewardService.streamRewardsSummaries(
+				new RewardSummaryBatchRequest(customerIds, null, null, startDate, endDate), summaries::add);
+
+		List<MonthRewardSummary> months = summaries.get(0).getRewardPointsPerMonth();
+		assertEquals(13, months.size());
+		assertEquals(2024, months.get(0).getYear());
+		assertEquals(90, months.get(0).getPoints());
+		assertEquals(45, months.get(5).getPoints());
+		assertEquals(2025, months.get(12).getYear());
+		assertEquals(Month.JANUARY, months.get(12).getMonth());
+		assertEquals(20, months.get(12).getPoints());
+		assertEquals(155, summaries.get(0).getTotalRewardPoints());
+	}
+
+	@Test
+	void testStreamRewardsSummaries_customerIdRange() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		when(customerRepository.findByIdBetweenOrderById(1L, 5L)).thenReturn(Arrays.asList(customer));
+		when(ledgerRepository.findByCustomerIdBetweenAndYearBetween(1L, 5L, 2024, 2024))
+				.thenReturn(Arrays.asList(new MonthlyRewardLedger(1L, 2024, 1, 380)));
+		when(transactionRepository.streamDetailsByCustomerIdBetweenAndDateBetween(1L, 5L, startDate,
+				endDate)).thenReturn(Stream.empty());
+
+		List<RewardSummaryResponse> summaries = new ArrayList<>();
+		rewardService.streamRewardsSummaries(new RewardSummaryBatchRequest(null, 1L, 5L, startDate, endDate),
+				summaries::add);
+
+		assertEquals(1, summaries.size());
+		assertEquals(380, summaries.get(0).getTotalRewardPoints());
+	}
+
+	@Test
+	void testValidateRewardsSummaryBatch_invalidRequest() {
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+				() -> rewardService.validateRewardsSummaryBatch(
+						new RewardSummaryBatchRequest(Arrays.asList(1L), 1L, 5L, startDate, endDate)));
+		assertEquals("Either customer IDs or a customer ID range is required.", exception.getMessage());
+
+		exception = assertThrows(IllegalArgumentException.class, () -> rewardService
+				.validateRewardsSummaryBatch(new RewardSummaryBatchRequest(null, 5L, 1L, startDate, endDate)));
+		assertEquals("Customer ID range requires a from ID not greater than the to ID.", exception.getMessage());
+
+		exception = assertThrows(IllegalArgumentException.class, () -> rewardService
+				.validateRewardsSummaryBatch(new RewardSummaryBatchRequest(null, 1L, 5L, endDate, startDate)));
+		assertEquals("End date cannot be before start date.", exception.getMessage());
 	}
 
 	@Test
@@ -151,7 +748,49 @@ public class RewardServiceTest {
 		assertEquals("End date cannot be before start date.", exception.getMessage());
 
 		verify(customerRepository, times(0)).findById(1L);
-		verify(transactionRepository, times(0)).findTransactionsByCustomerIdAndDateBetween(1L, startDate, endDate);
+		verify(transactionRepository, times(0)).findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate);
+	}
+
+	@Test
+	void testCreateCustomer_addedToCustomerIdIndex() {
+		ReflectionTestUtils.setField(customerIdIndex, "loadedMaxId", 5L);
+		when(customerRepository.save(Mockito.any(Customer.class))).thenReturn(new Customer(3L, "Test Name", null));
+
+		rewardService.createCustomer("Test Name");
+
+		assertFalse(customerIdIndex.mightExist(2L));
+		assertTrue(customerIdIndex.mightExist(3L));
+		assertTrue(customerIdIndex.mightExist(6L));
+	}
+
+	@Test
+	void testGetCustomer_rejectedByCustomerIdIndex() {
+		customerIdIndex.add(5L);
+		ReflectionTestUtils.setField(customerIdIndex, "loadedMaxId", 5L);
+
+		CustomerNotFoundException exception = assertThrows(CustomerNotFoundException.class,
+				() -> rewardService.getCustomer(3L));
+
+		assertEquals("Customer not found with ID: 3", exception.getMessage());
+		assertEquals(0, exception.getStackTrace().length);
+		assertEquals(1, meterRegistry.counter("rewards.customer.lookups.rejected").count());
+		verify(customerRepository, never()).findById(3L);
+	}
+
+	@Test
+	void testGetCustomer_aboveCustomerIdIndexAdded() {
+		customerIdIndex.add(5L);
+		ReflectionTestUtils.setField(customerIdIndex, "loadedMaxId", 5L);
+		when(customerRepository.findById(7L)).thenReturn(Optional.of(new Customer(7L, "Test Name", null)));
+		when(customerRepository.findById(6L)).thenReturn(Optional.of(new Customer(6L, "Other Name", null)));
+
+		rewardService.getCustomer(7L);
+
+		// A lower ID created elsewhere since the load is still looked up
+		assertTrue(customerIdIndex.mightExist(6L));
+		rewardService.getCustomer(6L);
+		assertTrue(customerIdIndex.mightExist(7L));
+		assertFalse(customerIdIndex.mightExist(4L));
 	}
 
 	@Test
@@ -167,6 +806,6 @@ public class RewardServiceTest {
 		assertEquals("Customer not found with ID: 1", exception.getMessage());
 
 		verify(customerRepository, times(1)).findById(1L);
-		verify(transactionRepository, times(0)).findTransactionsByCustomerIdAndDateBetween(1L, startDate, endDate);
+		verify(transactionRepository, times(0)).findDetailsByCustomerIdAndDateBetween(1L, startDate, endDate);
 	}
 }
@@ -0,0 +1,86 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.time.LocalDate;
+import java.time.Month;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.retailer.rewards.model.RewardSummaryResponse;
+import com.retailer.rewards.model.TransactionDetails;
+import com.retailer.rewards.rules.RewardRuleProperties.Promotion;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+public class RewardSummaryAccumulatorTest {
+
+	private static final LocalDate START_DATE = LocalDate.of(2024, 1, 15);
+
+	private static final LocalDate END_DATE = LocalDate.of(2024, 3, 10);
+
+	@Test
+	void testToSummary_pointsPerMonth() {
+		RewardSummaryAccumulator accumulator = new RewardSummaryAccumulator(RewardRuleSet.DEFAULT, START_DATE,
+				END_DATE, true);
+		TransactionDetails january = new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 20));
+		TransactionDetails march = new TransactionDetails(2L, 1L, 7550, LocalDate.of(2024, 3, 1));
+		accumulator.add(january);
+		accumulator.add(march);
+
+		RewardSummaryResponse summary = accumulator.toSummary(1L, "Test Name");
+
+		assertEquals(1L, summary.getCustomerId());
+		assertEquals("Test Name", summary.getCustomerName());
+		assertEquals(List.of(january, march), summary.getTransactions());
+		assertEquals(3, summary.getRewardPointsPerMonth().size());
+		assertEquals(Month.JANUARY, summary.getRewardPointsPerMonth().get(0).getMonth());
+		assertEquals(90, summary.getRewardPointsPerMonth().get(0).getPoints());
+		assertEquals(0, summary.getRewardPointsPerMonth().get(1).getPoints());
+		assertEquals(Month.MARCH, summary.getRewardPointsPerMonth().get(2).getMonth());
+		assertEquals(25, summary.getRewardPointsPerMonth().get(2).getPoints());
+		assertEquals(115, summary.getTotalRewardPoints());
+	}
+
+	@Test
+	void testToSummary_withoutTransactions() {
+		RewardSummaryAccumulator accumulator = new RewardSummaryAccumulator(RewardRuleSet.DEFAULT, START_DATE,
+				END_DATE, false);
+		accumulator.add(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 2, 20)));
+
+		RewardSummaryResponse summary = accumulator.toSummary(1L, "Test Name");
+
+		assertNull(summary.getTransactions());
+		assertEquals(90, summary.getTotalRewardPoints());
+	}
+
+	@Test
+	void testAdd_ignoresTransactionsOutsideOfTheMonths() {
+		RewardSummaryAccumulator accumulator = new RewardSummaryAccumulator(RewardRuleSet.DEFAULT, START_DATE,
+				END_DATE, true);
+		accumulator.add(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2023, 12, 31)));
+		accumulator.add(new TransactionDetails(2L, 1L, 12000, LocalDate.of(2024, 4, 1)));
+
+		RewardSummaryResponse summary = accumulator.toSummary(1L, "Test Name");
+
+		assertEquals(List.of(), summary.getTransactions());
+		assertEquals(0, summary.getTotalRewardPoints());
+	}
+
+	@Test
+	void testAdd_customRules() {
+		RewardRuleSet rules = RewardRuleSet.compile(List.of(), List.of(new Promotion("double", LocalDate.of(2024, 2, 1),
+				LocalDate.of(2024, 2, 29), 2, List.of())));
+		RewardSummaryAccumulator accumulator = new RewardSummaryAccumulator(rules, START_DATE, END_DATE, false);
+		accumulator.add(new TransactionDetails(1L, 1L, 12000, LocalDate.of(2024, 1, 20)));
+		accumulator.add(new TransactionDetails(2L, 1L, 12000, LocalDate.of(2024, 2, 20)));
+
+		RewardSummaryResponse summary = accumulator.toSummary(1L, "Test Name");
+
+		assertEquals(90, summary.getRewardPointsPerMonth().get(0).getPoints());
+		assertEquals(180, summary.getRewardPointsPerMonth().get(1).getPoints());
+		assertEquals(270, summary.getTotalRewardPoints());
+	}
+
+}
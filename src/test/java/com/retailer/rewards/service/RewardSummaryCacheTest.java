@@ -0,0 +1,153 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.retailer.rewards.model.RewardSummaryCacheStats;
+import com.retailer.rewards.model.RewardSummaryResponse;
+
+public class RewardSummaryCacheTest {
+
+	@Test
+	void testGet_closedRangeDoesNotExpire() {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofNanos(1));
+		LocalDate startDate = LocalDate.now().withDayOfMonth(1).minusMonths(3);
+		LocalDate endDate = LocalDate.now().withDayOfMonth(1).minusDays(1);
+
+		RewardSummaryResponse first = cache.get(1L, startDate, endDate, false, RewardSummaryResponse::new);
+
+		assertSame(first, cache.get(1L, startDate, endDate, false, RewardSummaryResponse::new));
+	}
+
+	@Test
+	void testGet_currentMonthExpires() throws InterruptedException {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofMillis(1));
+		LocalDate startDate = LocalDate.now().withDayOfMonth(1).minusMonths(3);
+		LocalDate endDate = LocalDate.now();
+
+		RewardSummaryResponse first = cache.get(1L, startDate, endDate, false, RewardSummaryResponse::new);
+		Thread.sleep(5);
+
+		assertNotSame(first, cache.get(1L, startDate, endDate, false, RewardSummaryResponse::new));
+	}
+
+	@Test
+	void testInvalidate_onlyRangesContainingTheDates() {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofMinutes(1));
+		LocalDate january = LocalDate.of(2024, 1, 1);
+		LocalDate february = LocalDate.of(2024, 2, 1);
+
+		RewardSummaryResponse customerJanuary = cache.get(1L, january, february.minusDays(1), false,
+				RewardSummaryResponse::new);
+		RewardSummaryResponse customerFebruary = cache.get(1L, february, february.plusDays(28), false,
+				RewardSummaryResponse::new);
+		RewardSummaryResponse otherJanuary = cache.get(2L, january, february.minusDays(1), false,
+				RewardSummaryResponse::new);
+
+		cache.invalidate(Map.of(1L, List.of(LocalDate.of(2024, 1, 31))));
+
+		assertNotSame(customerJanuary,
+				cache.get(1L, january, february.minusDays(1), false, RewardSummaryResponse::new));
+		assertSame(customerFebruary, cache.get(1L, february, february.plusDays(28), false, RewardSummaryResponse::new));
+		assertSame(otherJanuary, cache.get(2L, january, february.minusDays(1), false, RewardSummaryResponse::new));
+
+		RewardSummaryCacheStats stats = cache.stats();
+		assertEquals(2, stats.getHitCount());
+		assertEquals(4, stats.getMissCount());
+	}
+
+	@Test
+	@SuppressWarnings("unchecked")
+	void testInvalidate_removesOnlyTheInvalidatedKeysFromTheIndex() {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofMinutes(1));
+		LocalDate january = LocalDate.of(2024, 1, 1);
+		LocalDate february = LocalDate.of(2024, 2, 1);
+		cache.get(1L, january, february.minusDays(1), false, RewardSummaryResponse::new);
+		cache.get(1L, february, february.plusDays(28), false, RewardSummaryResponse::new);
+		cache.get(2L, january, february.minusDays(1), false, RewardSummaryResponse::new);
+		Map<?, ? extends Set<?>> keysPerCustomer = (Map<?, ? extends Set<?>>) ReflectionTestUtils.getField(cache,
+				"keysPerCustomer");
+
+		cache.invalidate(Map.of(1L, List.of(LocalDate.of(2024, 1, 31))));
+
+		assertEquals(1, keysPerCustomer.get(1L).size());
+		assertEquals(1, keysPerCustomer.get(2L).size());
+
+		cache.invalidate(Map.of(1L, List.of(LocalDate.of(2024, 2, 10))));
+
+		assertFalse(keysPerCustomer.containsKey(1L));
+
+		cache.invalidateAll();
+
+		assertTrue(keysPerCustomer.isEmpty());
+	}
+
+	@Test
+	void testGet_invalidatedWhileLoading() {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofMinutes(1));
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+
+		RewardSummaryResponse stale = cache.get(1L, startDate, endDate, false, () -> {
+			// A transaction committed after the summary was read from the database
+			cache.invalidate(Map.of(1L, List.of(LocalDate.of(2024, 1, 10))));
+			return new RewardSummaryResponse();
+		});
+
+		assertNotSame(stale, cache.get(1L, startDate, endDate, false, RewardSummaryResponse::new));
+	}
+
+	@Test
+	void testGet_disabled() {
+		RewardSummaryCache cache = new RewardSummaryCache(0, Duration.ofMinutes(1));
+		LocalDate startDate = LocalDate.of(2024, 1, 1);
+
+		RewardSummaryResponse first = cache.get(1L, startDate, startDate, false, RewardSummaryResponse::new);
+
+		assertNotSame(first, cache.get(1L, startDate, startDate, false, RewardSummaryResponse::new));
+	}
+
+	@Test
+	void testVersion_bumpedByInvalidation() {
+		RewardSummaryCache cache = new RewardSummaryCache(0, Duration.ofMinutes(1));
+		LocalDate endDate = LocalDate.of(2024, 1, 31);
+		String customerVersion = cache.version(1L, endDate);
+		String otherVersion = cache.version(2L, endDate);
+
+		cache.invalidate(Map.of(1L, List.of(LocalDate.of(2024, 1, 10))));
+
+		assertNotEquals(customerVersion, cache.version(1L, endDate));
+		assertEquals(otherVersion, cache.version(2L, endDate));
+
+		String invalidatedVersion = cache.version(1L, endDate);
+		cache.invalidateAll();
+
+		assertNotEquals(invalidatedVersion, cache.version(1L, endDate));
+		assertNotEquals(otherVersion, cache.version(2L, endDate));
+	}
+
+	@Test
+	void testVersion_currentMonthChangesAfterTtl() throws InterruptedException {
+		RewardSummaryCache cache = new RewardSummaryCache(100, Duration.ofMillis(1));
+		LocalDate closedEndDate = LocalDate.now().withDayOfMonth(1).minusDays(1);
+		String closedVersion = cache.version(1L, closedEndDate);
+		String currentVersion = cache.version(1L, LocalDate.now());
+		Thread.sleep(5);
+
+		assertEquals(closedVersion, cache.version(1L, closedEndDate));
+		assertNotEquals(currentVersion, cache.version(1L, LocalDate.now()));
+	}
+}
@@ -0,0 +1,172 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import com.retailer.rewards.model.MonthlyPointsTotal;
+import com.retailer.rewards.model.TopEarner;
+import com.retailer.rewards.model.TransactionAmount;
+import com.retailer.rewards.repository.TransactionRepository;
+import com.retailer.rewards.rules.RewardRuleSet;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionAnalyticsServiceTest {
+
+	@Mock
+	private TransactionRepository transactionRepository;
+
+	@Spy
+	private RewardRuleSet rewardRules = RewardRuleSet.DEFAULT;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private TransactionAnalyticsService analyticsService;
+
+	@BeforeEach
+	void setUp() {
+		ReflectionTestUtils.setField(analyticsService, "segmentRows", 4);
+		ReflectionTestUtils.setField(analyticsService, "refreshInterval", Duration.ZERO);
+		ReflectionTestUtils.setField(analyticsService, "rebuildInterval", Duration.ofHours(1));
+	}
+
+	private void mockTransactions() {
+		when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+	}
+
+	@Test
+	void testGetPointsPerMonth_refreshesIncrementally() {
+		mockTransactions();
+		when(transactionRepository.findMaxId()).thenReturn(2L, 3L);
+		when(transactionRepository.streamAmountsByIdBetween(0L, 2L))
+				.thenReturn(Stream.of(new TransactionAmount(1L, 12000, LocalDate.of(2024, 1, 10)),
+						new TransactionAmount(2L, 7550, LocalDate.of(2024, 2, 1))));
+		when(transactionRepository.streamAmountsByIdBetween(2L, 3L))
+				.thenReturn(Stream.of(new TransactionAmount(1L, 22000, LocalDate.of(2024, 2, 15))));
+
+		List<MonthlyPointsTotal> first = analyticsService.getPointsPerMonth(YearMonth.of(2024, 1),
+				YearMonth.of(2024, 2), null, null);
+		List<MonthlyPointsTotal> second = analyticsService.getPointsPerMonth(YearMonth.of(2024, 1),
+				YearMonth.of(2024, 2), 1L, 1L);
+
+		assertEquals(2, first.size());
+		assertEquals(Month.JANUARY, first.get(0).getMonth());
+		assertEquals(90, first.get(0).getPoints());
+		assertEquals(120.0, first.get(0).getAmount());
+		assertEquals(25, first.get(1).getPoints());
+		assertEquals(90, second.get(0).getPoints());
+		assertEquals(290, second.get(1).getPoints());
+		assertEquals(1, second.get(1).getTransactions());
+	}
+
+	@Test
+	void testGetPointsPerMonth_withoutNewTransactions() {
+		mockTransactions();
+		when(transactionRepository.findMaxId()).thenReturn(null);
+
+		List<MonthlyPointsTotal> totals = analyticsService.getPointsPerMonth(YearMonth.of(2024, 1),
+				YearMonth.of(2024, 1), null, null);
+
+		assertEquals(0, totals.get(0).getPoints());
+		verify(transactionRepository, never()).streamAmountsByIdBetween(any(), any());
+	}
+
+	@Test
+	void testGetPointsPerMonth_doesNotWaitForRefreshInProgress() throws Exception {
+		mockTransactions();
+		when(transactionRepository.findMaxId()).thenReturn(1L);
+		when(transactionRepository.streamAmountsByIdBetween(0L, 1L))
+				.thenReturn(Stream.of(new TransactionAmount(1L, 12000, LocalDate.of(2024, 1, 10))));
+		analyticsService.refresh();
+
+		// Another query holds the refresh lock while it reads the transactions
+		ReentrantLock refreshLock = (ReentrantLock) ReflectionTestUtils.getField(analyticsService, "refreshLock");
+		ExecutorService refresher = Executors.newSingleThreadExecutor();
+		try {
+			refresher.submit(() -> refreshLock.lock()).get();
+
+			List<MonthlyPointsTotal> totals = analyticsService.getPointsPerMonth(YearMonth.of(2024, 1),
+					YearMonth.of(2024, 1), null, null);
+
+			assertEquals(90, totals.get(0).getPoints());
+			verify(transactionRepository, times(1)).findMaxId();
+		} finally {
+			refresher.submit(() -> refreshLock.unlock()).get();
+			refresher.shutdown();
+		}
+	}
+
+	@Test
+	void testGetPointsPerMonth_invalidRange() {
+		assertThrows(IllegalArgumentException.class, () -> analyticsService.getPointsPerMonth(YearMonth.of(2024, 2),
+				YearMonth.of(2024, 1), null, null));
+		assertThrows(IllegalArgumentException.class, () -> analyticsService.getPointsPerMonth(YearMonth.of(2024, 1),
+				YearMonth.of(2024, 2), 5L, 4L));
+	}
+
+	@Test
+	void testGetTopEarners() {
+		mockTransactions();
+		when(transactionRepository.findMaxId()).thenReturn(5L);
+		LocalDate date = LocalDate.of(2024, 1, 10);
+		when(transactionRepository.streamAmountsByIdBetween(0L, 5L)).thenReturn(Stream.of(
+				new TransactionAmount(10L, 12000, date), new TransactionAmount(12L, 22000, date),
+				new TransactionAmount(11L, 12000, date), new TransactionAmount(13L, 4000, date),
+				new TransactionAmount(12L, 7550, LocalDate.of(2023, 12, 31))));
+
+		List<TopEarner> earners = analyticsService.getTopEarners(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31),
+				5);
+
+		// Customer 13 earned no points and the transaction of 2023 is out of range
+		assertEquals(3, earners.size());
+		assertEquals(1, earners.get(0).getRank());
+		assertEquals(12L, earners.get(0).getCustomerId());
+		assertEquals(290, earners.get(0).getPoints());
+		assertEquals(10L, earners.get(1).getCustomerId());
+		assertEquals(11L, earners.get(2).getCustomerId());
+		assertEquals(3, earners.get(2).getRank());
+	}
+
+	@Test
+	void testGetTopEarners_invalidLimit() {
+		assertThrows(IllegalArgumentException.class,
+				() -> analyticsService.getTopEarners(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 0));
+	}
+
+	@Test
+	void testSelectTop() {
+		long[] values = { 5, 0, 9, 5, 1, 7, 9 };
+
+		assertArrayEquals(new int[] { 2, 6, 5 }, TransactionAnalyticsService.selectTop(values, 3));
+		assertArrayEquals(new int[] { 2, 6, 5, 0, 3, 4 }, TransactionAnalyticsService.selectTop(values, 10));
+	}
+
+}
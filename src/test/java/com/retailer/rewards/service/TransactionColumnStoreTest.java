@@ -0,0 +1,114 @@
+package com.retailer.rewards.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.retailer.rewards.RewardCalculator;
+import com.retailer.rewards.service.TransactionColumnStore.CustomerPoints;
+
+public class TransactionColumnStoreTest {
+
+	private TransactionColumnStore store;
+
+	@BeforeEach
+	void setUp() {
+		// Small segments, so that the rows span several of them
+		store = new TransactionColumnStore(2);
+		append(3L, LocalDate.of(2024, 1, 10), 12000, 90);
+		append(1L, LocalDate.of(2024, 1, 31), 7550, 25);
+		append(2L, LocalDate.of(2024, 2, 1), 22000, 290);
+		append(3L, LocalDate.of(2024, 3, 5), 6000, 10);
+		append(1L, LocalDate.of(2023, 12, 31), 15000, 150);
+	}
+
+	private void append(long customerId, LocalDate date, long amountCents, int points) {
+		store.append(customerId, Math.toIntExact(date.toEpochDay()),
+				RewardCalculator.epochMonth(date.getYear(), date.getMonthValue()), amountCents, points);
+	}
+
+	@Test
+	void testSumPointsPerMonth() {
+		long[] points = new long[3];
+		long[] amountCents = new long[3];
+		long[] transactions = new long[3];
+
+		store.sumPointsPerMonth(RewardCalculator.epochMonth(2024, 1), 3, Long.MIN_VALUE, Long.MAX_VALUE, points,
+				amountCents, transactions);
+
+		assertEquals(5, store.size());
+		assertArrayEquals(new long[] { 115, 290, 10 }, points);
+		assertArrayEquals(new long[] { 19550, 22000, 6000 }, amountCents);
+		assertArrayEquals(new long[] { 2, 1, 1 }, transactions);
+	}
+
+	@Test
+	void testSumPointsPerMonth_cohort() {
+		long[] points = new long[3];
+		long[] amountCents = new long[3];
+		long[] transactions = new long[3];
+
+		store.sumPointsPerMonth(RewardCalculator.epochMonth(2024, 1), 3, 2L, 3L, points, amountCents, transactions);
+
+		assertArrayEquals(new long[] { 90, 290, 10 }, points);
+		assertArrayEquals(new long[] { 1, 1, 1 }, transactions);
+	}
+
+	@Test
+	void testSumPointsPerCustomer() {
+		CustomerPoints points = store.sumPointsPerCustomer(Math.toIntExact(LocalDate.of(2024, 1, 1).toEpochDay()),
+				Math.toIntExact(LocalDate.of(2024, 1, 31).toEpochDay()));
+
+		assertEquals(1L, points.firstCustomerId());
+		assertArrayEquals(new long[] { 25, 0, 90 }, points.points());
+	}
+
+	@Test
+	void testSumPointsPerCustomer_keepsFirstCustomerIdOfRowsSummed() {
+		CustomerPoints points = store.sumPointsPerCustomer(0, Integer.MAX_VALUE);
+		// A refresh appending a lower customer ID does not shift the summed points
+		store.append(0L, 0, 0, 100, 1);
+
+		assertEquals(1L, points.firstCustomerId());
+		assertEquals(0L, store.sumPointsPerCustomer(0, Integer.MAX_VALUE).firstCustomerId());
+	}
+
+	@Test
+	void testSumPointsPerCustomer_sparseCustomerIds() {
+		long farCustomerId = 1L + TransactionColumnStore.MAX_DENSE_CUSTOMER_IDS << 20;
+		append(farCustomerId, LocalDate.of(2024, 1, 20), 10000, 50);
+
+		CustomerPoints points = store.sumPointsPerCustomer(Math.toIntExact(LocalDate.of(2024, 1, 1).toEpochDay()),
+				Math.toIntExact(LocalDate.of(2024, 1, 31).toEpochDay()));
+
+		assertArrayEquals(new long[] { 1L, 3L, farCustomerId }, points.customerIds());
+		assertArrayEquals(new long[] { 25, 90, 50 }, points.points());
+		assertEquals(farCustomerId, points.customerId(2));
+	}
+
+	@Test
+	void testSumPointsPerCustomer_sparseCustomerIdsGrowTheTable() {
+		TransactionColumnStore sparse = new TransactionColumnStore(1024);
+		for (long customer = 3000; customer > 0; customer--) {
+			sparse.append(customer * TransactionColumnStore.MAX_DENSE_CUSTOMER_IDS, 0, 0, 100, (int) customer);
+			sparse.append(customer * TransactionColumnStore.MAX_DENSE_CUSTOMER_IDS, 0, 0, 100, 1);
+		}
+
+		CustomerPoints points = sparse.sumPointsPerCustomer(0, 0);
+
+		assertEquals(3000, points.points().length);
+		assertEquals(TransactionColumnStore.MAX_DENSE_CUSTOMER_IDS, points.customerId(0));
+		assertEquals(2, points.points()[0]);
+		assertEquals(3001, points.points()[2999]);
+	}
+
+	@Test
+	void testSumPointsPerCustomer_empty() {
+		assertEquals(0, new TransactionColumnStore(2).sumPointsPerCustomer(0, Integer.MAX_VALUE).points().length);
+	}
+
+}